@@ -0,0 +1,228 @@
+package com.swiftcoder.json2pojo.gradle;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileSystemOperations;
+import org.gradle.api.file.FileType;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.SetProperty;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.LocalState;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.SkipWhenEmpty;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.work.ChangeType;
+import org.gradle.work.FileChange;
+import org.gradle.work.InputChanges;
+import org.gradle.process.ExecOperations;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates POJOs from JSON samples during the build through the {@code Json2PojoCli} entry
+ * point. Samples and options are task inputs; only changed samples are inferred again.
+ */
+@CacheableTask
+public abstract class GeneratePojosTask extends DefaultTask {
+    private static final String MAIN_CLASS = "com.swiftcoder.json2pojo.cli.Json2PojoCli";
+
+    public GeneratePojosTask() {
+        getPackageName().convention("");
+        getJackson().convention(false);
+        getReaders().convention(false);
+        getWriters().convention(false);
+        getPrimitives().convention(false);
+        getNarrowNumbers().convention(false);
+        getOmitNulls().convention(false);
+        getEnumThreshold().convention(0);
+        getThreads().convention(Runtime.getRuntime().availableProcessors());
+        getCacheFile().convention(getProject().getLayout().getBuildDirectory()
+            .file("json2pojo/" + getName() + ".cache"));
+    }
+
+    // .json samples, and .jsonl/.ndjson for one record per line; incremental through @SkipWhenEmpty
+    @InputFiles
+    @SkipWhenEmpty
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract ConfigurableFileCollection getSamples();
+
+    // Classpath of the generation engine, usually the plugin's main runtime classpath
+    @Classpath
+    public abstract ConfigurableFileCollection getEngineClasspath();
+
+    @Input
+    public abstract Property<String> getPackageName();
+
+    @Input
+    public abstract Property<Boolean> getJackson();
+
+    // Empty for no Lombok, otherwise e.g. ["@Getter", "@Setter"]
+    @Input
+    public abstract SetProperty<String> getLombokAnnotations();
+
+    @Input
+    public abstract Property<Boolean> getReaders();
+
+    @Input
+    public abstract Property<Boolean> getWriters();
+
+    @Input
+    public abstract Property<Boolean> getPrimitives();
+
+    @Input
+    public abstract Property<Boolean> getNarrowNumbers();
+
+    @Input
+    public abstract Property<Boolean> getOmitNulls();
+
+    @Input
+    public abstract Property<Integer> getEnumThreshold();
+
+    // Unset to infer from every array element and record
+    @Input
+    @Optional
+    public abstract Property<Integer> getMaxSamples();
+
+    // Unset for no cap; past it nested objects are typed as Object
+    @Input
+    @Optional
+    public abstract Property<Integer> getMaxClasses();
+
+    // Unset for no cap; counted across all classes of a sample
+    @Input
+    @Optional
+    public abstract Property<Integer> getMaxFields();
+
+    // Does not change the output
+    @Internal
+    public abstract Property<Integer> getThreads();
+
+    @OutputDirectory
+    public abstract DirectoryProperty getOutputDirectory();
+
+    // Fingerprints of the classes last written; dropped when the output comes from the build cache
+    @LocalState
+    public abstract RegularFileProperty getCacheFile();
+
+    @Inject
+    protected abstract ExecOperations getExecOperations();
+
+    @Inject
+    protected abstract FileSystemOperations getFileSystemOperations();
+
+    @TaskAction
+    public void generate(InputChanges changes) {
+        File outputDirectory = getOutputDirectory().get().getAsFile();
+        File cacheFile = getCacheFile().get().getAsFile();
+        if (!changes.isIncremental()) {
+            // Options or engine changed, or there is no previous state to build on
+            getFileSystemOperations().delete(spec -> spec.delete(outputDirectory, cacheFile));
+        }
+
+        List<String> changed = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        for (FileChange change : changes.getFileChanges(getSamples())) {
+            if (change.getFileType() == FileType.DIRECTORY) {
+                continue;
+            }
+            if (change.getChangeType() == ChangeType.REMOVED) {
+                removed.add(change.getFile().getAbsolutePath());
+            } else {
+                changed.add(change.getFile().getAbsolutePath());
+            }
+        }
+        if (changed.isEmpty() && removed.isEmpty()) {
+            return;
+        }
+        getLogger().info("Generating POJOs for {} changed and {} removed sample(s)", changed.size(), removed.size());
+
+        // Hundreds of sample paths would overflow some command lines, so they go through an argument file
+        File argumentFile = new File(getTemporaryDir(), "arguments.txt");
+        try {
+            Files.write(argumentFile.toPath(), arguments(changed, removed, outputDirectory, cacheFile),
+                StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        getExecOperations().javaexec(spec -> {
+            spec.setClasspath(getEngineClasspath());
+            spec.getMainClass().set(MAIN_CLASS);
+            spec.args("@" + argumentFile.getAbsolutePath());
+        });
+    }
+
+    private List<String> arguments(List<String> changed, List<String> removed, File outputDirectory,
+                                   File cacheFile) {
+        List<String> arguments = new ArrayList<>();
+        if (!getPackageName().get().isEmpty()) {
+            arguments.add("--package");
+            arguments.add(getPackageName().get());
+        }
+        if (getJackson().get()) {
+            arguments.add("--jackson");
+        }
+        if (!getLombokAnnotations().get().isEmpty()) {
+            arguments.add("--lombok");
+            arguments.add(String.join(",", getLombokAnnotations().get()));
+        }
+        if (getReaders().get()) {
+            arguments.add("--readers");
+        }
+        if (getWriters().get()) {
+            arguments.add("--writers");
+        }
+        if (getPrimitives().get()) {
+            arguments.add("--primitives");
+        }
+        if (getNarrowNumbers().get()) {
+            arguments.add("--narrow-numbers");
+        }
+        if (getOmitNulls().get()) {
+            arguments.add("--omit-nulls");
+        }
+        if (getEnumThreshold().get() > 0) {
+            arguments.add("--enum-threshold");
+            arguments.add(String.valueOf(getEnumThreshold().get()));
+        }
+        if (getMaxSamples().isPresent()) {
+            arguments.add("--max-samples");
+            arguments.add(String.valueOf(getMaxSamples().get()));
+        }
+        if (getMaxClasses().isPresent()) {
+            arguments.add("--max-classes");
+            arguments.add(String.valueOf(getMaxClasses().get()));
+        }
+        if (getMaxFields().isPresent()) {
+            arguments.add("--max-fields");
+            arguments.add(String.valueOf(getMaxFields().get()));
+        }
+        arguments.add("--threads");
+        arguments.add(String.valueOf(getThreads().get()));
+        arguments.add("--cache");
+        arguments.add(cacheFile.getAbsolutePath());
+        arguments.add("--prune");
+        for (String sample : removed) {
+            arguments.add("--removed");
+            arguments.add(sample);
+        }
+        arguments.addAll(changed);
+        arguments.add(outputDirectory.getAbsolutePath());
+        return arguments;
+    }
+}
@@ -0,0 +1,72 @@
+package com.swiftcoder.json2pojo;
+
+import com.swiftcoder.json2pojo.generators.JavaCodeGenerator;
+import com.swiftcoder.json2pojo.models.GenerationConfig;
+import com.swiftcoder.json2pojo.models.JsonClass;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Source generation for models of growing size: depth adds classes, width adds fields to each,
+ * and the Jackson/Lombok variants change what every class renders.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JavaCodeGeneratorBenchmark {
+
+    public enum Variant {
+        PLAIN(false, false),
+        JACKSON(true, false),
+        LOMBOK(false, true),
+        JACKSON_LOMBOK(true, true);
+
+        private final boolean useJackson;
+        private final boolean useLombok;
+
+        Variant(boolean useJackson, boolean useLombok) {
+            this.useJackson = useJackson;
+            this.useLombok = useLombok;
+        }
+    }
+
+    @Param({"1", "8", "32"})
+    int depth;
+
+    @Param({"4", "64"})
+    int width;
+
+    @Param
+    Variant variant;
+
+    private JsonClass rootClass;
+    private GenerationConfig config;
+    private JavaCodeGenerator generator;
+
+    @Setup
+    public void setUp() throws IOException {
+        // The model depends on the shape of the records, not on how many there are
+        String json = new WorkloadGenerator(42).withDepth(depth).withWidth(width).generate();
+        rootClass = new JsonParser().parseJson(json, "Root");
+        Set<String> lombokAnnotations = variant.useLombok ? Set.of("@Getter", "@Setter") : Set.of();
+        config = new GenerationConfig(variant.useJackson, variant.useLombok, lombokAnnotations,
+            "com.example.model", "Root");
+        generator = new JavaCodeGenerator();
+    }
+
+    @Benchmark
+    public List<String> generateJavaClasses() {
+        return generator.generateJavaClasses(rootClass, config);
+    }
+}
@@ -0,0 +1,104 @@
+package com.swiftcoder.json2pojo;
+
+import com.swiftcoder.json2pojo.inference.SymbolTable;
+import com.swiftcoder.json2pojo.models.GenerationConfig;
+import com.swiftcoder.json2pojo.models.JsonClass;
+import com.swiftcoder.json2pojo.ui.GenerationPreview;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schema inference over payloads of 1 KB to 500 MB. A String goes through the JsonNode tree, an
+ * InputStream straight through the token stream; only the latter is run on the largest sizes,
+ * where a tree would not fit in the heap. The preview benchmark edits a 5 MB array the way the
+ * generation dialog does; a refresh should stay under 200 ms.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JsonParserBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class TreePayload {
+        @Param({"1024", "65536", "1048576", "16777216"})
+        int sizeBytes;
+
+        @Param({"1", "8", "32"})
+        int depth;
+
+        @Param({"1", "16", "256"})
+        int arrayLength;
+
+        String json;
+
+        @Setup
+        public void setUp() throws IOException {
+            json = new WorkloadGenerator(42).withDepth(depth).withArrayLength(arrayLength).withTotalBytes(sizeBytes)
+                .generate();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class StreamPayload {
+        @Param({"1024", "1048576", "16777216", "524288000"})
+        int sizeBytes;
+
+        @Param({"1", "8", "32"})
+        int depth;
+
+        @Param({"1", "16", "256"})
+        int arrayLength;
+
+        byte[] json;
+
+        @Setup
+        public void setUp() throws IOException {
+            json = new WorkloadGenerator(42).withDepth(depth).withArrayLength(arrayLength).withTotalBytes(sizeBytes)
+                .toByteArray();
+        }
+    }
+
+    @Benchmark
+    public JsonClass parseTree(TreePayload payload) throws IOException {
+        return new JsonParser().parseJson(payload.json, "Root");
+    }
+
+    @Benchmark
+    public JsonClass parseStream(StreamPayload payload) throws IOException {
+        return new JsonParser().parseJson(new ByteArrayInputStream(payload.json), "Root");
+    }
+
+    @State(Scope.Benchmark)
+    public static class PreviewPayload {
+        final GenerationConfig config = new GenerationConfig(true, false, new HashSet<>(), "com.example", "Root");
+        GenerationPreview preview;
+        // The document and the same one with an element typed into the middle
+        String[] edits;
+        int next;
+
+        @Setup
+        public void setUp() throws IOException {
+            String json = new WorkloadGenerator(42).withTotalBytes(5 * 1024 * 1024).generate();
+            int middle = json.indexOf("},{", json.length() / 2) + 2;
+            edits = new String[]{json, json.substring(0, middle) + "{\"note\":\"typed\"}," + json.substring(middle)};
+            preview = new GenerationPreview(new SymbolTable());
+            preview.render(edits[0], config, null);
+        }
+    }
+
+    @Benchmark
+    public String previewEdit(PreviewPayload payload) throws IOException {
+        payload.next ^= 1;
+        return payload.preview.render(payload.edits[payload.next], payload.config, null);
+    }
+}
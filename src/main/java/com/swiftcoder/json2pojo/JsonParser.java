@@ -1,103 +1,200 @@
 package com.swiftcoder.json2pojo;
 
+import com.swiftcoder.json2pojo.inference.ClassCanonicalizer;
+import com.swiftcoder.json2pojo.inference.FieldShape;
+import com.swiftcoder.json2pojo.inference.IncrementalShapeReader;
+import com.swiftcoder.json2pojo.inference.InferenceContext;
+import com.swiftcoder.json2pojo.inference.InferenceReport;
+import com.swiftcoder.json2pojo.inference.InferenceResult;
+import com.swiftcoder.json2pojo.inference.JsonLinesReader;
+import com.swiftcoder.json2pojo.inference.PipelinedShapeReader;
+import com.swiftcoder.json2pojo.inference.SamplingConfig;
+import com.swiftcoder.json2pojo.inference.SchemaBuilder;
+import com.swiftcoder.json2pojo.inference.StreamingShapeReader;
+import com.swiftcoder.json2pojo.inference.SymbolTable;
+import com.swiftcoder.json2pojo.inference.TreeShapeReader;
+import com.swiftcoder.json2pojo.metrics.InferenceEvent;
+import com.swiftcoder.json2pojo.metrics.JsonReadEvent;
+import com.swiftcoder.json2pojo.metrics.PipelineMetrics;
 import com.swiftcoder.json2pojo.models.JsonClass;
-import com.swiftcoder.json2pojo.models.JsonField;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
 
 import java.io.IOException;
-import java.util.Iterator;
-import java.util.Map;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 public class JsonParser {
     private final ObjectMapper objectMapper;
+    private final SamplingConfig samplingConfig;
+    private final SymbolTable symbols;
+    private final TreeShapeReader treeShapeReader;
+    private final StreamingShapeReader streamingShapeReader;
+    private final JsonLinesReader jsonLinesReader;
+    private final PipelinedShapeReader pipelinedShapeReader;
+    private final SchemaBuilder schemaBuilder;
+    private final ClassCanonicalizer classCanonicalizer;
+    private final Runnable cancellationCheck;
 
     public JsonParser() {
-        this.objectMapper = new ObjectMapper();
+        this(SamplingConfig.all());
+    }
+
+    public JsonParser(SamplingConfig samplingConfig) {
+        this(samplingConfig, null);
+    }
+
+    // cancellationCheck is polled while reading and aborts inference by throwing (e.g. ProgressIndicator::checkCanceled)
+    public JsonParser(SamplingConfig samplingConfig, Runnable cancellationCheck) {
+        this(samplingConfig, cancellationCheck, new SymbolTable());
+    }
+
+    // Parsers sharing symbols (e.g. within one project) reuse the names and type names earlier runs decoded
+    public JsonParser(SamplingConfig samplingConfig, Runnable cancellationCheck, SymbolTable symbols) {
+        this.cancellationCheck = cancellationCheck;
+        this.symbols = symbols;
+        // Floats are kept as exact BigDecimals so the tree path sees the same precision and scale as the token stream
+        this.objectMapper = new ObjectMapper(symbols.getJsonFactory())
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .configure(JsonNodeFeature.STRIP_TRAILING_BIGDECIMAL_ZEROES, false);
+        this.samplingConfig = samplingConfig;
+        this.treeShapeReader = new TreeShapeReader();
+        this.streamingShapeReader = new StreamingShapeReader();
+        this.jsonLinesReader = new JsonLinesReader(objectMapper.getFactory(), streamingShapeReader);
+        this.pipelinedShapeReader = new PipelinedShapeReader(objectMapper.getFactory(), streamingShapeReader);
+        this.schemaBuilder = new SchemaBuilder();
+        this.classCanonicalizer = new ClassCanonicalizer();
     }
 
     public JsonClass parseJson(String json, String rootClassName) throws IOException {
-        JsonNode rootNode = objectMapper.readTree(json);
-        return parseJsonNode(rootNode, rootClassName);
+        return inferJson(json, rootClassName).getRootClass();
+    }
+
+    // Streaming variants: infer the model straight from the token stream without building a
+    // JsonNode tree, so memory is bounded by the size of the schema rather than the document.
+    public JsonClass parseJson(Reader reader, String rootClassName) throws IOException {
+        return inferJson(reader, rootClassName).getRootClass();
     }
 
-    private JsonClass parseJsonNode(JsonNode node, String className) {
-        JsonClass jsonClass = new JsonClass(capitalizeFirstLetter(className));
+    public JsonClass parseJson(InputStream inputStream, String rootClassName) throws IOException {
+        return inferJson(inputStream, rootClassName).getRootClass();
+    }
 
-        if (node.isObject()) {
-            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
-            while (fields.hasNext()) {
-                Map.Entry<String, JsonNode> field = fields.next();
-                String fieldName = field.getKey();
-                JsonNode fieldValue = field.getValue();
+    // Infers one root model from every record of a newline-delimited JSON (JSON Lines) file
+    public JsonClass parseJsonLines(Path file, String rootClassName) throws IOException {
+        return inferJsonLines(file, rootClassName).getRootClass();
+    }
 
-                JsonField jsonField = createJsonField(fieldName, fieldValue, jsonClass);
-                jsonClass.addField(jsonField);
-            }
-        }
+    // The infer* variants also report how much of the input was sampled and which fields were rare
+    public InferenceResult inferJson(String json, String rootClassName) throws IOException {
+        InferenceContext context = new InferenceContext(samplingConfig, cancellationCheck, symbols);
+        JsonReadEvent readEvent = new JsonReadEvent();
+        readEvent.begin();
+        long start = System.nanoTime();
+        JsonNode rootNode = objectMapper.readTree(json);
+        PipelineMetrics.ReadPhase read = endRead(readEvent, "tree", json.length(), start);
 
-        return jsonClass;
+        // Observing the tree belongs to inference here, unlike on the streaming paths
+        InferenceEvent inferenceEvent = new InferenceEvent();
+        inferenceEvent.begin();
+        long inferenceStart = System.nanoTime();
+        return buildResult(treeShapeReader.read(rootNode, context), rootClassName, context, read,
+            inferenceEvent, inferenceStart);
     }
 
-    private JsonField createJsonField(String fieldName, JsonNode fieldValue, JsonClass parentClass) {
-        if (fieldValue.isNull()) {
-            return new JsonField(fieldName, "Object", false, true, "null");
+    public InferenceResult inferJson(Reader reader, String rootClassName) throws IOException {
+        try (com.fasterxml.jackson.core.JsonParser tokens = objectMapper.getFactory().createParser(reader)) {
+            return inferTokens(tokens, rootClassName);
         }
+    }
 
-        if (fieldValue.isArray()) {
-            if (fieldValue.size() == 0) {
-                return new JsonField(fieldName, "Object", true, false, "array");
-            }
-            
-            JsonNode firstElement = fieldValue.get(0);
-            if (firstElement.isObject()) {
-                String nestedClassName = capitalizeFirstLetter(fieldName);
-                if (nestedClassName.endsWith("s")) {
-                    nestedClassName = nestedClassName.substring(0, nestedClassName.length() - 1);
-                }
-                JsonClass nestedClass = parseJsonNode(firstElement, nestedClassName);
-                parentClass.addNestedClass(nestedClass);
-                return new JsonField(fieldName, nestedClassName, true, false, "array");
-            } else {
-                String elementType = getJavaType(firstElement);
-                return new JsonField(fieldName, elementType, true, false, "array");
-            }
+    public InferenceResult inferJson(InputStream inputStream, String rootClassName) throws IOException {
+        try (com.fasterxml.jackson.core.JsonParser tokens = objectMapper.getFactory().createParser(inputStream)) {
+            return inferTokens(tokens, rootClassName);
         }
+    }
 
-        if (fieldValue.isObject()) {
-            String nestedClassName = capitalizeFirstLetter(fieldName);
-            JsonClass nestedClass = parseJsonNode(fieldValue, nestedClassName);
-            parentClass.addNestedClass(nestedClass);
-            return new JsonField(fieldName, nestedClassName, false, false, "object");
-        }
+    // Same model as inferJson(InputStream), but the elements of a top-level array are parsed on the common
+    // pool in batches while the calling thread is still reading, so large documents are not bound to one core
+    public InferenceResult inferJsonPipelined(InputStream inputStream, String rootClassName) throws IOException {
+        InferenceContext context = new InferenceContext(samplingConfig, cancellationCheck, symbols);
+        JsonReadEvent readEvent = new JsonReadEvent();
+        readEvent.begin();
+        long start = System.nanoTime();
+        FieldShape rootShape = pipelinedShapeReader.read(inputStream, context);
+        PipelineMetrics.ReadPhase read = endRead(readEvent, "pipelined", context.getBytesRead(), start);
 
-        String javaType = getJavaType(fieldValue);
-        return new JsonField(fieldName, javaType, false, false, fieldValue.getNodeType().toString());
+        InferenceEvent inferenceEvent = new InferenceEvent();
+        inferenceEvent.begin();
+        return buildResult(rootShape, rootClassName, context, read, inferenceEvent, System.nanoTime());
     }
 
-    private String getJavaType(JsonNode node) {
-        if (node.isBoolean()) {
-            return "Boolean";
-        }
-        if (node.isInt()) {
-            return "Integer";
-        }
-        if (node.isLong()) {
-            return "Long";
-        }
-        if (node.isDouble() || node.isFloat()) {
-            return "Double";
-        }
-        if (node.isTextual()) {
-            return "String";
-        }
-        return "Object";
+    // Same model as inferJson(InputStream) when sampling everything; array elements that reader saw unchanged
+    // in its previous read are not parsed again, so re-inferring an edited document costs about the edit
+    public InferenceResult inferJsonIncremental(byte[] json, String rootClassName, IncrementalShapeReader reader)
+        throws IOException {
+        InferenceContext context = new InferenceContext(samplingConfig, cancellationCheck, symbols);
+        JsonReadEvent readEvent = new JsonReadEvent();
+        readEvent.begin();
+        long start = System.nanoTime();
+        FieldShape rootShape = reader.read(json, context);
+        PipelineMetrics.ReadPhase read = endRead(readEvent, "incremental", context.getBytesRead(), start);
+
+        InferenceEvent inferenceEvent = new InferenceEvent();
+        inferenceEvent.begin();
+        return buildResult(rootShape, rootClassName, context, read, inferenceEvent, System.nanoTime());
     }
 
-    private String capitalizeFirstLetter(String str) {
-        if (str == null || str.isEmpty()) {
-            return str;
-        }
-        return str.substring(0, 1).toUpperCase() + str.substring(1);
+    public InferenceResult inferJsonLines(Path file, String rootClassName) throws IOException {
+        InferenceContext context = new InferenceContext(samplingConfig, cancellationCheck, symbols);
+        JsonReadEvent readEvent = new JsonReadEvent();
+        readEvent.begin();
+        long start = System.nanoTime();
+        FieldShape rootShape = jsonLinesReader.read(file, context);
+        PipelineMetrics.ReadPhase read = endRead(readEvent, "lines", Files.size(file), start);
+
+        InferenceEvent inferenceEvent = new InferenceEvent();
+        inferenceEvent.begin();
+        return buildResult(rootShape, rootClassName, context, read, inferenceEvent, System.nanoTime());
+    }
+
+    private InferenceResult inferTokens(com.fasterxml.jackson.core.JsonParser tokens, String rootClassName) throws IOException {
+        InferenceContext context = new InferenceContext(samplingConfig, cancellationCheck, symbols);
+        JsonReadEvent readEvent = new JsonReadEvent();
+        readEvent.begin();
+        long start = System.nanoTime();
+        tokens.nextToken();
+        FieldShape rootShape = streamingShapeReader.read(tokens, context);
+        JsonLocation location = tokens.currentLocation();
+        long inputLength = location.getByteOffset() >= 0 ? location.getByteOffset() : location.getCharOffset();
+        PipelineMetrics.ReadPhase read = endRead(readEvent, "stream", inputLength, start);
+
+        InferenceEvent inferenceEvent = new InferenceEvent();
+        inferenceEvent.begin();
+        return buildResult(rootShape, rootClassName, context, read, inferenceEvent, System.nanoTime());
+    }
+
+    private static PipelineMetrics.ReadPhase endRead(JsonReadEvent event, String source, long inputLength, long start) {
+        long nanos = System.nanoTime() - start;
+        event.complete(source, inputLength);
+        return new PipelineMetrics.ReadPhase(nanos, inputLength);
+    }
+
+    private InferenceResult buildResult(FieldShape rootShape, String rootClassName, InferenceContext context,
+                                        PipelineMetrics.ReadPhase read, InferenceEvent event, long start) {
+        JsonClass rootClass = schemaBuilder.build(rootShape, rootClassName, context);
+        ClassCanonicalizer.Result canonicalization = classCanonicalizer.canonicalize(rootClass, symbols);
+        InferenceReport report = InferenceReport.from(rootShape, context, canonicalization);
+        long valuesVisited = rootShape.countValues();
+        long nanos = System.nanoTime() - start;
+        event.complete(rootClass.getClassName(), valuesVisited, context.getClassesCreated(), context.getFieldsCreated());
+        PipelineMetrics metrics = PipelineMetrics.EMPTY.withRead(read).withInference(new PipelineMetrics.InferencePhase(
+            nanos, valuesVisited, context.getClassesCreated(), context.getFieldsCreated()));
+        return new InferenceResult(rootClass, report, metrics);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,66 @@
+package com.swiftcoder.json2pojo.actions;
+
+import com.swiftcoder.json2pojo.generators.ClassSink;
+import com.swiftcoder.json2pojo.generators.GeneratedClass;
+import com.swiftcoder.json2pojo.metrics.PipelineMetrics;
+import com.swiftcoder.json2pojo.metrics.Utf8CountingWriter;
+import com.swiftcoder.json2pojo.metrics.WriteFileEvent;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Collects rendered sources off the EDT so the write action only has to copy them into PSI
+class BufferedClassSink implements ClassSink {
+    private final Set<String> existingFileNames;
+    private final Runnable cancellationCheck;
+    private final List<GeneratedClass> classes = new ArrayList<>();
+    private final List<String> sources = new ArrayList<>();
+
+    BufferedClassSink(Set<String> existingFileNames, Runnable cancellationCheck) {
+        this.existingFileNames = existingFileNames;
+        this.cancellationCheck = cancellationCheck;
+    }
+
+    @Override
+    public Writer open(GeneratedClass generatedClass) {
+        cancellationCheck.run();
+        return new StringWriter() {
+            @Override
+            public void close() {
+                classes.add(generatedClass);
+                sources.add(toString());
+            }
+        };
+    }
+
+    @Override
+    public boolean contains(GeneratedClass generatedClass) {
+        return existingFileNames.contains(generatedClass.getFileName());
+    }
+
+    // Returns the time each file took in the target, e.g. PSI/VFS time
+    PipelineMetrics.WritePhase writeTo(ClassSink target) throws IOException {
+        long totalNanos = 0;
+        Map<String, Long> nanosPerFile = new LinkedHashMap<>();
+        for (int i = 0; i < classes.size(); i++) {
+            GeneratedClass generatedClass = classes.get(i);
+            WriteFileEvent event = new WriteFileEvent();
+            event.begin();
+            long start = System.nanoTime();
+            try (Writer writer = target.open(generatedClass)) {
+                writer.write(sources.get(i));
+            }
+            long nanos = System.nanoTime() - start;
+            totalNanos += nanos;
+            nanosPerFile.put(generatedClass.getFileName(), nanos);
+            event.complete(generatedClass.getFileName(), Utf8CountingWriter.utf8Length(sources.get(i)));
+        }
+        return new PipelineMetrics.WritePhase(totalNanos, nanosPerFile);
+    }
+}
@@ -1,24 +1,16 @@
 package com.swiftcoder.json2pojo.actions;
 
-import com.swiftcoder.json2pojo.JsonParser;
-import com.swiftcoder.json2pojo.generators.JavaCodeGenerator;
 import com.swiftcoder.json2pojo.models.GenerationConfig;
-import com.swiftcoder.json2pojo.models.JsonClass;
 import com.swiftcoder.json2pojo.ui.ConfigurationDialog;
 import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
-import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
-import com.intellij.openapi.ui.Messages;
 import com.intellij.psi.PsiDirectory;
-import com.intellij.psi.PsiFile;
-import com.intellij.psi.PsiFileFactory;
 import com.intellij.psi.PsiManager;
 import com.intellij.openapi.vfs.VirtualFile;
-import com.intellij.openapi.fileEditor.FileEditorManager;
 
 import java.io.IOException;
-import java.util.List;
 
 public class GeneratePojoAction extends AnAction {
 
@@ -30,7 +22,7 @@ public class GeneratePojoAction extends AnAction {
         }
 
         // Show configuration dialog
-        ConfigurationDialog dialog = new ConfigurationDialog(project);
+        ConfigurationDialog dialog = new ConfigurationDialog(project, ProjectSymbolTable.get(project));
         if (!dialog.showAndGet()) {
             return;
         }
@@ -38,127 +30,74 @@ public class GeneratePojoAction extends AnAction {
         String jsonInput = dialog.getJsonInput();
         GenerationConfig config = dialog.getConfig();
 
-        try {
-            // Parse JSON
-            JsonParser parser = new JsonParser();
-            JsonClass rootClass = parser.parseJson(jsonInput, config.getRootClassName());
-
-            // Generate Java code
-            JavaCodeGenerator generator = new JavaCodeGenerator();
-            List<String> generatedClasses = generator.generateJavaClasses(rootClass, config);
-
-            // Create files
-            WriteCommandAction.runWriteCommandAction(project, () -> {
-                try {
-                    createJavaFiles(project, generatedClasses, config, rootClass);
-                    Messages.showInfoMessage(project, 
-                        "Successfully generated " + generatedClasses.size() + " Java class(es)!", 
-                        "Generation Complete");
-                } catch (Exception ex) {
-                    Messages.showErrorDialog(project, 
-                        "Error creating Java files: " + ex.getMessage(), 
-                        "Generation Error");
-                }
-            });
+        // Parse, render and write in the background; files go to the package directory
+        ProgressManager.getInstance().run(
+            new PojoGenerationTask(project, jsonInput, config, new PackageDirectory(project, config.getPackageName())));
+    }
 
-        } catch (IOException ex) {
-            Messages.showErrorDialog(project, 
-                "Error parsing JSON: " + ex.getMessage(), 
-                "JSON Parse Error");
-        } catch (Exception ex) {
-            Messages.showErrorDialog(project, 
-                "Unexpected error: " + ex.getMessage(), 
-                "Error");
-        }
+    @Override
+    public void update(AnActionEvent e) {
+        // Enable action only when a project is open
+        Project project = e.getProject();
+        e.getPresentation().setEnabledAndVisible(project != null);
     }
 
-    private void createJavaFiles(Project project, List<String> generatedClasses, 
-                                GenerationConfig config, JsonClass rootClass) {
-        // Get the current directory or use src/main/java
-        VirtualFile baseDir = project.getBaseDir();
-        if (baseDir == null) {
-            throw new RuntimeException("Could not find project base directory");
-        }
+    // The package directory under src/main/java (or the project root when there is none)
+    private static class PackageDirectory implements TargetDirectory {
+        private final Project project;
+        private final String[] packageParts;
 
-        // Try to find src/main/java directory
-        VirtualFile srcDir = baseDir.findFileByRelativePath("src/main/java");
-        if (srcDir == null) {
-            // If src/main/java doesn't exist, create files in the project root
-            srcDir = baseDir;
+        PackageDirectory(Project project, String packageName) {
+            this.project = project;
+            this.packageParts = packageName.split("\\.");
         }
 
-        // Create package directories
-        String[] packageParts = config.getPackageName().split("\\.");
-        VirtualFile packageDir = srcDir;
-        
-        for (String part : packageParts) {
-            VirtualFile nextDir = packageDir.findChild(part);
-            if (nextDir == null) {
-                try {
-                    nextDir = packageDir.createChildDirectory(this, part);
-                } catch (IOException e) {
-                    throw new RuntimeException("Could not create package directory: " + part, e);
+        @Override
+        public PsiDirectory find() {
+            VirtualFile packageDir = getSourceDirectory();
+            for (String part : packageParts) {
+                packageDir = packageDir.findChild(part);
+                if (packageDir == null) {
+                    return null;
                 }
             }
-            packageDir = nextDir;
-        }
-
-        // Create Java files
-        PsiManager psiManager = PsiManager.getInstance(project);
-        PsiDirectory psiPackageDir = psiManager.findDirectory(packageDir);
-        
-        if (psiPackageDir == null) {
-            throw new RuntimeException("Could not find package directory");
+            return PsiManager.getInstance(project).findDirectory(packageDir);
         }
 
-        PsiFileFactory fileFactory = PsiFileFactory.getInstance(project);
-        
-        for (int i = 0; i < generatedClasses.size(); i++) {
-            String classCode = generatedClasses.get(i);
-            
-            // Extract class name from code
-            String className = extractClassName(classCode);
-            if (className == null) {
-                if (i == 0) {
-                    className = config.getRootClassName();
-                } else {
-                    className = "GeneratedClass" + i;
+        @Override
+        public PsiDirectory findOrCreate() throws IOException {
+            // Create package directories
+            VirtualFile packageDir = getSourceDirectory();
+            for (String part : packageParts) {
+                VirtualFile nextDir = packageDir.findChild(part);
+                if (nextDir == null) {
+                    try {
+                        nextDir = packageDir.createChildDirectory(this, part);
+                    } catch (IOException e) {
+                        throw new IOException("Could not create package directory: " + part, e);
+                    }
                 }
+                packageDir = nextDir;
             }
-            
-            String fileName = className + ".java";
-            
-            // Create the file
-            PsiFile javaFile = fileFactory.createFileFromText(fileName, classCode);
-            PsiFile addedFile = (PsiFile) psiPackageDir.add(javaFile);
-            
-            // Open the first (root) class file in the editor
-            if (i == 0) {
-                FileEditorManager.getInstance(project).openFile(addedFile.getVirtualFile(), true);
+
+            PsiDirectory psiPackageDir = PsiManager.getInstance(project).findDirectory(packageDir);
+            if (psiPackageDir == null) {
+                throw new IOException("Could not find package directory");
             }
+            return psiPackageDir;
         }
-    }
 
-    private String extractClassName(String classCode) {
-        // Simple regex to extract class name
-        String[] lines = classCode.split("\n");
-        for (String line : lines) {
-            if (line.trim().startsWith("public class ")) {
-                String[] parts = line.split("\\s+");
-                for (int i = 0; i < parts.length - 1; i++) {
-                    if ("class".equals(parts[i])) {
-                        return parts[i + 1];
-                    }
-                }
+        private VirtualFile getSourceDirectory() {
+            // Get the current directory or use src/main/java
+            VirtualFile baseDir = project.getBaseDir();
+            if (baseDir == null) {
+                throw new IllegalStateException("Could not find project base directory");
             }
-        }
-        return null;
-    }
 
-    @Override
-    public void update(AnActionEvent e) {
-        // Enable action only when a project is open
-        Project project = e.getProject();
-        e.getPresentation().setEnabledAndVisible(project != null);
+            // Try to find src/main/java directory
+            VirtualFile srcDir = baseDir.findFileByRelativePath("src/main/java");
+            // If src/main/java doesn't exist, create files in the project root
+            return srcDir != null ? srcDir : baseDir;
+        }
     }
-}
\ No newline at end of file
+}
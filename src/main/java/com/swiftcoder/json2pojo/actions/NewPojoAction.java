@@ -1,30 +1,23 @@
 package com.swiftcoder.json2pojo.actions;
 
-import com.swiftcoder.json2pojo.JsonParser;
-import com.swiftcoder.json2pojo.generators.JavaCodeGenerator;
 import com.swiftcoder.json2pojo.models.GenerationConfig;
-import com.swiftcoder.json2pojo.models.JsonClass;
 import com.swiftcoder.json2pojo.ui.ConfigurationDialog;
 import com.intellij.psi.JavaDirectoryService;
 import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.actionSystem.CommonDataKeys;
 import com.intellij.openapi.actionSystem.LangDataKeys;
-import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.Messages;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiDirectory;
-import com.intellij.psi.PsiFile;
-import com.intellij.psi.PsiFileFactory;
 import com.intellij.psi.PsiManager;
 import com.intellij.psi.PsiPackage;
-import com.intellij.openapi.fileEditor.FileEditorManager;
 import com.intellij.openapi.roots.ProjectFileIndex;
 import com.intellij.openapi.roots.ProjectRootManager;
 
 import java.io.IOException;
-import java.util.List;
 
 public class NewPojoAction extends AnAction {
 
@@ -46,7 +39,7 @@ public class NewPojoAction extends AnAction {
         String packageName = detectPackageName(project, selectedDirectory);
 
         // Show configuration dialog with pre-populated package name
-        ConfigurationDialog dialog = new ConfigurationDialog(project, packageName);
+        ConfigurationDialog dialog = new ConfigurationDialog(project, packageName, ProjectSymbolTable.get(project));
         if (!dialog.showAndGet()) {
             return;
         }
@@ -54,38 +47,21 @@ public class NewPojoAction extends AnAction {
         String jsonInput = dialog.getJsonInput();
         GenerationConfig config = dialog.getConfig();
 
-        try {
-            // Parse JSON
-            JsonParser parser = new JsonParser();
-            JsonClass rootClass = parser.parseJson(jsonInput, config.getRootClassName());
-
-            // Generate Java code
-            JavaCodeGenerator generator = new JavaCodeGenerator();
-            List<String> generatedClasses = generator.generateJavaClasses(rootClass, config);
-
-            // Create files in the selected directory
-            WriteCommandAction.runWriteCommandAction(project, () -> {
-                try {
-                    createJavaFilesInDirectory(project, selectedDirectory, generatedClasses, config);
-                    Messages.showInfoMessage(project, 
-                        "Successfully generated " + generatedClasses.size() + " Java class(es)!", 
-                        "Generation Complete");
-                } catch (Exception ex) {
-                    Messages.showErrorDialog(project, 
-                        "Error creating Java files: " + ex.getMessage(), 
-                        "Generation Error");
+        // Parse, render and write in the background; files go to the selected directory
+        ProgressManager.getInstance().run(new PojoGenerationTask(project, jsonInput, config, new TargetDirectory() {
+            @Override
+            public PsiDirectory find() {
+                return selectedDirectory.isValid() ? selectedDirectory : null;
+            }
+
+            @Override
+            public PsiDirectory findOrCreate() throws IOException {
+                if (!selectedDirectory.isValid()) {
+                    throw new IOException("The selected directory no longer exists");
                 }
-            });
-
-        } catch (IOException ex) {
-            Messages.showErrorDialog(project, 
-                "Error parsing JSON: " + ex.getMessage(), 
-                "JSON Parse Error");
-        } catch (Exception ex) {
-            Messages.showErrorDialog(project, 
-                "Unexpected error: " + ex.getMessage(), 
-                "Error");
-        }
+                return selectedDirectory;
+            }
+        }));
     }
 
     private PsiDirectory getSelectedDirectory(AnActionEvent e) {
@@ -154,53 +130,6 @@ public class NewPojoAction extends AnAction {
         return packageName.isEmpty() ? "com.swiftcoder.model" : packageName;
     }
 
-    private void createJavaFilesInDirectory(Project project, PsiDirectory targetDirectory, 
-                                          List<String> generatedClasses, GenerationConfig config) {
-        
-        PsiFileFactory fileFactory = PsiFileFactory.getInstance(project);
-        
-        for (int i = 0; i < generatedClasses.size(); i++) {
-            String classCode = generatedClasses.get(i);
-            
-            // Extract class name from code
-            String className = extractClassName(classCode);
-            if (className == null) {
-                if (i == 0) {
-                    className = config.getRootClassName();
-                } else {
-                    className = "GeneratedClass" + i;
-                }
-            }
-            
-            String fileName = className + ".java";
-            
-            // Create the file
-            PsiFile javaFile = fileFactory.createFileFromText(fileName, classCode);
-            PsiFile addedFile = (PsiFile) targetDirectory.add(javaFile);
-            
-            // Open the first (root) class file in the editor
-            if (i == 0) {
-                FileEditorManager.getInstance(project).openFile(addedFile.getVirtualFile(), true);
-            }
-        }
-    }
-
-    private String extractClassName(String classCode) {
-        // Simple regex to extract class name
-        String[] lines = classCode.split("\n");
-        for (String line : lines) {
-            if (line.trim().startsWith("public class ")) {
-                String[] parts = line.split("\\s+");
-                for (int i = 0; i < parts.length - 1; i++) {
-                    if ("class".equals(parts[i])) {
-                        return parts[i + 1];
-                    }
-                }
-            }
-        }
-        return null;
-    }
-
     @Override
     public void update(AnActionEvent e) {
         Project project = e.getProject();
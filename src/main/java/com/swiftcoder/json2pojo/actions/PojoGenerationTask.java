@@ -0,0 +1,159 @@
+package com.swiftcoder.json2pojo.actions;
+
+import com.swiftcoder.json2pojo.JsonParser;
+import com.swiftcoder.json2pojo.generators.GenerationCache;
+import com.swiftcoder.json2pojo.generators.GenerationResult;
+import com.swiftcoder.json2pojo.generators.JavaCodeGenerator;
+import com.swiftcoder.json2pojo.inference.InferenceResult;
+import com.swiftcoder.json2pojo.inference.SamplingConfig;
+import com.swiftcoder.json2pojo.metrics.PipelineMetrics;
+import com.swiftcoder.json2pojo.models.GenerationConfig;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.psi.PsiDirectory;
+import com.intellij.psi.PsiFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Shared pipeline behind both actions: infers and renders on a pooled background thread, then
+ * copies the rendered sources into PSI in one short write action. Cancellable from the progress
+ * bar up to the write phase.
+ */
+class PojoGenerationTask extends Task.Backgroundable {
+    private static final Logger LOG = Logger.getInstance(PojoGenerationTask.class);
+    private static final String INFERENCE = "inference";
+    private static final String RENDERING = "rendering";
+    private static final String WRITING = "writing";
+
+    private final String jsonInput;
+    private final GenerationConfig config;
+    private final TargetDirectory target;
+    private volatile String phase = INFERENCE;
+    private InferenceResult inference;
+    private GenerationResult generation;
+    private PipelineMetrics.WritePhase psiWrite;
+    private PsiFile rootFile;
+
+    PojoGenerationTask(Project project, String jsonInput, GenerationConfig config, TargetDirectory target) {
+        super(project, "Generating POJOs", true);
+        this.jsonInput = jsonInput;
+        this.config = config;
+        this.target = target;
+    }
+
+    @Override
+    public void run(ProgressIndicator indicator) {
+        Project project = getProject();
+        indicator.setIndeterminate(false);
+
+        // Inference: no locks held
+        startPhase(indicator, INFERENCE, "Inferring classes from JSON", 0.0);
+        try {
+            JsonParser parser = new JsonParser(SamplingConfig.interactive(), indicator::checkCanceled,
+                ProjectSymbolTable.get(project));
+            // Elements of a pasted array are parsed on the common pool while the rest is still being scanned
+            inference = parser.inferJsonPipelined(new ByteArrayInputStream(jsonInput.getBytes(StandardCharsets.UTF_8)),
+                config.getRootClassName());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // Rendering: only the existing file names need a (short) read action
+        startPhase(indicator, RENDERING, "Rendering Java classes", 0.4);
+        Set<String> existingFileNames = ReadAction.compute(this::findExistingFileNames);
+        BufferedClassSink buffer = new BufferedClassSink(existingFileNames, indicator::checkCanceled);
+        GenerationCache cache = ProjectGenerationCache.load(project);
+        try {
+            generation = new JavaCodeGenerator(ForkJoinPool.commonPool()).generate(inference.getRootClass(), config,
+                buffer, cache);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // Writing: one batched write action; no cancellation once files start changing
+        startPhase(indicator, WRITING, "Writing files", 0.8);
+        indicator.checkCanceled();
+        ApplicationManager.getApplication().invokeAndWait(() -> {
+            try {
+                WriteCommandAction.writeCommandAction(project).withName("Generate POJOs").run(() -> {
+                    PsiDirectory directory = target.findOrCreate();
+                    PsiDirectoryClassSink sink = new PsiDirectoryClassSink(project, directory);
+                    psiWrite = buffer.writeTo(sink);
+                    rootFile = sink.findFile(generation.getRootClass());
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        try {
+            cache.save();
+        } catch (IOException e) {
+            // Losing the cache only costs a full regeneration next time
+            LOG.warn("Could not save the generation cache", e);
+        }
+        indicator.setFraction(1.0);
+    }
+
+    @Override
+    public void onSuccess() {
+        Project project = getProject();
+
+        // Open the root class file in the editor, even when it was unchanged
+        if (rootFile != null && rootFile.isValid()) {
+            FileEditorManager.getInstance(project).openFile(rootFile.getVirtualFile(), true);
+        }
+
+        String inferenceSummary = inference.getReport().getSummary();
+        // Rendering went to the in-memory buffer, so the write phase is the PSI one
+        PipelineMetrics metrics = inference.getMetrics()
+            .withRender(generation.getMetrics().getRender())
+            .withWrite(psiWrite);
+        Messages.showInfoMessage(project,
+            "Successfully generated " + generation.getGeneratedClasses().size() + " Java class(es)!"
+                + (generation.getCacheHits() > 0 ? " " + generation.getCacheHits() + " unchanged class(es) skipped." : "")
+                + "\n" + metrics.getSummary()
+                + (inferenceSummary.isEmpty() ? "" : "\n\n" + inferenceSummary),
+            "Generation Complete");
+    }
+
+    @Override
+    public void onThrowable(Throwable error) {
+        Throwable cause = error instanceof UncheckedIOException ? error.getCause() : error;
+        if (INFERENCE.equals(phase)) {
+            Messages.showErrorDialog(getProject(), "Error parsing JSON: " + cause.getMessage(), "JSON Parse Error");
+        } else {
+            Messages.showErrorDialog(getProject(), "Error creating Java files: " + cause.getMessage(), "Generation Error");
+        }
+    }
+
+    private Set<String> findExistingFileNames() {
+        Set<String> names = new HashSet<>();
+        PsiDirectory directory = target.find();
+        if (directory != null) {
+            for (PsiFile file : directory.getFiles()) {
+                names.add(file.getName());
+            }
+        }
+        return names;
+    }
+
+    private void startPhase(ProgressIndicator indicator, String name, String text, double fraction) {
+        phase = name;
+        indicator.setText(text);
+        indicator.setFraction(fraction);
+    }
+}
@@ -0,0 +1,22 @@
+package com.swiftcoder.json2pojo.actions;
+
+import com.swiftcoder.json2pojo.generators.GenerationCache;
+import com.intellij.openapi.project.Project;
+
+import java.nio.file.Paths;
+
+// Generation fingerprints are kept next to the project settings so they survive IDE restarts
+final class ProjectGenerationCache {
+    private static final String CACHE_FILE = "json2pojo-cache.properties";
+
+    private ProjectGenerationCache() {
+    }
+
+    static GenerationCache load(Project project) {
+        String basePath = project.getBasePath();
+        if (basePath == null) {
+            return GenerationCache.inMemory();
+        }
+        return GenerationCache.load(Paths.get(basePath, Project.DIRECTORY_STORE_FOLDER, CACHE_FILE));
+    }
+}
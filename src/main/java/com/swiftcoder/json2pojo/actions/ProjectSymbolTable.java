@@ -0,0 +1,15 @@
+package com.swiftcoder.json2pojo.actions;
+
+import com.swiftcoder.json2pojo.inference.SymbolTable;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+
+// One symbol table per open project, so repeated generations reuse the names decoded before
+@Service(Service.Level.PROJECT)
+final class ProjectSymbolTable {
+    private final SymbolTable symbols = new SymbolTable();
+
+    static SymbolTable get(Project project) {
+        return project.getService(ProjectSymbolTable.class).symbols;
+    }
+}
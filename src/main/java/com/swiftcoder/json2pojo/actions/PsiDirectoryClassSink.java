@@ -0,0 +1,54 @@
+package com.swiftcoder.json2pojo.actions;
+
+import com.swiftcoder.json2pojo.generators.ClassSink;
+import com.swiftcoder.json2pojo.generators.GeneratedClass;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiDirectory;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiFileFactory;
+
+import java.io.StringWriter;
+import java.io.Writer;
+
+// Adds each generated class to a PSI directory as soon as its writer is closed; must run in a write action
+class PsiDirectoryClassSink implements ClassSink {
+    private final PsiDirectory directory;
+    private final PsiFileFactory fileFactory;
+    private final PsiDocumentManager documentManager;
+
+    PsiDirectoryClassSink(Project project, PsiDirectory directory) {
+        this.directory = directory;
+        this.fileFactory = PsiFileFactory.getInstance(project);
+        this.documentManager = PsiDocumentManager.getInstance(project);
+    }
+
+    @Override
+    public Writer open(GeneratedClass generatedClass) {
+        return new StringWriter() {
+            @Override
+            public void close() {
+                PsiFile existingFile = findFile(generatedClass);
+                Document document = existingFile != null ? documentManager.getDocument(existingFile) : null;
+                if (document != null) {
+                    // Regenerated class: replace the contents in place so open editors keep the file
+                    document.setText(toString());
+                    documentManager.commitDocument(document);
+                    return;
+                }
+                PsiFile javaFile = fileFactory.createFileFromText(generatedClass.getFileName(), toString());
+                directory.add(javaFile);
+            }
+        };
+    }
+
+    @Override
+    public boolean contains(GeneratedClass generatedClass) {
+        return findFile(generatedClass) != null;
+    }
+
+    PsiFile findFile(GeneratedClass generatedClass) {
+        return directory.findFile(generatedClass.getFileName());
+    }
+}
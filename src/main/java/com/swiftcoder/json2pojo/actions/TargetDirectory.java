@@ -0,0 +1,14 @@
+package com.swiftcoder.json2pojo.actions;
+
+import com.intellij.psi.PsiDirectory;
+
+import java.io.IOException;
+
+// Where a generation task puts its files; resolved twice so nothing is created before the write phase
+interface TargetDirectory {
+    // Called under a read action; null when the directory does not exist yet
+    PsiDirectory find();
+
+    // Called inside the write action; creates missing directories
+    PsiDirectory findOrCreate() throws IOException;
+}
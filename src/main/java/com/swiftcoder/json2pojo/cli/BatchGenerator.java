@@ -0,0 +1,227 @@
+package com.swiftcoder.json2pojo.cli;
+
+import com.swiftcoder.json2pojo.JsonParser;
+import com.swiftcoder.json2pojo.generators.DirectoryClassSink;
+import com.swiftcoder.json2pojo.generators.GeneratedClass;
+import com.swiftcoder.json2pojo.generators.GenerationCache;
+import com.swiftcoder.json2pojo.generators.GenerationResult;
+import com.swiftcoder.json2pojo.generators.JavaCodeGenerator;
+import com.swiftcoder.json2pojo.inference.InferenceResult;
+import com.swiftcoder.json2pojo.inference.SamplingConfig;
+import com.swiftcoder.json2pojo.models.GenerationConfig;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Generates POJOs for many JSON samples without an IDE: every sample is inferred and rendered on
+ * a fixed pool of workers and written straight to a source root. Each sample gets a package of
+ * its own, named after the file, so nested classes of different samples never collide.
+ */
+public class BatchGenerator {
+    private final GenerationConfig config;
+    private final SamplingConfig sampling;
+    private final int threads;
+    private final GenerationCache cache;
+    private final boolean prune;
+
+    // config supplies everything but the root class name and the package, which come from each sample
+    public BatchGenerator(GenerationConfig config, SamplingConfig sampling, int threads, GenerationCache cache) {
+        this(config, sampling, threads, cache, false);
+    }
+
+    // With prune, classes a sample no longer produces are deleted from its package
+    public BatchGenerator(GenerationConfig config, SamplingConfig sampling, int threads, GenerationCache cache,
+                          boolean prune) {
+        this.config = config;
+        this.sampling = sampling;
+        this.threads = Math.max(1, threads);
+        this.cache = cache;
+        this.prune = prune;
+    }
+
+    // A directory is searched recursively for .json, .jsonl and .ndjson files; anything else is a glob
+    public static List<Path> findSamples(String location) throws IOException {
+        if (!hasGlob(location) && Files.isRegularFile(Paths.get(location))) {
+            return List.of(Paths.get(location));
+        }
+        PathMatcher matcher = hasGlob(location)
+            ? FileSystems.getDefault().getPathMatcher("glob:" + location)
+            : candidate -> isSample(candidate.getFileName().toString());
+        Path root = hasGlob(location) ? globRoot(location) : Paths.get(location);
+        if (!Files.isDirectory(root)) {
+            throw new IOException("No such directory: " + root);
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            // Sorted so runs are reproducible
+            return files.filter(Files::isRegularFile).filter(matcher::matches).sorted().collect(Collectors.toList());
+        }
+    }
+
+    public BatchSummary run(List<Path> samples, Path outputDirectory) throws IOException {
+        long start = System.nanoTime();
+        JsonParser parser = new JsonParser(sampling);
+        // Large samples are read, inferred, rendered and written in overlapping stages on the common pool
+        JavaCodeGenerator generator = new JavaCodeGenerator(ForkJoinPool.commonPool());
+        DirectoryClassSink sink = new DirectoryClassSink(outputDirectory);
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        List<SampleResult> results = new ArrayList<>(samples.size());
+        try {
+            List<Future<SampleResult>> pending = new ArrayList<>(samples.size());
+            for (Path sample : samples) {
+                pending.add(workers.submit(() -> generate(sample, parser, generator, sink, outputDirectory)));
+            }
+            for (Future<SampleResult> result : pending) {
+                results.add(result.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        } catch (ExecutionException e) {
+            // generate() reports failures per sample, so only errors end up here
+            throw new IOException(e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+
+        if (cache != null) {
+            cache.save();
+        }
+        return new BatchSummary(results, System.nanoTime() - start);
+    }
+
+    // Deletes the classes generated for samples that no longer exist
+    public void remove(List<Path> samples, Path outputDirectory) throws IOException {
+        for (Path sample : samples) {
+            deleteClasses(packageDirectory(outputDirectory, packageFor(stemOf(sample))), Set.of());
+        }
+    }
+
+    private SampleResult generate(Path sample, JsonParser parser, JavaCodeGenerator generator, DirectoryClassSink sink,
+                                  Path outputDirectory) {
+        String fileName = sample.getFileName().toString();
+        String stem = stemOf(sample);
+        GenerationConfig sampleConfig = config.withPackageName(packageFor(stem)).withRootClassName(classNameFor(stem));
+        try {
+            long bytes = Files.size(sample);
+            InferenceResult inference;
+            if (isJsonLines(fileName)) {
+                inference = parser.inferJsonLines(sample, sampleConfig.getRootClassName());
+            } else {
+                try (InputStream input = Files.newInputStream(sample)) {
+                    inference = parser.inferJsonPipelined(input, sampleConfig.getRootClassName());
+                }
+            }
+            GenerationResult generation = generator.generate(inference.getRootClass(), sampleConfig, sink, cache);
+            if (prune) {
+                Set<String> current = new HashSet<>();
+                for (GeneratedClass generated : generation.getGeneratedClasses()) {
+                    current.add(generated.getFileName());
+                }
+                for (GeneratedClass skipped : generation.getSkippedClasses()) {
+                    current.add(skipped.getFileName());
+                }
+                deleteClasses(packageDirectory(outputDirectory, sampleConfig.getPackageName()), current);
+            }
+            return SampleResult.success(sample, bytes, generation.getGeneratedClasses().size(), generation.getCacheHits());
+        } catch (IOException | RuntimeException e) {
+            return SampleResult.failure(sample, e.getMessage() != null ? e.getMessage() : e.toString());
+        }
+    }
+
+    // Only .java files directly in the sample's package are touched; the directory goes once empty
+    private static void deleteClasses(Path directory, Set<String> keep) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> stale;
+        try (Stream<Path> files = Files.list(directory)) {
+            stale = files.filter(file -> file.getFileName().toString().endsWith(".java"))
+                .filter(file -> !keep.contains(file.getFileName().toString()))
+                .collect(Collectors.toList());
+        }
+        for (Path file : stale) {
+            Files.deleteIfExists(file);
+        }
+        try (Stream<Path> remaining = Files.list(directory)) {
+            if (remaining.findAny().isEmpty()) {
+                Files.delete(directory);
+            }
+        }
+    }
+
+    private static Path packageDirectory(Path outputDirectory, String packageName) {
+        return outputDirectory.resolve(packageName.replace('.', '/'));
+    }
+
+    private static String stemOf(Path sample) {
+        String fileName = sample.getFileName().toString();
+        return fileName.contains(".") ? fileName.substring(0, fileName.lastIndexOf('.')) : fileName;
+    }
+
+    private String packageFor(String stem) {
+        String segment = stem.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9_]", "_");
+        if (segment.isEmpty() || !Character.isJavaIdentifierStart(segment.charAt(0))) {
+            segment = "_" + segment;
+        }
+        String base = config.getPackageName();
+        return base == null || base.isEmpty() ? segment : base + "." + segment;
+    }
+
+    // user-profile.v2 -> UserProfileV2
+    static String classNameFor(String stem) {
+        StringBuilder name = new StringBuilder();
+        boolean upper = true;
+        for (int i = 0; i < stem.length(); i++) {
+            char c = stem.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                name.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            } else {
+                upper = true;
+            }
+        }
+        if (name.length() == 0 || !Character.isJavaIdentifierStart(name.charAt(0))) {
+            name.insert(0, "Sample");
+        }
+        return name.toString();
+    }
+
+    private static boolean hasGlob(String location) {
+        return location.matches(".*[*?\\[{].*");
+    }
+
+    // The directories before the first segment with a glob character
+    private static Path globRoot(String glob) {
+        String prefix = glob.replaceAll("[*?\\[{].*$", "");
+        int slash = Math.max(prefix.lastIndexOf('/'), prefix.lastIndexOf('\\'));
+        // Empty rather than "." so walked paths carry no "./" prefix the glob would not match
+        return Paths.get(slash < 0 ? "" : prefix.substring(0, slash + 1));
+    }
+
+    private static boolean isSample(String fileName) {
+        return fileName.endsWith(".json") || isJsonLines(fileName);
+    }
+
+    private static boolean isJsonLines(String fileName) {
+        return fileName.endsWith(".jsonl") || fileName.endsWith(".ndjson");
+    }
+}
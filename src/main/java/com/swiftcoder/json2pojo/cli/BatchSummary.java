@@ -0,0 +1,67 @@
+package com.swiftcoder.json2pojo.cli;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Totals and throughput of a batch run; per-sample results stay in sample order
+public class BatchSummary {
+    private final List<SampleResult> results;
+    private final long elapsedNanos;
+
+    public BatchSummary(List<SampleResult> results, long elapsedNanos) {
+        this.results = Collections.unmodifiableList(results);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public List<SampleResult> getResults() {
+        return results;
+    }
+
+    public List<SampleResult> getFailures() {
+        List<SampleResult> failures = new ArrayList<>();
+        for (SampleResult result : results) {
+            if (result.isFailed()) {
+                failures.add(result);
+            }
+        }
+        return failures;
+    }
+
+    public long getBytesRead() {
+        long bytes = 0;
+        for (SampleResult result : results) {
+            bytes += result.getBytesRead();
+        }
+        return bytes;
+    }
+
+    public int getClassesWritten() {
+        int classes = 0;
+        for (SampleResult result : results) {
+            classes += result.getClassesWritten();
+        }
+        return classes;
+    }
+
+    public int getClassesSkipped() {
+        int classes = 0;
+        for (SampleResult result : results) {
+            classes += result.getClassesSkipped();
+        }
+        return classes;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000L;
+    }
+
+    @Override
+    public String toString() {
+        double seconds = Math.max(elapsedNanos, 1) / 1e9;
+        return String.format("%d sample(s), %d failed, %d class(es) written, %d unchanged in %.2f s"
+                + " (%.1f samples/s, %.1f MB/s)",
+            results.size(), getFailures().size(), getClassesWritten(), getClassesSkipped(), seconds,
+            results.size() / seconds, getBytesRead() / 1e6 / seconds);
+    }
+}
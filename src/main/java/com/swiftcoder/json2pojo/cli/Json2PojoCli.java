@@ -0,0 +1,203 @@
+package com.swiftcoder.json2pojo.cli;
+
+import com.swiftcoder.json2pojo.generators.GenerationCache;
+import com.swiftcoder.json2pojo.inference.InferenceLimits;
+import com.swiftcoder.json2pojo.inference.SamplingConfig;
+import com.swiftcoder.json2pojo.models.GenerationConfig;
+import com.swiftcoder.json2pojo.models.NullHandling;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Command-line entry point for generating POJOs outside the IDE, e.g. during a build:
+ * <pre>
+ * json2pojo [options] &lt;samples directory or glob&gt;... &lt;output source root&gt;
+ * </pre>
+ * An argument {@code @file} is replaced by the lines of that file, one argument per line.
+ * Exits with 0 when every sample was generated, 1 when some failed and 2 on bad usage.
+ */
+public final class Json2PojoCli {
+    private static final String USAGE = String.join("\n",
+        "Usage: json2pojo [options] <samples directory or glob>... <output source root>",
+        "  @<file>                   read further arguments from a file, one per line",
+        "  --package <name>          base package; each sample gets a sub-package named after its file",
+        "  --jackson                 add Jackson annotations",
+        "  --lombok <annotations>    comma-separated Lombok annotations, e.g. @Getter,@Setter",
+        "  --readers, --writers      also emit Jackson streaming readers/writers",
+        "  --primitives              primitive types for fields never null or missing",
+        "  --narrow-numbers          narrowest numeric type for the observed values",
+        "  --enum-threshold <n>      strings with at most n distinct values become enums",
+        "  --omit-nulls              leave null fields out when serializing",
+        "  --max-samples <n>         infer each sample from a reservoir of n array elements/records",
+        "  --max-classes <n>         at most n classes per sample; further nested objects become Object",
+        "  --max-fields <n>          at most n fields across the classes of a sample",
+        "  --threads <n>             worker threads (default: available processors)",
+        "  --cache <file>            fingerprint cache; unchanged classes are not rewritten",
+        "  --prune                   delete classes a sample no longer produces",
+        "  --removed <sample>        delete the classes of a sample that no longer exists");
+
+    private static final Set<String> VALUE_OPTIONS = Set.of("--package", "--lombok", "--enum-threshold",
+        "--max-samples", "--max-classes", "--max-fields", "--threads", "--cache", "--removed");
+
+    private Json2PojoCli() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        String packageName = "";
+        boolean useJackson = false;
+        Set<String> lombokAnnotations = new LinkedHashSet<>();
+        boolean readers = false;
+        boolean writers = false;
+        boolean primitives = false;
+        boolean narrowNumbers = false;
+        int enumThreshold = 0;
+        NullHandling nullHandling = NullHandling.INCLUDE;
+        SamplingConfig sampling = SamplingConfig.all();
+        InferenceLimits limits = InferenceLimits.defaults();
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path cacheFile = null;
+        boolean prune = false;
+        List<Path> removed = new ArrayList<>();
+        List<String> positional = new ArrayList<>();
+
+        try {
+            args = expandArgumentFiles(args);
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--package":
+                        packageName = value(args, ++i);
+                        break;
+                    case "--jackson":
+                        useJackson = true;
+                        break;
+                    case "--lombok":
+                        lombokAnnotations.addAll(Arrays.asList(value(args, ++i).split(",")));
+                        break;
+                    case "--readers":
+                        readers = true;
+                        break;
+                    case "--writers":
+                        writers = true;
+                        break;
+                    case "--primitives":
+                        primitives = true;
+                        break;
+                    case "--narrow-numbers":
+                        narrowNumbers = true;
+                        break;
+                    case "--enum-threshold":
+                        enumThreshold = Integer.parseInt(value(args, ++i));
+                        break;
+                    case "--omit-nulls":
+                        nullHandling = NullHandling.OMIT;
+                        break;
+                    case "--max-samples":
+                        sampling = SamplingConfig.reservoir(Integer.parseInt(value(args, ++i)), 0);
+                        break;
+                    case "--max-classes":
+                        limits = limits.withMaxClasses(Integer.parseInt(value(args, ++i)));
+                        break;
+                    case "--max-fields":
+                        limits = limits.withMaxFields(Integer.parseInt(value(args, ++i)));
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(value(args, ++i));
+                        break;
+                    case "--cache":
+                        cacheFile = Paths.get(value(args, ++i));
+                        break;
+                    case "--prune":
+                        prune = true;
+                        break;
+                    case "--removed":
+                        removed.add(Paths.get(value(args, ++i)));
+                        break;
+                    default:
+                        if (args[i].startsWith("--")) {
+                            throw new IllegalArgumentException("Unknown option " + args[i]);
+                        }
+                        positional.add(args[i]);
+                }
+            }
+            if (positional.size() < (removed.isEmpty() ? 2 : 1)) {
+                throw new IllegalArgumentException("Expected a sample location and an output directory");
+            }
+        } catch (IllegalArgumentException | IOException e) {
+            // NumberFormatException included
+            err.println(e.getMessage());
+            err.println(USAGE);
+            return 2;
+        }
+
+        // The root class name is replaced per sample
+        GenerationConfig config = new GenerationConfig(useJackson, !lombokAnnotations.isEmpty(), lombokAnnotations,
+            packageName, "Root")
+            .withGenerateReaders(readers)
+            .withGenerateWriters(writers)
+            .withNullHandling(nullHandling)
+            .withUsePrimitives(primitives)
+            .withNarrowNumbers(narrowNumbers)
+            .withEnumThreshold(enumThreshold);
+        Path outputDirectory = Paths.get(positional.get(positional.size() - 1));
+        try {
+            List<Path> samples = new ArrayList<>();
+            for (String location : positional.subList(0, positional.size() - 1)) {
+                samples.addAll(BatchGenerator.findSamples(location));
+            }
+            GenerationCache cache = cacheFile != null ? GenerationCache.load(cacheFile) : null;
+            BatchGenerator batch = new BatchGenerator(config, sampling.withLimits(limits), threads, cache, prune);
+            batch.remove(removed, outputDirectory);
+            BatchSummary summary = batch.run(samples, outputDirectory);
+            for (SampleResult failure : summary.getFailures()) {
+                err.println(failure.getSample() + ": " + failure.getError());
+            }
+            out.println(summary);
+            return summary.getFailures().isEmpty() ? 0 : 1;
+        } catch (IOException e) {
+            err.println(e.getMessage());
+            return 1;
+        }
+    }
+
+    // Option values are never expanded, so --lombok @Getter keeps working
+    private static String[] expandArgumentFiles(String[] args) throws IOException {
+        List<String> expanded = new ArrayList<>(args.length);
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (VALUE_OPTIONS.contains(arg) && i + 1 < args.length) {
+                expanded.add(arg);
+                expanded.add(args[++i]);
+            } else if (arg.startsWith("@") && arg.length() > 1) {
+                for (String line : Files.readAllLines(Paths.get(arg.substring(1)), StandardCharsets.UTF_8)) {
+                    if (!line.isBlank()) {
+                        expanded.add(line.strip());
+                    }
+                }
+            } else {
+                expanded.add(arg);
+            }
+        }
+        return expanded.toArray(new String[0]);
+    }
+
+    private static String value(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException(args[index - 1] + " needs a value");
+        }
+        return args[index];
+    }
+}
@@ -0,0 +1,54 @@
+package com.swiftcoder.json2pojo.cli;
+
+import java.nio.file.Path;
+
+// Outcome of one sample of a batch run
+public class SampleResult {
+    private final Path sample;
+    private final long bytesRead;
+    private final int classesWritten;
+    private final int classesSkipped;
+    private final String error;
+
+    private SampleResult(Path sample, long bytesRead, int classesWritten, int classesSkipped, String error) {
+        this.sample = sample;
+        this.bytesRead = bytesRead;
+        this.classesWritten = classesWritten;
+        this.classesSkipped = classesSkipped;
+        this.error = error;
+    }
+
+    static SampleResult success(Path sample, long bytesRead, int classesWritten, int classesSkipped) {
+        return new SampleResult(sample, bytesRead, classesWritten, classesSkipped, null);
+    }
+
+    static SampleResult failure(Path sample, String error) {
+        return new SampleResult(sample, 0, 0, 0, error);
+    }
+
+    public Path getSample() {
+        return sample;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public int getClassesWritten() {
+        return classesWritten;
+    }
+
+    // Unchanged classes left in place thanks to the generation cache
+    public int getClassesSkipped() {
+        return classesSkipped;
+    }
+
+    public boolean isFailed() {
+        return error != null;
+    }
+
+    // Null unless the sample failed
+    public String getError() {
+        return error;
+    }
+}
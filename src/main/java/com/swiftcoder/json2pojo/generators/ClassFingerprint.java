@@ -0,0 +1,86 @@
+package com.swiftcoder.json2pojo.generators;
+
+import com.swiftcoder.json2pojo.models.GenerationConfig;
+import com.swiftcoder.json2pojo.models.JsonClass;
+import com.swiftcoder.json2pojo.models.JsonField;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Content address of one generated class: a SHA-256 over everything that influences its
+ * rendered source (the class itself and the GenerationConfig options the templates read).
+ */
+public final class ClassFingerprint {
+    // Bump whenever the templates change so previously cached output is regenerated
+    private static final int TEMPLATE_VERSION = 1;
+
+    private ClassFingerprint() {
+    }
+
+    public static String of(JsonClass jsonClass, GenerationConfig config) {
+        MessageDigest digest = newDigest();
+        update(digest, "v" + TEMPLATE_VERSION);
+
+        update(digest, config.getPackageName());
+        update(digest, String.valueOf(config.isUseJackson()));
+        update(digest, String.valueOf(config.isUseLombok()));
+        update(digest, String.valueOf(config.isGenerateReaders()));
+        update(digest, String.valueOf(config.isUsePrimitives()));
+        update(digest, String.valueOf(config.isNarrowNumbers()));
+        update(digest, config.isGenerateWriters() ? config.getNullHandling().name() : "false");
+        if (config.isUseLombok()) {
+            // Declaration order is kept: it is the order the annotations are rendered in
+            for (String annotation : config.getLombokAnnotations()) {
+                update(digest, annotation);
+            }
+        }
+
+        update(digest, jsonClass.getClassName());
+        for (JsonField field : jsonClass.getFields()) {
+            update(digest, field.getName());
+            update(digest, field.getType());
+            update(digest, field.getNumericType());
+            update(digest, field.isEnum(config) ? field.getEnumName() : "");
+            update(digest, field.isArray() + "," + field.isMap() + "," + field.isNullable() + "," + field.isOptional() + ","
+                + field.isElementNullable());
+        }
+        return toHex(digest.digest());
+    }
+
+    // An enum depends only on its name, its values and whether Jackson annotations are emitted
+    public static String ofEnum(JsonField field, GenerationConfig config) {
+        MessageDigest digest = newDigest();
+        update(digest, "v" + TEMPLATE_VERSION);
+        update(digest, config.getPackageName());
+        update(digest, String.valueOf(config.isUseJackson()));
+        update(digest, field.getEnumName());
+        for (String value : field.getEnumValues()) {
+            update(digest, value);
+        }
+        return toHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        // Separator so ("ab", "c") and ("a", "bc") differ
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
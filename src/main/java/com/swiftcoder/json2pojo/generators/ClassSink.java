@@ -0,0 +1,17 @@
+package com.swiftcoder.json2pojo.generators;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Destination for generated sources. The generator opens one writer per class, writes the
+ * whole compilation unit into it and closes it before moving on to the next class.
+ */
+public interface ClassSink {
+    Writer open(GeneratedClass generatedClass) throws IOException;
+
+    // Whether a previously generated file for this class is still present; cached classes are only skipped if so
+    default boolean contains(GeneratedClass generatedClass) {
+        return false;
+    }
+}
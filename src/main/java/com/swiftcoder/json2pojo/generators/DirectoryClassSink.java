@@ -0,0 +1,36 @@
+package com.swiftcoder.json2pojo.generators;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Writes each class to <sourceRoot>/<package path>/<ClassName>.java
+public class DirectoryClassSink implements ClassSink {
+    private final Path sourceRoot;
+
+    public DirectoryClassSink(Path sourceRoot) {
+        this.sourceRoot = sourceRoot;
+    }
+
+    @Override
+    public Writer open(GeneratedClass generatedClass) throws IOException {
+        Path directory = packageDirectory(generatedClass);
+        Files.createDirectories(directory);
+        return Files.newBufferedWriter(directory.resolve(generatedClass.getFileName()), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public boolean contains(GeneratedClass generatedClass) {
+        return Files.isRegularFile(packageDirectory(generatedClass).resolve(generatedClass.getFileName()));
+    }
+
+    private Path packageDirectory(GeneratedClass generatedClass) {
+        String packageName = generatedClass.getPackageName();
+        if (packageName == null || packageName.isEmpty()) {
+            return sourceRoot;
+        }
+        return sourceRoot.resolve(packageName.replace('.', '/'));
+    }
+}
@@ -0,0 +1,129 @@
+package com.swiftcoder.json2pojo.generators;
+
+import com.swiftcoder.json2pojo.models.GenerationConfig;
+import com.swiftcoder.json2pojo.models.JsonField;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Renders the enum of a low-cardinality string field. Each constant keeps its JSON value, and
+ * fromValue looks values up in a static map instead of comparing strings one by one.
+ */
+class EnumGenerator {
+
+    Set<String> collectImports(GenerationConfig config) {
+        Set<String> imports = new LinkedHashSet<>();
+        if (config.isUseJackson()) {
+            imports.add("com.fasterxml.jackson.annotation.JsonCreator");
+            imports.add("com.fasterxml.jackson.annotation.JsonValue");
+        }
+        imports.add("java.util.HashMap");
+        imports.add("java.util.Map");
+        return imports;
+    }
+
+    void writeBody(Appendable code, JsonField field, GenerationConfig config) throws IOException {
+        String enumName = field.getEnumName();
+        List<String> values = field.getEnumValues();
+        List<String> constants = constantNames(values);
+
+        code.append("public enum ").append(enumName).append(" {\n");
+        for (int i = 0; i < values.size(); i++) {
+            code.append("    ").append(constants.get(i)).append("(\"").append(escape(values.get(i))).append("\")")
+                .append(i < values.size() - 1 ? ",\n" : ";\n");
+        }
+        code.append("\n");
+
+        code.append("    private static final Map<String, ").append(enumName).append("> BY_VALUE = new HashMap<>();\n\n");
+        code.append("    static {\n");
+        code.append("        for (").append(enumName).append(" constant : values()) {\n");
+        code.append("            BY_VALUE.put(constant.value, constant);\n");
+        code.append("        }\n");
+        code.append("    }\n\n");
+
+        code.append("    private final String value;\n\n");
+        code.append("    ").append(enumName).append("(String value) {\n");
+        code.append("        this.value = value;\n");
+        code.append("    }\n\n");
+
+        if (config.isUseJackson()) {
+            code.append("    @JsonValue\n");
+        }
+        code.append("    public String getValue() {\n");
+        code.append("        return value;\n");
+        code.append("    }\n\n");
+
+        if (config.isUseJackson()) {
+            code.append("    @JsonCreator\n");
+        }
+        code.append("    public static ").append(enumName).append(" fromValue(String value) {\n");
+        code.append("        ").append(enumName).append(" constant = BY_VALUE.get(value);\n");
+        code.append("        if (constant == null) {\n");
+        code.append("            throw new IllegalArgumentException(\"Unknown ").append(enumName).append(": \" + value);\n");
+        code.append("        }\n");
+        code.append("        return constant;\n");
+        code.append("    }\n");
+        code.append("}\n");
+    }
+
+    // UPPER_SNAKE_CASE identifiers, made unique when two values map to the same name
+    static List<String> constantNames(List<String> values) {
+        List<String> names = new ArrayList<>(values.size());
+        Set<String> taken = new HashSet<>();
+        for (String value : values) {
+            String name = constantName(value);
+            String unique = name;
+            for (int counter = 2; !taken.add(unique); counter++) {
+                unique = name + "_" + counter;
+            }
+            names.add(unique);
+        }
+        return names;
+    }
+
+    private static String constantName(String value) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            // camelCase word boundaries become underscores too
+            if (i > 0 && Character.isUpperCase(c) && Character.isLowerCase(value.charAt(i - 1))) {
+                name.append('_');
+            }
+            if (c < 128 && Character.isLetterOrDigit(c)) {
+                name.append(Character.toUpperCase(c));
+            } else if (name.length() > 0 && name.charAt(name.length() - 1) != '_') {
+                name.append('_');
+            }
+        }
+        while (name.length() > 0 && name.charAt(name.length() - 1) == '_') {
+            name.setLength(name.length() - 1);
+        }
+        if (name.length() == 0) {
+            return "EMPTY";
+        }
+        return Character.isDigit(name.charAt(0)) ? "VALUE_" + name : name.toString();
+    }
+
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < 0x20) {
+                // Octal, since a unicode escape of a line break would end the literal
+                escaped.append(String.format("\\%03o", (int) c));
+            } else if (c > 0x7e) {
+                escaped.append(String.format("\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,41 @@
+package com.swiftcoder.json2pojo.generators;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Metadata of one emitted compilation unit, so callers never have to parse generated source
+ * to find out what was written.
+ */
+public class GeneratedClass {
+    private final String className;
+    private final String packageName;
+    private final List<String> imports;
+
+    public GeneratedClass(String className, String packageName, List<String> imports) {
+        this.className = className;
+        this.packageName = packageName;
+        this.imports = Collections.unmodifiableList(imports);
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    // Fully qualified names, in the order they appear in the source
+    public List<String> getImports() {
+        return imports;
+    }
+
+    public String getFileName() {
+        return className + ".java";
+    }
+
+    public String getQualifiedName() {
+        return packageName == null || packageName.isEmpty() ? className : packageName + "." + className;
+    }
+}
@@ -0,0 +1,79 @@
+package com.swiftcoder.json2pojo.generators;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent map from qualified class name to the {@link ClassFingerprint} of its last
+ * generated source. Classes whose fingerprint is unchanged (and whose file still exists in
+ * the sink) are neither rendered nor written again.
+ */
+public class GenerationCache {
+    private final Path file;
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+
+    private GenerationCache(Path file) {
+        this.file = file;
+    }
+
+    // A missing or unreadable cache file simply means everything is regenerated
+    public static GenerationCache load(Path file) {
+        GenerationCache cache = new GenerationCache(file);
+        if (file != null && Files.isRegularFile(file)) {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+                for (String name : properties.stringPropertyNames()) {
+                    cache.fingerprints.put(name, properties.getProperty(name));
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                cache.fingerprints.clear();
+            }
+        }
+        return cache;
+    }
+
+    public static GenerationCache inMemory() {
+        return new GenerationCache(null);
+    }
+
+    public boolean isUpToDate(String qualifiedName, String fingerprint) {
+        return fingerprint.equals(fingerprints.get(qualifiedName));
+    }
+
+    public void record(String qualifiedName, String fingerprint) {
+        fingerprints.put(qualifiedName, fingerprint);
+    }
+
+    public void save() throws IOException {
+        if (file == null) {
+            return;
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Properties properties = new Properties();
+        properties.putAll(fingerprints);
+        StringWriter stored = new StringWriter();
+        properties.store(stored, null);
+        // Escaped as load() expects; without the date comment and sorted, so the file is stable between runs
+        List<String> lines = new ArrayList<>();
+        for (String line : stored.toString().split("\\R")) {
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                lines.add(line);
+            }
+        }
+        Collections.sort(lines);
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,56 @@
+package com.swiftcoder.json2pojo.generators;
+
+import com.swiftcoder.json2pojo.metrics.PipelineMetrics;
+
+import java.util.Collections;
+import java.util.List;
+
+public class GenerationResult {
+    private final GeneratedClass rootClass;
+    private final List<GeneratedClass> generatedClasses;
+    private final List<GeneratedClass> skippedClasses;
+    private final boolean cached;
+    private final PipelineMetrics metrics;
+
+    public GenerationResult(GeneratedClass rootClass, List<GeneratedClass> generatedClasses,
+                            List<GeneratedClass> skippedClasses, boolean cached) {
+        this(rootClass, generatedClasses, skippedClasses, cached, PipelineMetrics.EMPTY);
+    }
+
+    public GenerationResult(GeneratedClass rootClass, List<GeneratedClass> generatedClasses,
+                            List<GeneratedClass> skippedClasses, boolean cached, PipelineMetrics metrics) {
+        this.rootClass = rootClass;
+        this.generatedClasses = Collections.unmodifiableList(generatedClasses);
+        this.skippedClasses = Collections.unmodifiableList(skippedClasses);
+        this.cached = cached;
+        this.metrics = metrics;
+    }
+
+    // The root class, whether it was written or skipped
+    public GeneratedClass getRootClass() {
+        return rootClass;
+    }
+
+    // Classes rendered and written to the sink, in generation order
+    public List<GeneratedClass> getGeneratedClasses() {
+        return generatedClasses;
+    }
+
+    // Classes left untouched because the cache held their current fingerprint
+    public List<GeneratedClass> getSkippedClasses() {
+        return skippedClasses;
+    }
+
+    public int getCacheHits() {
+        return skippedClasses.size();
+    }
+
+    public int getCacheMisses() {
+        return cached ? generatedClasses.size() : 0;
+    }
+
+    // Render and write phases; skipped classes are in neither
+    public PipelineMetrics getMetrics() {
+        return metrics;
+    }
+}
@@ -1,47 +1,256 @@
 package com.swiftcoder.json2pojo.generators;
 
+import com.swiftcoder.json2pojo.metrics.PipelineMetrics;
+import com.swiftcoder.json2pojo.metrics.RenderClassEvent;
+import com.swiftcoder.json2pojo.metrics.Utf8CountingWriter;
+import com.swiftcoder.json2pojo.metrics.WriteFileEvent;
 import com.swiftcoder.json2pojo.models.GenerationConfig;
 import com.swiftcoder.json2pojo.models.JsonClass;
 import com.swiftcoder.json2pojo.models.JsonField;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 public class JavaCodeGenerator {
+    // Classes rendered ahead of the sink per worker; bounds memory in parallel mode
+    private static final int RENDER_AHEAD_PER_WORKER = 4;
+    
+    private final ForkJoinPool pool;
+    private final ReaderGenerator readerGenerator = new ReaderGenerator();
+    private final WriterGenerator writerGenerator = new WriterGenerator();
+    private final EnumGenerator enumGenerator = new EnumGenerator();
+    
+    public JavaCodeGenerator() {
+        this.pool = null;
+    }
+    
+    // Renders independent classes concurrently on the pool; output order and content stay identical
+    public JavaCodeGenerator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
     
     public List<String> generateJavaClasses(JsonClass rootClass, GenerationConfig config) {
         List<String> generatedClasses = new ArrayList<>();
         
-        // Generate root class
-        String rootClassCode = generateSingleClass(rootClass, config);
-        generatedClasses.add(rootClassCode);
-        
-        // Generate nested classes
-        generateNestedClasses(rootClass, config, generatedClasses);
+        try {
+            generate(rootClass, config, generatedClass -> new StringWriter() {
+                @Override
+                public void close() {
+                    generatedClasses.add(toString());
+                }
+            });
+        } catch (IOException e) {
+            // In-memory writers never fail
+            throw new UncheckedIOException(e);
+        }
         
         return generatedClasses;
     }
     
-    private void generateNestedClasses(JsonClass parentClass, GenerationConfig config, List<String> generatedClasses) {
-        for (JsonClass nestedClass : parentClass.getNestedClasses()) {
-            String nestedClassCode = generateSingleClass(nestedClass, config);
-            generatedClasses.add(nestedClassCode);
+    // Streams every class straight into the sink, holding at most one class in memory at a time
+    public List<GeneratedClass> generate(JsonClass rootClass, GenerationConfig config, ClassSink sink) throws IOException {
+        return generate(rootClass, config, sink, null).getGeneratedClasses();
+    }
+    
+    // Skips classes whose fingerprint is cached and whose file is still in the sink; a null cache writes everything
+    public GenerationResult generate(JsonClass rootClass, GenerationConfig config, ClassSink sink,
+                                     GenerationCache cache) throws IOException {
+        // Root first, then nested classes depth-first
+        List<JsonClass> classes = new ArrayList<>();
+        classes.add(rootClass);
+        collectNestedClasses(rootClass, classes);
+        
+        // Each class, followed by its enabled companions and the enums its fields introduce
+        List<SourceFile> sourceFiles = new ArrayList<>(classes.size());
+        Set<String> enumNames = new HashSet<>();
+        for (JsonClass jsonClass : classes) {
+            String fingerprint = cache != null ? ClassFingerprint.of(jsonClass, config) : null;
+            for (SourceKind kind : SourceKind.values()) {
+                if (kind.isEnabled(config)) {
+                    sourceFiles.add(describe(jsonClass, kind, config, fingerprint));
+                }
+            }
+            for (JsonField field : jsonClass.getFields()) {
+                // Fields with the same enum name share one enum
+                if (field.isEnum(config) && enumNames.add(field.getEnumName())) {
+                    sourceFiles.add(new SourceFile(jsonClass, field, new GeneratedClass(field.getEnumName(),
+                        config.getPackageName(), new ArrayList<>(enumGenerator.collectImports(config))),
+                        cache != null ? ClassFingerprint.ofEnum(field, config) : null));
+                }
+            }
+        }
+        
+        List<SourceFile> pending = new ArrayList<>(sourceFiles.size());
+        List<GeneratedClass> generatedClasses = new ArrayList<>(sourceFiles.size());
+        List<GeneratedClass> skippedClasses = new ArrayList<>();
+        GeneratedClass root = sourceFiles.get(0).generatedClass;
+        for (SourceFile sourceFile : sourceFiles) {
+            GeneratedClass generatedClass = sourceFile.generatedClass;
+            if (cache != null && cache.isUpToDate(generatedClass.getQualifiedName(), sourceFile.fingerprint)
+                && sink.contains(generatedClass)) {
+                skippedClasses.add(generatedClass);
+                continue;
+            }
+            pending.add(sourceFile);
+            generatedClasses.add(generatedClass);
+        }
+        
+        Meter meter = new Meter();
+        if (pool != null) {
+            writeInParallel(pending, config, sink, meter);
+        } else {
+            for (SourceFile sourceFile : pending) {
+                writeStreaming(sourceFile, config, sink, meter);
+            }
+        }
+        
+        // Only recorded once written, so a failed run never marks a class as up to date
+        if (cache != null) {
+            for (SourceFile sourceFile : pending) {
+                cache.record(sourceFile.generatedClass.getQualifiedName(), sourceFile.fingerprint);
+            }
+        }
+        
+        return new GenerationResult(root, generatedClasses, skippedClasses, cache != null, meter.toMetrics());
+    }
+    
+    // Renders straight into the sink's writer; its render event is nested in its write event
+    private void writeStreaming(SourceFile sourceFile, GenerationConfig config, ClassSink sink, Meter meter)
+        throws IOException {
+        GeneratedClass generatedClass = sourceFile.generatedClass;
+        WriteFileEvent writeEvent = new WriteFileEvent();
+        writeEvent.begin();
+        long start = System.nanoTime();
+        Utf8CountingWriter writer = new Utf8CountingWriter(sink.open(generatedClass));
+        long opened;
+        long rendered;
+        try {
+            RenderClassEvent renderEvent = new RenderClassEvent();
+            renderEvent.begin();
+            opened = System.nanoTime();
+            writeSource(writer, sourceFile, config);
+            rendered = System.nanoTime();
+            renderEvent.complete(generatedClass.getQualifiedName(), writer.getBytes());
+        } finally {
+            writer.close();
+        }
+        long closed = System.nanoTime();
+        meter.rendered(generatedClass, rendered - opened, writer.getBytes());
+        meter.written(generatedClass, (opened - start) + (closed - rendered));
+        writeEvent.complete(generatedClass.getFileName(), writer.getBytes());
+    }
+    
+    private void writeInParallel(List<SourceFile> sourceFiles, GenerationConfig config, ClassSink sink, Meter meter)
+        throws IOException {
+        int window = Math.max(1, pool.getParallelism() * RENDER_AHEAD_PER_WORKER);
+        Deque<ForkJoinTask<Rendered>> rendering = new ArrayDeque<>(window);
+        int submitted = 0;
+        
+        for (int i = 0; i < sourceFiles.size(); i++) {
+            // Keep up to window classes rendering ahead of the one being written
+            while (submitted < sourceFiles.size() && submitted - i < window) {
+                SourceFile sourceFile = sourceFiles.get(submitted);
+                rendering.add(pool.submit(() -> renderMetered(sourceFile, config)));
+                submitted++;
+            }
             
-            // Recursively generate nested classes
-            generateNestedClasses(nestedClass, config, generatedClasses);
+            // Hand classes to the sink strictly in order, whichever finished rendering first
+            Rendered rendered = rendering.poll().join();
+            GeneratedClass generatedClass = sourceFiles.get(i).generatedClass;
+            WriteFileEvent writeEvent = new WriteFileEvent();
+            writeEvent.begin();
+            long start = System.nanoTime();
+            try (Writer writer = sink.open(generatedClass)) {
+                writer.write(rendered.source);
+            }
+            meter.rendered(generatedClass, rendered.nanos, rendered.bytes);
+            meter.written(generatedClass, System.nanoTime() - start);
+            writeEvent.complete(generatedClass.getFileName(), rendered.bytes);
         }
     }
     
-    private String generateSingleClass(JsonClass jsonClass, GenerationConfig config) {
+    // Runs on a pool worker, so only the event is recorded here and the meter is fed by the caller
+    private Rendered renderMetered(SourceFile sourceFile, GenerationConfig config) {
+        RenderClassEvent event = new RenderClassEvent();
+        event.begin();
+        long start = System.nanoTime();
+        String source = render(sourceFile, config);
+        long nanos = System.nanoTime() - start;
+        long bytes = Utf8CountingWriter.utf8Length(source);
+        event.complete(sourceFile.generatedClass.getQualifiedName(), bytes);
+        return new Rendered(source, nanos, bytes);
+    }
+    
+    // Pre-order, with an explicit stack so deeply nested models cannot overflow the call stack
+    private void collectNestedClasses(JsonClass parentClass, List<JsonClass> classes) {
+        Deque<JsonClass> pending = new ArrayDeque<>();
+        for (int i = parentClass.getNestedClasses().size() - 1; i >= 0; i--) {
+            pending.push(parentClass.getNestedClasses().get(i));
+        }
+        while (!pending.isEmpty()) {
+            JsonClass nestedClass = pending.pop();
+            classes.add(nestedClass);
+            List<JsonClass> nested = nestedClass.getNestedClasses();
+            for (int i = nested.size() - 1; i >= 0; i--) {
+                pending.push(nested.get(i));
+            }
+        }
+    }
+    
+    private String render(SourceFile sourceFile, GenerationConfig config) {
         StringBuilder code = new StringBuilder();
-        
-        // Package declaration
+        try {
+            writeSource(code, sourceFile, config);
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        return code.toString();
+    }
+    
+    private SourceFile describe(JsonClass jsonClass, SourceKind kind, GenerationConfig config, String fingerprint) {
+        if (kind == SourceKind.READER) {
+            return new SourceFile(jsonClass, kind, new GeneratedClass(jsonClass.getClassName() + ReaderGenerator.SUFFIX,
+                config.getPackageName(), new ArrayList<>(readerGenerator.collectImports(jsonClass, config))), fingerprint);
+        }
+        if (kind == SourceKind.WRITER) {
+            return new SourceFile(jsonClass, kind, new GeneratedClass(jsonClass.getClassName() + WriterGenerator.SUFFIX,
+                config.getPackageName(), new ArrayList<>(writerGenerator.collectImports(jsonClass, config))), fingerprint);
+        }
+        return new SourceFile(jsonClass, kind, new GeneratedClass(jsonClass.getClassName(), config.getPackageName(),
+            new ArrayList<>(collectImports(config, jsonClass))), fingerprint);
+    }
+    
+    private void writeSource(Appendable code, SourceFile sourceFile, GenerationConfig config) throws IOException {
+        // Package declaration and imports are shared by every kind of file
         code.append("package ").append(config.getPackageName()).append(";\n\n");
+        addImports(code, sourceFile.generatedClass);
         
-        // Imports
-        addImports(code, config, jsonClass);
-        
+        if (sourceFile.kind == SourceKind.READER) {
+            readerGenerator.writeBody(code, sourceFile.jsonClass, config);
+        } else if (sourceFile.kind == SourceKind.WRITER) {
+            writerGenerator.writeBody(code, sourceFile.jsonClass, config);
+        } else if (sourceFile.kind == SourceKind.ENUM) {
+            enumGenerator.writeBody(code, sourceFile.enumField, config);
+        } else {
+            writeClass(code, sourceFile.jsonClass, config);
+        }
+    }
+    
+    private void writeClass(Appendable code, JsonClass jsonClass, GenerationConfig config) throws IOException {
         // Class annotations
         addClassAnnotations(code, config);
         
@@ -55,69 +264,85 @@ public class JavaCodeGenerator {
         
         // Generate getters and setters if not using Lombok
         if (!config.isUseLombok() || !hasGetterSetterAnnotation(config)) {
-            generateGettersAndSetters(code, jsonClass);
+            generateGettersAndSetters(code, jsonClass, config);
+        } else {
+            // Writers read the class through its getters, readers populate it through its setters
+            if (config.isGenerateWriters() && !hasGetterAnnotation(config)) {
+                generateGetters(code, jsonClass, config);
+            }
+            if (config.isGenerateReaders() && !hasSetterAnnotation(config)) {
+                generateSetters(code, jsonClass, config);
+            }
         }
         
         // Generate constructors if not using Lombok
         if (!config.isUseLombok() || !hasConstructorAnnotation(config)) {
-            generateConstructors(code, jsonClass);
+            generateConstructors(code, jsonClass, config);
+        } else if (config.isGenerateReaders() && !config.getLombokAnnotations().contains("@NoArgsConstructor")) {
+            // Readers instantiate the class through its no-args constructor
+            code.append("    public ").append(jsonClass.getClassName()).append("() {\n");
+            code.append("    }\n\n");
         }
         
         code.append("}\n");
-        
-        return code.toString();
     }
     
-    private void addImports(StringBuilder code, GenerationConfig config, JsonClass jsonClass) {
-        Set<String> imports = new java.util.HashSet<>();
+    private Set<String> collectImports(GenerationConfig config, JsonClass jsonClass) {
+        Set<String> imports = new LinkedHashSet<>();
         
         // Jackson imports
         if (config.isUseJackson()) {
-            imports.add("import com.fasterxml.jackson.annotation.JsonProperty;");
+            imports.add("com.fasterxml.jackson.annotation.JsonProperty");
         }
         
         // Lombok imports
         if (config.isUseLombok()) {
             Set<String> lombokAnnotations = config.getLombokAnnotations();
             if (lombokAnnotations.contains("@Getter")) {
-                imports.add("import lombok.Getter;");
+                imports.add("lombok.Getter");
             }
             if (lombokAnnotations.contains("@Setter")) {
-                imports.add("import lombok.Setter;");
+                imports.add("lombok.Setter");
             }
             if (lombokAnnotations.contains("@Data")) {
-                imports.add("import lombok.Data;");
+                imports.add("lombok.Data");
             }
             if (lombokAnnotations.contains("@Builder")) {
-                imports.add("import lombok.Builder;");
+                imports.add("lombok.Builder");
             }
             if (lombokAnnotations.contains("@NoArgsConstructor")) {
-                imports.add("import lombok.NoArgsConstructor;");
+                imports.add("lombok.NoArgsConstructor");
             }
             if (lombokAnnotations.contains("@AllArgsConstructor")) {
-                imports.add("import lombok.AllArgsConstructor;");
+                imports.add("lombok.AllArgsConstructor");
             }
         }
         
-        // List import if needed
+        addMathImports(imports, jsonClass, config, false);
+        
+        // List and Map imports if needed
         for (JsonField field : jsonClass.getFields()) {
-            if (field.isArray()) {
-                imports.add("import java.util.List;");
-                break;
+            if (field.getJavaType(config).startsWith("List<")) {
+                imports.add("java.util.List");
+            } else if (field.getJavaType(config).startsWith("Map<")) {
+                imports.add("java.util.Map");
             }
         }
         
-        // Add imports to code
-        for (String importStatement : imports) {
-            code.append(importStatement).append("\n");
+        return imports;
+    }
+    
+    private void addImports(Appendable code, GeneratedClass generatedClass) throws IOException {
+        for (String importName : generatedClass.getImports()) {
+            code.append("import ").append(importName).append(";\n");
         }
         
-        if (!imports.isEmpty()) {
+        if (!generatedClass.getImports().isEmpty()) {
             code.append("\n");
         }
     }
     
-    private void addClassAnnotations(StringBuilder code, GenerationConfig config) {
+    private void addClassAnnotations(Appendable code, GenerationConfig config) throws IOException {
         if (config.isUseLombok()) {
             Set<String> lombokAnnotations = config.getLombokAnnotations();
             for (String annotation : lombokAnnotations) {
@@ -126,32 +351,50 @@ public class JavaCodeGenerator {
         }
     }
     
-    private void addField(StringBuilder code, JsonField field, GenerationConfig config) {
+    private void addField(Appendable code, JsonField field, GenerationConfig config) throws IOException {
         // Field annotation
         if (config.isUseJackson()) {
             code.append("    @JsonProperty(\"").append(field.getName()).append("\")\n");
         }
         
         // Field declaration
-        code.append("    private ").append(field.getJavaType()).append(" ").append(field.getName()).append(";\n\n");
+        code.append("    private ").append(field.getJavaType(config)).append(" ").append(field.getName()).append(";\n\n");
     }
     
-    private void generateGettersAndSetters(StringBuilder code, JsonClass jsonClass) {
+    private void generateGettersAndSetters(Appendable code, JsonClass jsonClass, GenerationConfig config) throws IOException {
         for (JsonField field : jsonClass.getFields()) {
             // Getter
             String capitalizedName = capitalizeFirstLetter(field.getName());
-            code.append("    public ").append(field.getJavaType()).append(" get").append(capitalizedName).append("() {\n");
+            code.append("    public ").append(field.getJavaType(config)).append(" get").append(capitalizedName).append("() {\n");
             code.append("        return ").append(field.getName()).append(";\n");
             code.append("    }\n\n");
             
             // Setter
-            code.append("    public void set").append(capitalizedName).append("(").append(field.getJavaType()).append(" ").append(field.getName()).append(") {\n");
+            code.append("    public void set").append(capitalizedName).append("(").append(field.getJavaType(config)).append(" ").append(field.getName()).append(") {\n");
             code.append("        this.").append(field.getName()).append(" = ").append(field.getName()).append(";\n");
             code.append("    }\n\n");
         }
     }
     
-    private void generateConstructors(StringBuilder code, JsonClass jsonClass) {
+    private void generateGetters(Appendable code, JsonClass jsonClass, GenerationConfig config) throws IOException {
+        for (JsonField field : jsonClass.getFields()) {
+            String capitalizedName = capitalizeFirstLetter(field.getName());
+            code.append("    public ").append(field.getJavaType(config)).append(" get").append(capitalizedName).append("() {\n");
+            code.append("        return ").append(field.getName()).append(";\n");
+            code.append("    }\n\n");
+        }
+    }
+    
+    private void generateSetters(Appendable code, JsonClass jsonClass, GenerationConfig config) throws IOException {
+        for (JsonField field : jsonClass.getFields()) {
+            String capitalizedName = capitalizeFirstLetter(field.getName());
+            code.append("    public void set").append(capitalizedName).append("(").append(field.getJavaType(config)).append(" ").append(field.getName()).append(") {\n");
+            code.append("        this.").append(field.getName()).append(" = ").append(field.getName()).append(";\n");
+            code.append("    }\n\n");
+        }
+    }
+    
+    private void generateConstructors(Appendable code, JsonClass jsonClass, GenerationConfig config) throws IOException {
         // Default constructor
         code.append("    public ").append(jsonClass.getClassName()).append("() {\n");
         code.append("    }\n\n");
@@ -162,7 +405,7 @@ public class JavaCodeGenerator {
             
             for (int i = 0; i < jsonClass.getFields().size(); i++) {
                 JsonField field = jsonClass.getFields().get(i);
-                code.append(field.getJavaType()).append(" ").append(field.getName());
+                code.append(field.getJavaType(config)).append(" ").append(field.getName());
                 if (i < jsonClass.getFields().size() - 1) {
                     code.append(", ");
                 }
@@ -183,15 +426,132 @@ public class JavaCodeGenerator {
         return annotations.contains("@Getter") || annotations.contains("@Setter") || annotations.contains("@Data");
     }
     
+    private boolean hasGetterAnnotation(GenerationConfig config) {
+        Set<String> annotations = config.getLombokAnnotations();
+        return annotations.contains("@Getter") || annotations.contains("@Data");
+    }
+    
+    private boolean hasSetterAnnotation(GenerationConfig config) {
+        Set<String> annotations = config.getLombokAnnotations();
+        return annotations.contains("@Setter") || annotations.contains("@Data");
+    }
+    
     private boolean hasConstructorAnnotation(GenerationConfig config) {
         Set<String> annotations = config.getLombokAnnotations();
         return annotations.contains("@NoArgsConstructor") || annotations.contains("@AllArgsConstructor");
     }
     
-    private String capitalizeFirstLetter(String str) {
+    static void addMathImports(Set<String> imports, JsonClass jsonClass, GenerationConfig config, boolean collectionsOnly) {
+        for (JsonField field : jsonClass.getFields()) {
+            String javaType = field.getJavaType(config);
+            if (collectionsOnly && !javaType.startsWith("List<") && !javaType.startsWith("Map<")) {
+                continue;
+            }
+            if (javaType.contains("BigInteger")) {
+                imports.add("java.math.BigInteger");
+            }
+            if (javaType.contains("BigDecimal")) {
+                imports.add("java.math.BigDecimal");
+            }
+        }
+    }
+    
+    // Lombok names the getter of a primitive boolean isXxx; the getters generated here always use getXxx
+    static String getterName(JsonField field, GenerationConfig config) {
+        boolean lombokGetter = config.isUseLombok() && (config.getLombokAnnotations().contains("@Getter")
+            || config.getLombokAnnotations().contains("@Data"));
+        String prefix = lombokGetter && "boolean".equals(field.getJavaType(config)) ? "is" : "get";
+        return prefix + capitalizeFirstLetter(field.getName());
+    }
+    
+    static String capitalizeFirstLetter(String str) {
         if (str == null || str.isEmpty()) {
             return str;
         }
         return str.substring(0, 1).toUpperCase() + str.substring(1);
     }
-}
\ No newline at end of file
+    
+    private enum SourceKind {
+        CLASS,
+        READER,
+        WRITER,
+        // One per distinct enum name rather than per class
+        ENUM;
+        
+        boolean isEnabled(GenerationConfig config) {
+            switch (this) {
+                case READER:
+                    return config.isGenerateReaders();
+                case WRITER:
+                    return config.isGenerateWriters();
+                case ENUM:
+                    // Emitted per field, not per class
+                    return false;
+                default:
+                    return true;
+            }
+        }
+    }
+    
+    private static final class Rendered {
+        final String source;
+        final long nanos;
+        final long bytes;
+        
+        Rendered(String source, long nanos, long bytes) {
+            this.source = source;
+            this.nanos = nanos;
+            this.bytes = bytes;
+        }
+    }
+    
+    // Render and write totals of one generate call; used from the calling thread only
+    private static final class Meter {
+        private long renderNanos;
+        private long writeNanos;
+        private final Map<String, Long> bytesPerClass = new LinkedHashMap<>();
+        private final Map<String, Long> nanosPerFile = new LinkedHashMap<>();
+        
+        void rendered(GeneratedClass generatedClass, long nanos, long bytes) {
+            renderNanos += nanos;
+            bytesPerClass.put(generatedClass.getQualifiedName(), bytes);
+        }
+        
+        void written(GeneratedClass generatedClass, long nanos) {
+            writeNanos += nanos;
+            nanosPerFile.put(generatedClass.getFileName(), nanos);
+        }
+        
+        PipelineMetrics toMetrics() {
+            return PipelineMetrics.EMPTY
+                .withRender(new PipelineMetrics.RenderPhase(renderNanos, bytesPerClass))
+                .withWrite(new PipelineMetrics.WritePhase(writeNanos, nanosPerFile));
+        }
+    }
+    
+    // One file to render: a class, one of its companions or an enum one of its fields introduces
+    private static final class SourceFile {
+        final JsonClass jsonClass;
+        final SourceKind kind;
+        final JsonField enumField;
+        final GeneratedClass generatedClass;
+        // Null when no cache is used
+        final String fingerprint;
+        
+        SourceFile(JsonClass jsonClass, SourceKind kind, GeneratedClass generatedClass, String fingerprint) {
+            this.jsonClass = jsonClass;
+            this.kind = kind;
+            this.enumField = null;
+            this.generatedClass = generatedClass;
+            this.fingerprint = fingerprint;
+        }
+        
+        SourceFile(JsonClass jsonClass, JsonField enumField, GeneratedClass generatedClass, String fingerprint) {
+            this.jsonClass = jsonClass;
+            this.kind = SourceKind.ENUM;
+            this.enumField = enumField;
+            this.generatedClass = generatedClass;
+            this.fingerprint = fingerprint;
+        }
+    }
+}
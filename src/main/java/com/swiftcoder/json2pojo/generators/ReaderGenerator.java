@@ -0,0 +1,318 @@
+package com.swiftcoder.json2pojo.generators;
+
+import com.swiftcoder.json2pojo.models.GenerationConfig;
+import com.swiftcoder.json2pojo.models.JsonClass;
+import com.swiftcoder.json2pojo.models.JsonField;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Renders the optional XxxReader companion of a class: a static, reflection-free reader that
+ * pulls the POJO straight off a Jackson token stream. Field names are matched with a string
+ * switch (Jackson canonicalizes names, so their hash codes are already cached) and unknown
+ * fields are skipped with skipChildren().
+ */
+class ReaderGenerator {
+    static final String SUFFIX = "Reader";
+
+    Set<String> collectImports(JsonClass jsonClass, GenerationConfig config) {
+        Set<String> imports = new LinkedHashSet<>();
+        imports.add("com.fasterxml.jackson.core.JsonParseException");
+        imports.add("com.fasterxml.jackson.core.JsonParser");
+        imports.add("com.fasterxml.jackson.core.JsonToken");
+        imports.add("java.io.IOException");
+        for (JsonField field : jsonClass.getFields()) {
+            if (isPrimitiveArray(field, config)) {
+                imports.add("java.util.Arrays");
+            } else if (field.isArray() || isUntyped(field)) {
+                imports.add("java.util.ArrayList");
+                imports.add("java.util.List");
+            }
+        }
+        if (hasUntypedField(jsonClass.getFields()) || hasMapField(jsonClass.getFields())) {
+            imports.add("java.util.LinkedHashMap");
+            imports.add("java.util.Map");
+        }
+        // Only list and map readers name the element type
+        JavaCodeGenerator.addMathImports(imports, jsonClass, config, true);
+        return imports;
+    }
+
+    void writeBody(Appendable code, JsonClass jsonClass, GenerationConfig config) throws IOException {
+        String className = jsonClass.getClassName();
+        code.append("public final class ").append(className).append(SUFFIX).append(" {\n");
+        code.append("    private ").append(className).append(SUFFIX).append("() {\n");
+        code.append("    }\n\n");
+
+        // Entry point
+        code.append("    // Reads one ").append(className).append(" starting at (or just before) its START_OBJECT; leaves the parser on its END_OBJECT\n");
+        code.append("    public static ").append(className).append(" read(JsonParser parser) throws IOException {\n");
+        code.append("        JsonToken token = parser.currentToken() == null ? parser.nextToken() : parser.currentToken();\n");
+        code.append("        if (token == JsonToken.VALUE_NULL) {\n");
+        code.append("            return null;\n");
+        code.append("        }\n");
+        code.append("        if (token != JsonToken.START_OBJECT) {\n");
+        code.append("            throw new JsonParseException(parser, \"Expected an object for ").append(className)
+            .append(" but found \" + token);\n");
+        code.append("        }\n\n");
+        code.append("        ").append(className).append(" value = new ").append(className).append("();\n");
+        code.append("        String fieldName;\n");
+        code.append("        while ((fieldName = parser.nextFieldName()) != null) {\n");
+        code.append("            JsonToken valueToken = parser.nextToken();\n");
+        code.append("            switch (fieldName) {\n");
+        for (JsonField field : jsonClass.getFields()) {
+            code.append("                case \"").append(field.getName()).append("\":\n");
+            code.append("                    value.set").append(JavaCodeGenerator.capitalizeFirstLetter(field.getName())).append("(");
+            String javaType = field.getJavaType(config);
+            String valueType = field.getValueType(config);
+            if (isPrimitiveArray(field, config)) {
+                code.append("read").append(arrayReaderName(javaType)).append("(parser)");
+            } else if (field.isArray()) {
+                code.append("read").append(valueType).append("List(parser)");
+            } else if (field.isMap()) {
+                code.append("read").append(valueType).append("Map(parser)");
+            } else if (!javaType.equals(valueType)) {
+                // Primitive: a stray null becomes the default value, as with databind
+                code.append(primitiveExpression(javaType, "valueToken"));
+            } else {
+                code.append(valueExpression(valueType, field.isEnum(config), "valueToken"));
+            }
+            code.append(");\n");
+            code.append("                    break;\n");
+        }
+        code.append("                default:\n");
+        code.append("                    // Unknown field: skip its value, however deeply nested\n");
+        code.append("                    parser.skipChildren();\n");
+        code.append("            }\n");
+        code.append("        }\n");
+        code.append("        return value;\n");
+        code.append("    }\n");
+
+        // One list or primitive array reader per distinct element type
+        Set<String> elementTypes = new LinkedHashSet<>();
+        Set<String> mapValueTypes = new LinkedHashSet<>();
+        Set<String> enumTypes = new HashSet<>();
+        Set<String> arrayTypes = new LinkedHashSet<>();
+        for (JsonField field : jsonClass.getFields()) {
+            if (isPrimitiveArray(field, config)) {
+                arrayTypes.add(field.getJavaType(config));
+            } else if (field.isArray()) {
+                elementTypes.add(field.getValueType(config));
+            } else if (field.isMap()) {
+                mapValueTypes.add(field.getValueType(config));
+            }
+            if (field.isEnum(config)) {
+                enumTypes.add(field.getValueType(config));
+            }
+        }
+        for (String elementType : elementTypes) {
+            writeListReader(code, elementType, enumTypes.contains(elementType));
+        }
+        for (String valueType : mapValueTypes) {
+            writeMapReader(code, valueType, enumTypes.contains(valueType));
+        }
+        for (String arrayType : arrayTypes) {
+            writeArrayReader(code, arrayType);
+        }
+
+        if (hasUntypedField(jsonClass.getFields())) {
+            writeAnyReader(code);
+        }
+
+        code.append("}\n");
+    }
+
+    private void writeListReader(Appendable code, String elementType, boolean isEnum) throws IOException {
+        code.append("\n");
+        code.append("    private static List<").append(elementType).append("> read").append(elementType)
+            .append("List(JsonParser parser) throws IOException {\n");
+        code.append("        if (parser.currentToken() == JsonToken.VALUE_NULL) {\n");
+        code.append("            return null;\n");
+        code.append("        }\n");
+        code.append("        if (parser.currentToken() != JsonToken.START_ARRAY) {\n");
+        code.append("            throw new JsonParseException(parser, \"Expected an array but found \" + parser.currentToken());\n");
+        code.append("        }\n");
+        code.append("        List<").append(elementType).append("> values = new ArrayList<>();\n");
+        code.append("        JsonToken token;\n");
+        code.append("        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {\n");
+        code.append("            values.add(").append(valueExpression(elementType, isEnum, "token")).append(");\n");
+        code.append("        }\n");
+        code.append("        return values;\n");
+        code.append("    }\n");
+    }
+
+    // Keeps the document's key order, as databind does for Map fields
+    private void writeMapReader(Appendable code, String valueType, boolean isEnum) throws IOException {
+        code.append("\n");
+        code.append("    private static Map<String, ").append(valueType).append("> read").append(valueType)
+            .append("Map(JsonParser parser) throws IOException {\n");
+        code.append("        if (parser.currentToken() == JsonToken.VALUE_NULL) {\n");
+        code.append("            return null;\n");
+        code.append("        }\n");
+        code.append("        if (parser.currentToken() != JsonToken.START_OBJECT) {\n");
+        code.append("            throw new JsonParseException(parser, \"Expected an object but found \" + parser.currentToken());\n");
+        code.append("        }\n");
+        code.append("        Map<String, ").append(valueType).append("> values = new LinkedHashMap<>();\n");
+        code.append("        String key;\n");
+        code.append("        while ((key = parser.nextFieldName()) != null) {\n");
+        code.append("            JsonToken token = parser.nextToken();\n");
+        code.append("            values.put(key, ").append(valueExpression(valueType, isEnum, "token")).append(");\n");
+        code.append("        }\n");
+        code.append("        return values;\n");
+        code.append("    }\n");
+    }
+
+    // Grows a primitive array in place so no element is ever boxed
+    private void writeArrayReader(Appendable code, String arrayType) throws IOException {
+        String elementType = arrayType.substring(0, arrayType.length() - 2);
+        code.append("\n");
+        code.append("    private static ").append(arrayType).append(" read").append(arrayReaderName(arrayType))
+            .append("(JsonParser parser) throws IOException {\n");
+        code.append("        if (parser.currentToken() == JsonToken.VALUE_NULL) {\n");
+        code.append("            return null;\n");
+        code.append("        }\n");
+        code.append("        if (parser.currentToken() != JsonToken.START_ARRAY) {\n");
+        code.append("            throw new JsonParseException(parser, \"Expected an array but found \" + parser.currentToken());\n");
+        code.append("        }\n");
+        code.append("        ").append(arrayType).append(" values = new ").append(elementType).append("[8];\n");
+        code.append("        int size = 0;\n");
+        code.append("        JsonToken token;\n");
+        code.append("        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {\n");
+        code.append("            if (size == values.length) {\n");
+        code.append("                values = Arrays.copyOf(values, size * 2);\n");
+        code.append("            }\n");
+        code.append("            values[size++] = ").append(primitiveExpression(elementType, "token")).append(";\n");
+        code.append("        }\n");
+        code.append("        return size == values.length ? values : Arrays.copyOf(values, size);\n");
+        code.append("    }\n");
+    }
+
+    // Untyped values come back as the same Map/List/Number/String/Boolean shapes databind produces for Object
+    private void writeAnyReader(Appendable code) throws IOException {
+        code.append("\n");
+        code.append("    private static Object readAny(JsonParser parser) throws IOException {\n");
+        code.append("        switch (parser.currentToken()) {\n");
+        code.append("            case START_OBJECT: {\n");
+        code.append("                Map<String, Object> map = new LinkedHashMap<>();\n");
+        code.append("                String fieldName;\n");
+        code.append("                while ((fieldName = parser.nextFieldName()) != null) {\n");
+        code.append("                    parser.nextToken();\n");
+        code.append("                    map.put(fieldName, readAny(parser));\n");
+        code.append("                }\n");
+        code.append("                return map;\n");
+        code.append("            }\n");
+        code.append("            case START_ARRAY: {\n");
+        code.append("                List<Object> list = new ArrayList<>();\n");
+        code.append("                while (parser.nextToken() != JsonToken.END_ARRAY) {\n");
+        code.append("                    list.add(readAny(parser));\n");
+        code.append("                }\n");
+        code.append("                return list;\n");
+        code.append("            }\n");
+        code.append("            case VALUE_STRING:\n");
+        code.append("                return parser.getText();\n");
+        code.append("            case VALUE_NUMBER_INT:\n");
+        code.append("                return parser.getNumberValue();\n");
+        code.append("            case VALUE_NUMBER_FLOAT:\n");
+        code.append("                return parser.getDoubleValue();\n");
+        code.append("            case VALUE_TRUE:\n");
+        code.append("                return Boolean.TRUE;\n");
+        code.append("            case VALUE_FALSE:\n");
+        code.append("                return Boolean.FALSE;\n");
+        code.append("            case VALUE_NULL:\n");
+        code.append("                return null;\n");
+        code.append("            default:\n");
+        code.append("                throw new JsonParseException(parser, \"Unexpected token \" + parser.currentToken());\n");
+        code.append("        }\n");
+        code.append("    }\n");
+    }
+
+    // Expression reading a single value of the given type while the parser is on tokenVariable
+    private String valueExpression(String type, boolean isEnum, String tokenVariable) {
+        String nullCheck = tokenVariable + " == JsonToken.VALUE_NULL ? null : ";
+        if (isEnum) {
+            return nullCheck + type + ".fromValue(parser.getText())";
+        }
+        switch (type) {
+            case "String":
+                return nullCheck + "parser.getText()";
+            case "Byte":
+                return nullCheck + "parser.getByteValue()";
+            case "Short":
+                return nullCheck + "parser.getShortValue()";
+            case "Integer":
+                return nullCheck + "parser.getIntValue()";
+            case "Long":
+                return nullCheck + "parser.getLongValue()";
+            case "BigInteger":
+                return nullCheck + "parser.getBigIntegerValue()";
+            case "Float":
+                return nullCheck + "parser.getFloatValue()";
+            case "Double":
+                return nullCheck + "parser.getDoubleValue()";
+            case "BigDecimal":
+                return nullCheck + "parser.getDecimalValue()";
+            case "Boolean":
+                return nullCheck + "parser.getBooleanValue()";
+            case "Object":
+                return "readAny(parser)";
+            default:
+                // Another generated class, read by its own companion reader
+                return type + SUFFIX + ".read(parser)";
+        }
+    }
+
+    private String primitiveExpression(String primitive, String tokenVariable) {
+        String nullCheck = tokenVariable + " == JsonToken.VALUE_NULL ? ";
+        switch (primitive) {
+            case "byte":
+                return nullCheck + "0 : parser.getByteValue()";
+            case "short":
+                return nullCheck + "0 : parser.getShortValue()";
+            case "int":
+                return nullCheck + "0 : parser.getIntValue()";
+            case "long":
+                return nullCheck + "0L : parser.getLongValue()";
+            case "float":
+                return nullCheck + "0f : parser.getFloatValue()";
+            case "double":
+                return nullCheck + "0.0 : parser.getDoubleValue()";
+            default:
+                return nullCheck + "false : parser.getBooleanValue()";
+        }
+    }
+
+    // int[] -> IntArray
+    private String arrayReaderName(String arrayType) {
+        return JavaCodeGenerator.capitalizeFirstLetter(arrayType.substring(0, arrayType.length() - 2)) + "Array";
+    }
+
+    private boolean isPrimitiveArray(JsonField field, GenerationConfig config) {
+        return field.getJavaType(config).endsWith("[]");
+    }
+
+    private boolean isUntyped(JsonField field) {
+        return "Object".equals(field.getType());
+    }
+
+    private boolean hasMapField(List<JsonField> fields) {
+        for (JsonField field : fields) {
+            if (field.isMap()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasUntypedField(List<JsonField> fields) {
+        for (JsonField field : fields) {
+            if (isUntyped(field)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
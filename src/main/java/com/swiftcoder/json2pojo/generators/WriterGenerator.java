@@ -0,0 +1,300 @@
+package com.swiftcoder.json2pojo.generators;
+
+import com.swiftcoder.json2pojo.models.GenerationConfig;
+import com.swiftcoder.json2pojo.models.JsonClass;
+import com.swiftcoder.json2pojo.models.JsonField;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Renders the optional XxxWriter companion of a class: a static writer that emits the POJO
+ * through its getters straight to a Jackson JsonGenerator. Field names are pre-encoded once
+ * as SerializedString constants. It walks the same field list the class body is rendered from,
+ * so the two cannot drift apart.
+ */
+class WriterGenerator {
+    static final String SUFFIX = "Writer";
+
+    Set<String> collectImports(JsonClass jsonClass, GenerationConfig config) {
+        Set<String> imports = new LinkedHashSet<>();
+        imports.add("com.fasterxml.jackson.core.JsonGenerator");
+        imports.add("com.fasterxml.jackson.core.io.SerializedString");
+        imports.add("java.io.IOException");
+        boolean needsMap = hasUntypedField(jsonClass.getFields());
+        for (JsonField field : jsonClass.getFields()) {
+            if (field.getJavaType(config).startsWith("List<")) {
+                imports.add("java.util.List");
+            }
+            needsMap |= field.isMap();
+        }
+        if (needsMap) {
+            imports.add("java.util.Map");
+        }
+        // Only list and map writers name the element type
+        JavaCodeGenerator.addMathImports(imports, jsonClass, config, true);
+        return imports;
+    }
+
+    void writeBody(Appendable code, JsonClass jsonClass, GenerationConfig config) throws IOException {
+        String className = jsonClass.getClassName();
+        List<JsonField> fields = jsonClass.getFields();
+        String[] constants = constantNames(fields);
+
+        code.append("public final class ").append(className).append(SUFFIX).append(" {\n");
+
+        // Pre-encoded field names
+        for (int i = 0; i < fields.size(); i++) {
+            code.append("    private static final SerializedString ").append(constants[i])
+                .append(" = new SerializedString(\"").append(fields.get(i).getName()).append("\");\n");
+        }
+        if (!fields.isEmpty()) {
+            code.append("\n");
+        }
+
+        code.append("    private ").append(className).append(SUFFIX).append("() {\n");
+        code.append("    }\n\n");
+
+        // Entry point
+        code.append("    public static void write(JsonGenerator generator, ").append(className).append(" value) throws IOException {\n");
+        code.append("        if (value == null) {\n");
+        code.append("            generator.writeNull();\n");
+        code.append("            return;\n");
+        code.append("        }\n");
+        code.append("        generator.writeStartObject();\n");
+        for (int i = 0; i < fields.size(); i++) {
+            JsonField field = fields.get(i);
+            String javaType = field.getJavaType(config);
+            String getter = "value." + JavaCodeGenerator.getterName(field, config) + "()";
+            if (isPrimitive(javaType)) {
+                // Never null, so no null policy applies
+                code.append("        generator.writeFieldName(").append(constants[i]).append(");\n");
+                code.append("        ").append(primitiveStatement(javaType, getter)).append("\n");
+            } else if (config.getNullHandling().omits(field)) {
+                code.append("        if (").append(getter).append(" != null) {\n");
+                code.append("            generator.writeFieldName(").append(constants[i]).append(");\n");
+                code.append(valueStatement(field, javaType, getter, config, "            "));
+                code.append("        }\n");
+            } else {
+                code.append("        generator.writeFieldName(").append(constants[i]).append(");\n");
+                code.append(valueStatement(field, javaType, getter, config, "        "));
+            }
+        }
+        code.append("        generator.writeEndObject();\n");
+        code.append("    }\n");
+
+        // One list or primitive array writer per distinct element type
+        Set<String> elementTypes = new LinkedHashSet<>();
+        Set<String> mapValueTypes = new LinkedHashSet<>();
+        Set<String> enumTypes = new HashSet<>();
+        Set<String> arrayTypes = new LinkedHashSet<>();
+        for (JsonField field : fields) {
+            String javaType = field.getJavaType(config);
+            if (javaType.endsWith("[]")) {
+                arrayTypes.add(javaType);
+            } else if (field.isArray()) {
+                elementTypes.add(field.getValueType(config));
+            } else if (field.isMap()) {
+                mapValueTypes.add(field.getValueType(config));
+            }
+            if (field.isEnum(config)) {
+                enumTypes.add(field.getValueType(config));
+            }
+        }
+        for (String elementType : elementTypes) {
+            writeListWriter(code, elementType, enumTypes.contains(elementType));
+        }
+        for (String valueType : mapValueTypes) {
+            writeMapWriter(code, valueType, enumTypes.contains(valueType));
+        }
+        for (String arrayType : arrayTypes) {
+            writeArrayWriter(code, arrayType);
+        }
+
+        if (hasUntypedField(fields)) {
+            writeAnyWriter(code);
+        }
+
+        code.append("}\n");
+    }
+
+    private String valueStatement(JsonField field, String javaType, String getter, GenerationConfig config,
+                                  String indent) {
+        if (javaType.endsWith("[]")) {
+            return indent + "write" + arrayWriterName(javaType) + "(generator, " + getter + ");\n";
+        }
+        if (field.isArray()) {
+            return indent + "write" + field.getValueType(config) + "List(generator, " + getter + ");\n";
+        }
+        if (field.isMap()) {
+            return indent + "write" + field.getValueType(config) + "Map(generator, " + getter + ");\n";
+        }
+        return elementStatement(javaType, field.isEnum(config), getter, indent);
+    }
+
+    private void writeListWriter(Appendable code, String elementType, boolean isEnum) throws IOException {
+        code.append("\n");
+        code.append("    private static void write").append(elementType).append("List(JsonGenerator generator, List<")
+            .append(elementType).append("> values) throws IOException {\n");
+        code.append("        if (values == null) {\n");
+        code.append("            generator.writeNull();\n");
+        code.append("            return;\n");
+        code.append("        }\n");
+        code.append("        generator.writeStartArray();\n");
+        code.append("        for (").append(elementType).append(" element : values) {\n");
+        code.append(elementStatement(elementType, isEnum, "element", "            "));
+        code.append("        }\n");
+        code.append("        generator.writeEndArray();\n");
+        code.append("    }\n");
+    }
+
+    private void writeMapWriter(Appendable code, String valueType, boolean isEnum) throws IOException {
+        code.append("\n");
+        code.append("    private static void write").append(valueType).append("Map(JsonGenerator generator, Map<String, ")
+            .append(valueType).append("> values) throws IOException {\n");
+        code.append("        if (values == null) {\n");
+        code.append("            generator.writeNull();\n");
+        code.append("            return;\n");
+        code.append("        }\n");
+        code.append("        generator.writeStartObject();\n");
+        code.append("        for (Map.Entry<String, ").append(valueType).append("> entry : values.entrySet()) {\n");
+        code.append("            generator.writeFieldName(entry.getKey());\n");
+        code.append(elementStatement(valueType, isEnum, "entry.getValue()", "            "));
+        code.append("        }\n");
+        code.append("        generator.writeEndObject();\n");
+        code.append("    }\n");
+    }
+
+    private void writeArrayWriter(Appendable code, String arrayType) throws IOException {
+        code.append("\n");
+        code.append("    private static void write").append(arrayWriterName(arrayType)).append("(JsonGenerator generator, ")
+            .append(arrayType).append(" values) throws IOException {\n");
+        code.append("        if (values == null) {\n");
+        code.append("            generator.writeNull();\n");
+        code.append("            return;\n");
+        code.append("        }\n");
+        if (arrayType.equals("int[]") || arrayType.equals("long[]") || arrayType.equals("double[]")) {
+            code.append("        generator.writeArray(values, 0, values.length);\n");
+        } else {
+            // No bulk overload for short[]/float[]
+            code.append("        generator.writeStartArray();\n");
+            code.append("        for (").append(arrayType, 0, arrayType.length() - 2).append(" element : values) {\n");
+            code.append("            generator.writeNumber(element);\n");
+            code.append("        }\n");
+            code.append("        generator.writeEndArray();\n");
+        }
+        code.append("    }\n");
+    }
+
+    // Mirrors the Map/List/scalar shapes the readers produce for untyped values
+    private void writeAnyWriter(Appendable code) throws IOException {
+        code.append("\n");
+        code.append("    private static void writeAny(JsonGenerator generator, Object value) throws IOException {\n");
+        code.append("        if (value instanceof Map) {\n");
+        code.append("            generator.writeStartObject();\n");
+        code.append("            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {\n");
+        code.append("                generator.writeFieldName(String.valueOf(entry.getKey()));\n");
+        code.append("                writeAny(generator, entry.getValue());\n");
+        code.append("            }\n");
+        code.append("            generator.writeEndObject();\n");
+        code.append("        } else if (value instanceof Iterable) {\n");
+        code.append("            generator.writeStartArray();\n");
+        code.append("            for (Object element : (Iterable<?>) value) {\n");
+        code.append("                writeAny(generator, element);\n");
+        code.append("            }\n");
+        code.append("            generator.writeEndArray();\n");
+        code.append("        } else {\n");
+        code.append("            // Strings, numbers, booleans and null\n");
+        code.append("            generator.writeObject(value);\n");
+        code.append("        }\n");
+        code.append("    }\n");
+    }
+
+    // Statement(s) writing one value of the given type; nulls are written as JSON null
+    private String elementStatement(String type, boolean isEnum, String expression, String indent) {
+        if (isEnum) {
+            return nullGuarded(expression, "generator.writeString(" + expression + ".getValue());", indent);
+        }
+        switch (type) {
+            case "String":
+                return indent + "generator.writeString(" + expression + ");\n";
+            case "Byte":
+            case "Short":
+            case "Integer":
+            case "Long":
+            case "BigInteger":
+            case "Float":
+            case "Double":
+            case "BigDecimal":
+                return nullGuarded(expression, "generator.writeNumber(" + expression + ");", indent);
+            case "Boolean":
+                return nullGuarded(expression, "generator.writeBoolean(" + expression + ");", indent);
+            case "Object":
+                return indent + "writeAny(generator, " + expression + ");\n";
+            default:
+                // Another generated class, written by its own companion writer
+                return indent + type + SUFFIX + ".write(generator, " + expression + ");\n";
+        }
+    }
+
+    // Boxed values have no JsonGenerator overload, so null is handled before unboxing
+    private String nullGuarded(String expression, String statement, String indent) {
+        return indent + "if (" + expression + " == null) {\n"
+            + indent + "    generator.writeNull();\n"
+            + indent + "} else {\n"
+            + indent + "    " + statement + "\n"
+            + indent + "}\n";
+    }
+
+    private String primitiveStatement(String primitive, String expression) {
+        if ("boolean".equals(primitive)) {
+            return "generator.writeBoolean(" + expression + ");";
+        }
+        return "generator.writeNumber(" + expression + ");";
+    }
+
+    private boolean isPrimitive(String javaType) {
+        return !javaType.isEmpty() && Character.isLowerCase(javaType.charAt(0)) && !javaType.endsWith("[]");
+    }
+
+    // int[] -> IntArray
+    private String arrayWriterName(String arrayType) {
+        return JavaCodeGenerator.capitalizeFirstLetter(arrayType.substring(0, arrayType.length() - 2)) + "Array";
+    }
+
+    // FIRST_NAME style constants, de-duplicated when two field names collapse to the same one
+    private String[] constantNames(List<JsonField> fields) {
+        String[] names = new String[fields.size()];
+        Set<String> taken = new HashSet<>();
+        for (int i = 0; i < fields.size(); i++) {
+            StringBuilder constant = new StringBuilder();
+            String fieldName = fields.get(i).getName();
+            for (int j = 0; j < fieldName.length(); j++) {
+                char c = fieldName.charAt(j);
+                if (Character.isUpperCase(c) && j > 0 && !Character.isUpperCase(fieldName.charAt(j - 1))) {
+                    constant.append('_');
+                }
+                constant.append(Character.isLetterOrDigit(c) ? Character.toUpperCase(c) : '_');
+            }
+            String name = constant.toString();
+            String unique = name;
+            for (int counter = 2; !taken.add(unique); counter++) {
+                unique = name + "_" + counter;
+            }
+            names[i] = unique;
+        }
+        return names;
+    }
+
+    private boolean hasUntypedField(List<JsonField> fields) {
+        for (JsonField field : fields) {
+            if ("Object".equals(field.getType())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,383 @@
+package com.swiftcoder.json2pojo.inference;
+
+import com.swiftcoder.json2pojo.models.JsonClass;
+import com.swiftcoder.json2pojo.models.JsonField;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hash-conses the classes of an inferred model bottom-up, so structurally identical classes are
+ * generated once, and turns a nested class that repeats an ancestor into a reference to it.
+ * Class and enum names are then made unique across the model.
+ */
+public class ClassCanonicalizer {
+
+    public Result canonicalize(JsonClass root) {
+        return canonicalize(root, new SymbolTable());
+    }
+
+    public Result canonicalize(JsonClass root, SymbolTable symbols) {
+        return new Run(root, symbols).execute();
+    }
+
+    public static class Result {
+        private final int classesBefore;
+        private final int classesAfter;
+        private final List<String> recursiveClasses;
+
+        public Result(int classesBefore, int classesAfter, List<String> recursiveClasses) {
+            this.classesBefore = classesBefore;
+            this.classesAfter = classesAfter;
+            this.recursiveClasses = recursiveClasses;
+        }
+
+        public int getClassesBefore() {
+            return classesBefore;
+        }
+
+        public int getClassesAfter() {
+            return classesAfter;
+        }
+
+        public List<String> getRecursiveClasses() {
+            return recursiveClasses;
+        }
+    }
+
+    private static class Run {
+        private final JsonClass root;
+        private final SymbolTable symbols;
+        private final Map<Key, JsonClass> interned = new HashMap<>();
+        // Ids for canonical classes used as field types, and for symbols a full table has no id for
+        private final Map<JsonClass, Integer> classIds = new IdentityHashMap<>();
+        private final Map<String, Integer> overflowIds = new HashMap<>();
+        // Canonical class -> names of every class it stands for, in discovery order
+        private final Map<JsonClass, Set<String>> aliases = new LinkedHashMap<>();
+        // Canonical class -> fields (owner, index) whose type refers to it
+        private final Map<JsonClass, List<Object[]>> references = new IdentityHashMap<>();
+        private final Set<JsonClass> recursive = new LinkedHashSet<>();
+        private final Deque<JsonClass> ancestors = new ArrayDeque<>();
+        private final Set<String> classNames = new HashSet<>();
+        private int classesBefore;
+
+        Run(JsonClass root, SymbolTable symbols) {
+            this.root = root;
+            this.symbols = symbols;
+        }
+
+        Result execute() {
+            collectNames(root);
+            aliases.put(root, new LinkedHashSet<>(List.of(root.getClassName())));
+            visitChildren(root);
+
+            assignNames();
+            for (Map.Entry<JsonClass, List<Object[]>> entry : references.entrySet()) {
+                for (Object[] reference : entry.getValue()) {
+                    retype((JsonClass) reference[0], (Integer) reference[1], entry.getKey().getClassName());
+                }
+            }
+            assignEnumNames();
+
+            List<String> recursiveNames = new ArrayList<>();
+            for (JsonClass recursiveClass : recursive) {
+                recursiveNames.add(recursiveClass.getClassName());
+            }
+            return new Result(classesBefore, countClasses(root), recursiveNames);
+        }
+
+        private void collectNames(JsonClass root) {
+            List<JsonClass> classes = new ArrayList<>();
+            collectClasses(root, classes);
+            classesBefore = classes.size();
+            for (JsonClass jsonClass : classes) {
+                classNames.add(jsonClass.getClassName());
+            }
+        }
+
+        // Returns the canonical class that replaces jsonClass (possibly jsonClass itself)
+        private JsonClass visit(JsonClass jsonClass, String linkField) {
+            for (JsonClass ancestor : ancestors) {
+                if (isRecursiveOccurrence(jsonClass, ancestor, linkField)) {
+                    recursive.add(ancestor);
+                    aliases.get(ancestor).add(jsonClass.getClassName());
+                    return ancestor;
+                }
+            }
+
+            JsonClass[] targets = visitChildren(jsonClass);
+
+            // Per field: name, flags, then the id of its type or of the canonical class it refers to
+            List<JsonField> fields = jsonClass.getFields();
+            int[] ids = new int[fields.size() * 3];
+            for (int i = 0; i < fields.size(); i++) {
+                JsonField field = fields.get(i);
+                ids[i * 3] = idOf(field.getName());
+                ids[i * 3 + 1] = (field.isArray() ? 1 : 0) | (field.isMap() ? 2 : 0) | (targets[i] != null ? 4 : 0);
+                ids[i * 3 + 2] = targets[i] != null ? classIdOf(targets[i]) : idOf(field.getType());
+            }
+
+            JsonClass canonical = interned.putIfAbsent(new Key(ids), jsonClass);
+            if (canonical == null) {
+                aliases.put(jsonClass, new LinkedHashSet<>(List.of(jsonClass.getClassName())));
+                return jsonClass;
+            }
+            widenFlags(canonical, jsonClass);
+            aliases.get(canonical).add(jsonClass.getClassName());
+            return canonical;
+        }
+
+        private int idOf(String symbol) {
+            int id = symbols.idOf(symbol);
+            if (id >= 0) {
+                return id;
+            }
+            Integer overflow = overflowIds.get(symbol);
+            if (overflow == null) {
+                overflow = -2 - overflowIds.size();
+                overflowIds.put(symbol, overflow);
+            }
+            return overflow;
+        }
+
+        private int classIdOf(JsonClass jsonClass) {
+            Integer id = classIds.get(jsonClass);
+            if (id == null) {
+                id = classIds.size();
+                classIds.put(jsonClass, id);
+            }
+            return id;
+        }
+
+        // Returns, per field, the canonical class its type refers to (null for non-class types)
+        private JsonClass[] visitChildren(JsonClass jsonClass) {
+            List<JsonField> fields = jsonClass.getFields();
+            JsonClass[] targets = new JsonClass[fields.size()];
+            Map<String, Deque<Integer>> unclaimedFields = fieldsByType(jsonClass);
+            Set<JsonClass> replaced = Collections.newSetFromMap(new IdentityHashMap<>());
+            ancestors.push(jsonClass);
+            for (JsonClass nested : new ArrayList<>(jsonClass.getNestedClasses())) {
+                // Nested classes are created in field order, so each pairs with the first unclaimed field of its name
+                Deque<Integer> candidates = unclaimedFields.get(nested.getClassName());
+                int link = candidates == null || candidates.isEmpty() ? -1 : candidates.poll();
+                JsonClass canonical = visit(nested, link < 0 ? null : fields.get(link).getName());
+                if (canonical != nested) {
+                    replaced.add(nested);
+                }
+                if (link >= 0) {
+                    targets[link] = canonical;
+                }
+            }
+            ancestors.pop();
+            // Removed in one pass; one at a time would be quadratic in the number of nested classes
+            if (!replaced.isEmpty()) {
+                jsonClass.removeNestedClasses(replaced);
+            }
+
+            for (int i = 0; i < targets.length; i++) {
+                if (targets[i] != null) {
+                    references.computeIfAbsent(targets[i], key -> new ArrayList<>()).add(new Object[]{jsonClass, i});
+                }
+            }
+            return targets;
+        }
+
+        private Map<String, Deque<Integer>> fieldsByType(JsonClass jsonClass) {
+            Map<String, Deque<Integer>> fieldsByType = new HashMap<>();
+            List<JsonField> fields = jsonClass.getFields();
+            for (int i = 0; i < fields.size(); i++) {
+                fieldsByType.computeIfAbsent(fields.get(i).getType(), key -> new ArrayDeque<>()).add(i);
+            }
+            return fieldsByType;
+        }
+
+        // Same field names as the ancestor, reached through a field the class itself repeats
+        private boolean isRecursiveOccurrence(JsonClass jsonClass, JsonClass ancestor, String linkField) {
+            if (linkField == null || jsonClass.getFields().size() != ancestor.getFields().size()) {
+                return false;
+            }
+            boolean repeatsLink = false;
+            for (JsonField field : jsonClass.getFields()) {
+                JsonField ancestorField = ancestor.getField(field.getName());
+                if (ancestorField == null || !isCompatible(field, ancestorField)) {
+                    return false;
+                }
+                repeatsLink |= field.getName().equals(linkField);
+            }
+            return repeatsLink;
+        }
+
+        private boolean isCompatible(JsonField field, JsonField other) {
+            if (isUnknown(field) || isUnknown(other)) {
+                return true;
+            }
+            if (field.isArray() != other.isArray() || field.isMap() != other.isMap()) {
+                return false;
+            }
+            return field.getType().equals(other.getType())
+                || (classNames.contains(field.getType()) && classNames.contains(other.getType()));
+        }
+
+        // Values that were only ever null or empty arrays carry no type information
+        private boolean isUnknown(JsonField field) {
+            return "Object".equals(field.getType())
+                && ("null".equals(field.getOriginalJsonType()) || field.isArray());
+        }
+
+        private void widenFlags(JsonClass canonical, JsonClass duplicate) {
+            for (int i = 0; i < canonical.getFields().size(); i++) {
+                JsonField kept = canonical.getFields().get(i);
+                JsonField widened = kept.widen(duplicate.getFields().get(i));
+                if (!widened.equals(kept)) {
+                    canonical.replaceField(i, widened);
+                }
+            }
+        }
+
+        // Shared classes take the common suffix of their aliases (BillingAddress + ShippingAddress -> Address)
+        private void assignNames() {
+            // The root keeps the name the user asked for; aliases are visited root-last
+            Set<String> taken = new HashSet<>();
+            taken.add(root.getClassName());
+            for (Map.Entry<JsonClass, Set<String>> entry : aliases.entrySet()) {
+                JsonClass canonical = entry.getKey();
+                if (canonical == root) {
+                    continue;
+                }
+                String name = canonical.getClassName();
+                if (canonical != root && entry.getValue().size() > 1) {
+                    String suffix = commonSuffix(entry.getValue());
+                    if (!suffix.isEmpty() && !taken.contains(suffix)
+                            && (entry.getValue().contains(suffix) || !classNames.contains(suffix))) {
+                        name = suffix;
+                    }
+                }
+                String unique = name;
+                for (int counter = 2; taken.contains(unique); counter++) {
+                    unique = name + counter;
+                }
+                taken.add(unique);
+                canonical.setClassName(unique);
+            }
+        }
+
+        // Same name and values share one enum; otherwise the owner's name is prefixed, then a counter
+        private void assignEnumNames() {
+            List<JsonClass> classes = new ArrayList<>();
+            collectClasses(root, classes);
+            Set<String> finalClassNames = new HashSet<>();
+            for (JsonClass jsonClass : classes) {
+                finalClassNames.add(jsonClass.getClassName());
+            }
+
+            Map<String, List<String>> enums = new HashMap<>();
+            for (JsonClass owner : classes) {
+                List<JsonField> fields = owner.getFields();
+                for (int i = 0; i < fields.size(); i++) {
+                    JsonField field = fields.get(i);
+                    if (field.getEnumValues() == null) {
+                        continue;
+                    }
+                    String name = field.getEnumName();
+                    if (!isFreeEnumName(name, field.getEnumValues(), finalClassNames, enums)) {
+                        name = owner.getClassName() + field.getEnumName();
+                    }
+                    String unique = name;
+                    for (int counter = 2; !isFreeEnumName(unique, field.getEnumValues(), finalClassNames, enums); counter++) {
+                        unique = name + counter;
+                    }
+                    enums.put(unique, field.getEnumValues());
+                    if (!unique.equals(field.getEnumName())) {
+                        owner.replaceField(i, field.withEnum(unique, field.getEnumValues()));
+                    }
+                }
+            }
+        }
+
+        private boolean isFreeEnumName(String name, List<String> values, Set<String> classNames,
+                                       Map<String, List<String>> enums) {
+            List<String> existing = enums.get(name);
+            return !classNames.contains(name) && (existing == null || existing.equals(values));
+        }
+
+        // Pre-order, with an explicit stack
+        private void collectClasses(JsonClass root, List<JsonClass> classes) {
+            Deque<JsonClass> pending = new ArrayDeque<>();
+            pending.push(root);
+            while (!pending.isEmpty()) {
+                JsonClass jsonClass = pending.pop();
+                classes.add(jsonClass);
+                List<JsonClass> nested = jsonClass.getNestedClasses();
+                for (int i = nested.size() - 1; i >= 0; i--) {
+                    pending.push(nested.get(i));
+                }
+            }
+        }
+
+        private String commonSuffix(Set<String> names) {
+            String suffix = null;
+            for (String name : names) {
+                if (suffix == null) {
+                    suffix = name;
+                    continue;
+                }
+                int length = 0;
+                while (length < suffix.length() && length < name.length()
+                        && suffix.charAt(suffix.length() - 1 - length) == name.charAt(name.length() - 1 - length)) {
+                    length++;
+                }
+                suffix = suffix.substring(suffix.length() - length);
+            }
+            // Cut to a whole camel-case word
+            int start = 0;
+            while (start < suffix.length() && !Character.isUpperCase(suffix.charAt(start))) {
+                start++;
+            }
+            return suffix.substring(start);
+        }
+
+        private void retype(JsonClass owner, int index, String type) {
+            JsonField field = owner.getFields().get(index);
+            if (!field.getType().equals(type)) {
+                owner.replaceField(index, field.withType(type));
+            }
+        }
+
+        private int countClasses(JsonClass root) {
+            List<JsonClass> classes = new ArrayList<>();
+            collectClasses(root, classes);
+            return classes.size();
+        }
+    }
+
+    private static final class Key {
+        private final int[] ids;
+        private final int hash;
+
+        Key(int[] ids) {
+            this.ids = ids;
+            this.hash = Arrays.hashCode(ids);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && hash == ((Key) o).hash && Arrays.equals(ids, ((Key) o).ids);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.swiftcoder.json2pojo.inference;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Accumulated observations of the values found under one field name (or of the elements
+ * of one array). Shapes are mergeable, so partial results inferred in parallel can be
+ * combined in any grouping as long as their order is preserved.
+ */
+public class FieldShape {
+    public static final int NULL = 1;
+    public static final int BOOLEAN = 1 << 1;
+    public static final int INT = 1 << 2;
+    public static final int LONG = 1 << 3;
+    public static final int BIG_INTEGER = 1 << 4;
+    public static final int DOUBLE = 1 << 5;
+    public static final int STRING = 1 << 6;
+    public static final int OBJECT = 1 << 7;
+    public static final int ARRAY = 1 << 8;
+    // An object or array nested beyond InferenceLimits.getMaxDepth(), skipped unobserved
+    public static final int UNKNOWN = 1 << 9;
+
+    private int kinds;
+    private int present;
+    private int nulls;
+    private ObjectShape objectShape;
+    private FieldShape elementShape;
+    private NumericStats numbers;
+    private StringStats strings;
+
+    public int getKinds() {
+        return kinds;
+    }
+
+    public boolean hasKind(int kind) {
+        return (kinds & kind) != 0;
+    }
+
+    // Kinds other than null, i.e. what the value looks like when it is there
+    public int getValueKinds() {
+        return kinds & ~NULL;
+    }
+
+    public int getPresent() {
+        return present;
+    }
+
+    public int getNulls() {
+        return nulls;
+    }
+
+    public ObjectShape getObjectShape() {
+        return objectShape;
+    }
+
+    public FieldShape getElementShape() {
+        return elementShape;
+    }
+
+    // Null unless at least one number was observed
+    public NumericStats getNumbers() {
+        return numbers;
+    }
+
+    // Null unless at least one string was observed
+    public StringStats getStrings() {
+        return strings;
+    }
+
+    public void recordNull() {
+        present++;
+        nulls++;
+        kinds |= NULL;
+    }
+
+    public void recordScalar(int kind) {
+        present++;
+        kinds |= kind;
+    }
+
+    public void recordInteger(long value) {
+        recordScalar(value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE ? INT : LONG);
+        numbers().recordInteger(value);
+    }
+
+    public void recordBigInteger(BigInteger value) {
+        recordScalar(BIG_INTEGER);
+        numbers().recordBigInteger(value);
+    }
+
+    public void recordDecimal(BigDecimal value) {
+        recordScalar(DOUBLE);
+        numbers().recordDecimal(value);
+    }
+
+    public void recordString(String value) {
+        recordScalar(STRING);
+        if (strings == null) {
+            strings = new StringStats();
+        }
+        strings.record(value);
+    }
+
+    public ObjectShape recordObject() {
+        present++;
+        kinds |= OBJECT;
+        if (objectShape == null) {
+            objectShape = new ObjectShape();
+        }
+        objectShape.recordObservation();
+        return objectShape;
+    }
+
+    public FieldShape recordArray() {
+        present++;
+        kinds |= ARRAY;
+        if (elementShape == null) {
+            elementShape = new FieldShape();
+        }
+        return elementShape;
+    }
+
+    // Folds other into this shape; other must not be used afterwards
+    public void merge(FieldShape other) {
+        kinds |= other.kinds;
+        present += other.present;
+        nulls += other.nulls;
+
+        if (other.numbers != null) {
+            numbers().merge(other.numbers);
+        }
+
+        if (other.strings != null) {
+            if (strings == null) {
+                strings = other.strings;
+            } else {
+                strings.merge(other.strings);
+            }
+        }
+
+        if (other.objectShape != null) {
+            if (objectShape == null) {
+                objectShape = other.objectShape;
+            } else {
+                objectShape.merge(other.objectShape);
+            }
+        }
+
+        if (other.elementShape != null) {
+            if (elementShape == null) {
+                elementShape = other.elementShape;
+            } else {
+                elementShape.merge(other.elementShape);
+            }
+        }
+    }
+
+    // Values observed at this position and below, walked without recursion
+    public long countValues() {
+        long values = 0;
+        Deque<FieldShape> pending = new ArrayDeque<>();
+        pending.push(this);
+        while (!pending.isEmpty()) {
+            FieldShape shape = pending.pop();
+            values += shape.present;
+            if (shape.elementShape != null) {
+                pending.push(shape.elementShape);
+            }
+            if (shape.objectShape != null) {
+                if (shape.objectShape.getValueShape() != null) {
+                    pending.push(shape.objectShape.getValueShape());
+                }
+                for (FieldShape field : shape.objectShape.getFields().values()) {
+                    pending.push(field);
+                }
+            }
+        }
+        return values;
+    }
+
+    // Deep copy, so a kept shape can be merged into others and still be reused; walked without recursion
+    public FieldShape copy() {
+        FieldShape root = new FieldShape();
+        Deque<FieldShape[]> pending = new ArrayDeque<>();
+        pending.push(new FieldShape[]{this, root});
+        while (!pending.isEmpty()) {
+            FieldShape[] pair = pending.pop();
+            FieldShape source = pair[0];
+            FieldShape target = pair[1];
+            target.kinds = source.kinds;
+            target.present = source.present;
+            target.nulls = source.nulls;
+            if (source.numbers != null) {
+                target.numbers().merge(source.numbers);
+            }
+            if (source.strings != null) {
+                target.strings = new StringStats();
+                target.strings.merge(source.strings);
+            }
+            if (source.objectShape != null) {
+                target.objectShape = source.objectShape.copyOutline(pending);
+            }
+            if (source.elementShape != null) {
+                target.elementShape = new FieldShape();
+                pending.push(new FieldShape[]{source.elementShape, target.elementShape});
+            }
+        }
+        return root;
+    }
+
+    private NumericStats numbers() {
+        if (numbers == null) {
+            numbers = new NumericStats();
+        }
+        return numbers;
+    }
+}
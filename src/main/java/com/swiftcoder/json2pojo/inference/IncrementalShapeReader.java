@@ -0,0 +1,340 @@
+package com.swiftcoder.json2pojo.inference;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Infers a document that is read again with small edits, such as the JSON typed into the
+ * generation dialog. A top-level array is cut into content-defined chunks whose shapes are kept,
+ * so only chunks around an edit are parsed again. Only for sampling every element; other
+ * sampling reads the token stream directly. One read at a time, and the bytes of a read must not
+ * change before the next one.
+ */
+public class IncrementalShapeReader {
+    private static final int MIN_CHUNK_BYTES = 1 << 18;
+    private static final int MAX_CHUNK_BYTES = 1 << 21;
+    // Past the minimum size about one element in 16 ends a chunk
+    private static final int BOUNDARY_MASK = 15;
+    // Bytes hashed at each end of an element for the boundary test
+    private static final int HASHED_BYTES = 32;
+    // Compared at once when looking for the unchanged tail of a document
+    private static final int SUFFIX_BLOCK_BYTES = 4096;
+
+    private final JsonFactory jsonFactory;
+    private final StreamingShapeReader shapeReader;
+    private final ForkJoinPool pool;
+    // What the previous read left; chunk shapes are never merged into anything themselves
+    private Layout previous = new Layout(null);
+
+    public IncrementalShapeReader(JsonFactory jsonFactory, StreamingShapeReader shapeReader) {
+        this(jsonFactory, shapeReader, ForkJoinPool.commonPool());
+    }
+
+    // A pool of one worker parses inline
+    public IncrementalShapeReader(JsonFactory jsonFactory, StreamingShapeReader shapeReader, ForkJoinPool pool) {
+        this.jsonFactory = jsonFactory;
+        this.shapeReader = shapeReader;
+        this.pool = pool;
+    }
+
+    public synchronized FieldShape read(byte[] json, InferenceContext context) throws IOException {
+        SamplingConfig sampling = context.getSampling();
+        if (sampling.getStrategy() != SamplingStrategy.ALL || sampling.getTimeBudgetMillis() > 0
+            || sampling.getByteBudget() > 0) {
+            previous = new Layout(null);
+            return readSequential(json, context);
+        }
+        FieldShape root = new FieldShape();
+        // Replaced only once the read succeeded
+        Layout layout = new Layout(json);
+        List<Placed> placed = new ArrayList<>();
+        try {
+            int unchanged = unchangedChunks(json);
+            if (unchanged > 0) {
+                long elements = 0;
+                for (int i = 0; i < unchanged; i++) {
+                    elements += takeOver(i, 0, placed);
+                }
+                int resumeAt = (int) previous.ends[unchanged - 1];
+                RecordSplitter splitter = new RecordSplitter(
+                    new ByteArrayInputStream(json, resumeAt, json.length - resumeAt));
+                splitter.resume(resumeAt, elements);
+                readElements(splitter, elements, json, placed, context);
+                fold(placed, root.recordArray(), layout, context);
+            } else {
+                RecordSplitter splitter = new RecordSplitter(new ByteArrayInputStream(json));
+                if (!splitter.start()) {
+                    root.recordNull();
+                    context.recordBytesRead(splitter.getBytesRead());
+                } else if (!splitter.isArray()) {
+                    Chunk document = new Chunk(json.length + 1);
+                    splitter.hasNext();
+                    splitter.next(document.batch);
+                    document.hash = Arrays.hashCode(json);
+                    Part part = previous.chunks.get(document);
+                    if (part == null) {
+                        part = parse(document, false, context.part());
+                    }
+                    layout.chunks.put(document, part);
+                    context.add(part.context);
+                    root.merge(part.shape.copy());
+                    context.recordBytesRead(splitter.getBytesRead());
+                } else {
+                    readElements(splitter, 0, json, placed, context);
+                    fold(placed, root.recordArray(), layout, context);
+                }
+            }
+        } finally {
+            for (Placed chunk : placed) {
+                if (chunk.parsing != null) {
+                    chunk.parsing.cancel(false);
+                }
+            }
+        }
+        layout.bytesRead = context.getBytesRead();
+        previous = layout;
+        return root;
+    }
+
+    private FieldShape readSequential(byte[] json, InferenceContext context) throws IOException {
+        try (JsonParser tokens = jsonFactory.createParser(json)) {
+            tokens.nextToken();
+            FieldShape root = shapeReader.read(tokens, context);
+            context.recordBytesRead(tokens.currentLocation().getByteOffset());
+            return root;
+        }
+    }
+
+    // Leading chunks of the previous array that end before the first changed byte
+    private int unchangedChunks(byte[] json) {
+        if (previous.parts.isEmpty()) {
+            return 0;
+        }
+        int changedAt = Arrays.mismatch(previous.json, json);
+        if (changedAt < 0) {
+            changedAt = json.length;
+        }
+        // A scalar element ends at the byte after it, so that byte must be unchanged too
+        int unchanged = 0;
+        while (unchanged < previous.parts.size() && previous.ends[unchanged] < changedAt) {
+            unchanged++;
+        }
+        return unchanged;
+    }
+
+    // Cuts chunks until a cut lands on a boundary in the previous array's unchanged tail
+    private void readElements(RecordSplitter splitter, long elements, byte[] json, List<Placed> placed,
+                              InferenceContext context) throws IOException {
+        boolean aligning = !previous.parts.isEmpty();
+        long shift = aligning ? json.length - previous.json.length : 0;
+        long tail = aligning ? json.length - unchangedTail(json) : Long.MAX_VALUE;
+        Chunk chunk = new Chunk(MIN_CHUNK_BYTES * 2);
+        while (splitter.hasNext()) {
+            // Polls the cancellation check, as the streaming frames do per element
+            context.isOverBudget(elements++);
+            int start = chunk.batch.getLength();
+            splitter.next(chunk.batch);
+            int elementHash = hash(chunk.batch.getBytes(), start, chunk.batch.getLength());
+            chunk.hash = 31 * chunk.hash + elementHash;
+            if (chunk.batch.getLength() >= MAX_CHUNK_BYTES
+                || (chunk.batch.getLength() >= MIN_CHUNK_BYTES && (elementHash & BOUNDARY_MASK) == 0)) {
+                long end = splitter.getBytesRead();
+                placed.add(place(chunk, end, context));
+                chunk = new Chunk(MIN_CHUNK_BYTES * 2);
+                // From here on the previous read cut the same chunks
+                int aligned = end >= tail
+                    ? Arrays.binarySearch(previous.ends, 0, previous.parts.size(), end - shift)
+                    : -1;
+                if (aligned >= 0) {
+                    for (int i = aligned + 1; i < previous.parts.size(); i++) {
+                        elements += takeOver(i, shift, placed);
+                    }
+                    context.recordSampling(elements, elements);
+                    context.recordBytesRead(previous.bytesRead + shift);
+                    return;
+                }
+            }
+        }
+        if (chunk.batch.getRecords() > 0) {
+            placed.add(place(chunk, splitter.getBytesRead(), context));
+        }
+        context.recordSampling(elements, elements);
+        context.recordBytesRead(splitter.getBytesRead());
+    }
+
+    // Places the previous read's index-th chunk, which now ends shift bytes later; returns its element count
+    private long takeOver(int index, long shift, List<Placed> placed) {
+        Part part = previous.parts.get(index);
+        placed.add(new Placed(part, null, previous.ends[index] + shift));
+        return part.chunk.batch.getRecords();
+    }
+
+    // The kept part when the previous read saw the same bytes, otherwise the chunk is parsed
+    private Placed place(Chunk chunk, long end, InferenceContext context) throws IOException {
+        Part part = previous.chunks.get(chunk);
+        if (part != null) {
+            return new Placed(part, null, end);
+        }
+        if (pool.getParallelism() < 2) {
+            return new Placed(parse(chunk, true, context.part()), null, end);
+        }
+        InferenceContext counts = context.part();
+        return new Placed(null, pool.submit(() -> {
+            try {
+                return parse(chunk, true, counts);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }), end);
+    }
+
+    // Merges copies of the chunk shapes in document order
+    private static void fold(List<Placed> placed, FieldShape elementShape, Layout layout, InferenceContext context)
+        throws IOException {
+        for (Placed chunk : placed) {
+            Part part;
+            try {
+                part = chunk.part != null ? chunk.part : chunk.parsing.join();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            layout.add(part);
+            layout.end(chunk.end);
+            context.add(part.context);
+            elementShape.merge(part.shape.copy());
+        }
+    }
+
+    // Counted on its own context, so reuse reports the same counts
+    private Part parse(Chunk chunk, boolean elements, InferenceContext counts) throws IOException {
+        Part part = new Part(chunk, counts);
+        RecordSplitter.Batch batch = chunk.batch;
+        try (JsonParser tokens = jsonFactory.createParser(batch.getBytes(), 0, batch.getLength())) {
+            if (!elements) {
+                tokens.nextToken();
+                shapeReader.observe(tokens, part.shape, part.context);
+            } else {
+                while (tokens.nextToken() != null) {
+                    shapeReader.observeElement(tokens, part.shape, part.context);
+                }
+            }
+        }
+        return part;
+    }
+
+    // Bytes at the end of json that equal the end of the previous read
+    private int unchangedTail(byte[] json) {
+        byte[] before = previous.json;
+        int max = Math.min(json.length, before.length);
+        int same = 0;
+        while (same + SUFFIX_BLOCK_BYTES <= max && Arrays.equals(
+            json, json.length - same - SUFFIX_BLOCK_BYTES, json.length - same,
+            before, before.length - same - SUFFIX_BLOCK_BYTES, before.length - same)) {
+            same += SUFFIX_BLOCK_BYTES;
+        }
+        while (same < max && json[json.length - same - 1] == before[before.length - same - 1]) {
+            same++;
+        }
+        return same;
+    }
+
+    // Only the ends of an element; chunks with equal hashes are compared in full
+    private static int hash(byte[] bytes, int from, int to) {
+        int hash = to - from;
+        int head = Math.min(to, from + HASHED_BYTES);
+        for (int i = from; i < head; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        for (int i = Math.max(head, to - HASHED_BYTES); i < to; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        // Spreads the low bits the boundary test looks at
+        return hash ^ (hash >>> 16);
+    }
+
+    // Consecutive elements, compared by their bytes
+    private static class Chunk {
+        private final RecordSplitter.Batch batch;
+        private int hash;
+
+        Chunk(int capacity) {
+            this.batch = new RecordSplitter.Batch(capacity);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Chunk)) {
+                return false;
+            }
+            Chunk chunk = (Chunk) other;
+            return hash == chunk.hash && Arrays.equals(batch.getBytes(), 0, batch.getLength(),
+                chunk.batch.getBytes(), 0, chunk.batch.getLength());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    // What observing one chunk produced
+    private static class Part {
+        private final Chunk chunk;
+        private final FieldShape shape = new FieldShape();
+        private final InferenceContext context;
+
+        Part(Chunk chunk, InferenceContext context) {
+            this.chunk = chunk;
+            this.context = context;
+        }
+    }
+
+    // A chunk at its place in the array, parsed or still being parsed
+    private static class Placed {
+        private final Part part;
+        private final ForkJoinTask<Part> parsing;
+        private final long end;
+
+        Placed(Part part, ForkJoinTask<Part> parsing, long end) {
+            this.part = part;
+            this.parsing = parsing;
+            this.end = end;
+        }
+    }
+
+    // One read as the next one sees it: chunks by content and, for an array, in order with the offsets they end at
+    private static class Layout {
+        private final byte[] json;
+        private final Map<Chunk, Part> chunks = new HashMap<>();
+        private final List<Part> parts = new ArrayList<>();
+        private long[] ends = new long[16];
+        private long bytesRead;
+
+        Layout(byte[] json) {
+            this.json = json;
+        }
+
+        void add(Part part) {
+            chunks.put(part.chunk, part);
+            parts.add(part);
+        }
+
+        void end(long offset) {
+            if (parts.size() > ends.length) {
+                ends = Arrays.copyOf(ends, ends.length * 2);
+            }
+            ends[parts.size() - 1] = offset;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.swiftcoder.json2pojo.inference;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * State shared by the readers for one inference run: sampling, deadline, cancellation check and
+ * the counters that end up in the {@link InferenceReport}. Safe to use from parallel readers.
+ */
+public class InferenceContext {
+    private static final int DEADLINE_CHECK_INTERVAL = 256;
+
+    private final SamplingConfig sampling;
+    private final long deadlineNanos;
+    private final Runnable cancellationCheck;
+    private final SymbolTable symbols;
+    private final LongAdder valuesScanned = new LongAdder();
+    private final LongAdder valuesSampled = new LongAdder();
+    private volatile long bytesRead;
+    private volatile int classesCreated;
+    private volatile int fieldsCreated;
+    private volatile boolean outOfTime;
+    private volatile String truncationReason;
+    // Guarded by itself; values are {count, first path}
+    private final Map<InferenceLimits.Limit, Object[]> limitHits = new EnumMap<>(InferenceLimits.Limit.class);
+
+    public InferenceContext(SamplingConfig sampling) {
+        this(sampling, null);
+    }
+
+    public InferenceContext(SamplingConfig sampling, Runnable cancellationCheck) {
+        this(sampling, cancellationCheck, new SymbolTable());
+    }
+
+    public InferenceContext(SamplingConfig sampling, Runnable cancellationCheck, SymbolTable symbols) {
+        this.sampling = sampling;
+        this.cancellationCheck = cancellationCheck;
+        this.symbols = symbols;
+        this.deadlineNanos = sampling.getTimeBudgetMillis() > 0
+            ? System.nanoTime() + sampling.getTimeBudgetMillis() * 1_000_000L
+            : Long.MAX_VALUE;
+    }
+
+    public SamplingConfig getSampling() {
+        return sampling;
+    }
+
+    public SymbolTable getSymbols() {
+        return symbols;
+    }
+
+    public InferenceLimits getLimits() {
+        return sampling.getLimits();
+    }
+
+    // Checks the clock only every few calls; index is the caller's running element count
+    public boolean isOverBudget(long index) {
+        if (outOfTime) {
+            return true;
+        }
+        if (index % DEADLINE_CHECK_INTERVAL != 0) {
+            return false;
+        }
+        if (cancellationCheck != null) {
+            cancellationCheck.run();
+        }
+        if (deadlineNanos != Long.MAX_VALUE && System.nanoTime() > deadlineNanos) {
+            outOfTime = true;
+            truncate("time budget of " + sampling.getTimeBudgetMillis() + " ms exhausted");
+            return true;
+        }
+        return false;
+    }
+
+    // Whether the deadline has passed at the last poll, without polling again
+    public boolean isOutOfTime() {
+        return outOfTime;
+    }
+
+    public void truncate(String reason) {
+        if (truncationReason == null) {
+            truncationReason = reason;
+        }
+    }
+
+    public String getTruncationReason() {
+        return truncationReason;
+    }
+
+    // path locates the dropped value, field or class like the rare-field paths of the report
+    public void recordLimitHit(InferenceLimits.Limit limit, String path) {
+        synchronized (limitHits) {
+            Object[] hit = limitHits.get(limit);
+            if (hit == null) {
+                limitHits.put(limit, new Object[]{1L, path});
+            } else {
+                hit[0] = (Long) hit[0] + 1;
+            }
+        }
+    }
+
+    public List<InferenceReport.LimitHit> getLimitHits() {
+        List<InferenceReport.LimitHit> hits = new ArrayList<>();
+        synchronized (limitHits) {
+            for (Map.Entry<InferenceLimits.Limit, Object[]> entry : limitHits.entrySet()) {
+                InferenceLimits.Limit limit = entry.getKey();
+                hits.add(new InferenceReport.LimitHit(limit, getLimits().get(limit),
+                    (Long) entry.getValue()[0], (String) entry.getValue()[1]));
+            }
+        }
+        return hits;
+    }
+
+    // A context for observing part of the input on its own, so its counts can be kept and added to later runs
+    InferenceContext part() {
+        return new InferenceContext(sampling, cancellationCheck, symbols);
+    }
+
+    // Adds the sampling counts and limit hits of a part(); hits already recorded keep their first path
+    void add(InferenceContext part) {
+        recordSampling(part.getValuesScanned(), part.getValuesSampled());
+        for (InferenceReport.LimitHit hit : part.getLimitHits()) {
+            synchronized (limitHits) {
+                Object[] existing = limitHits.get(hit.getLimit());
+                if (existing == null) {
+                    limitHits.put(hit.getLimit(), new Object[]{hit.getCount(), hit.getFirstPath()});
+                } else {
+                    existing[0] = (Long) existing[0] + hit.getCount();
+                }
+            }
+        }
+    }
+
+    // Input consumed by a reader that does not hand its parser back to the caller
+    public void recordBytesRead(long bytes) {
+        bytesRead = bytes;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    // Size of the schema as built, before canonicalization
+    public void recordCreated(int classes, int fields) {
+        classesCreated = classes;
+        fieldsCreated = fields;
+    }
+
+    public int getClassesCreated() {
+        return classesCreated;
+    }
+
+    public int getFieldsCreated() {
+        return fieldsCreated;
+    }
+
+    // scanned: elements/records encountered; sampled: those actually observed into the schema
+    public void recordSampling(long scanned, long sampled) {
+        valuesScanned.add(scanned);
+        valuesSampled.add(sampled);
+    }
+
+    public long getValuesScanned() {
+        return valuesScanned.sum();
+    }
+
+    public long getValuesSampled() {
+        return valuesSampled.sum();
+    }
+}
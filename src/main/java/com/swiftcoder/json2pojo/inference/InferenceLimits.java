@@ -0,0 +1,85 @@
+package com.swiftcoder.json2pojo.inference;
+
+/**
+ * Structural limits of an inference run. The depth guard is always on; the field and class caps
+ * are unbounded unless a caller opts in, as the IDE actions do.
+ */
+public class InferenceLimits {
+    public static final int DEFAULT_MAX_DEPTH = 64;
+    public static final int INTERACTIVE_MAX_FIELDS = 10_000;
+    public static final int INTERACTIVE_MAX_CLASSES = 1_000;
+
+    private final int maxDepth;
+    private final int maxFields;
+    private final int maxClasses;
+
+    public InferenceLimits(int maxDepth, int maxFields, int maxClasses) {
+        this.maxDepth = maxDepth;
+        this.maxFields = maxFields;
+        this.maxClasses = maxClasses;
+    }
+
+    public static InferenceLimits defaults() {
+        return new InferenceLimits(DEFAULT_MAX_DEPTH, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    // Bounded so a pasted payload cannot build a model too large for the editor
+    public static InferenceLimits interactive() {
+        return new InferenceLimits(DEFAULT_MAX_DEPTH, INTERACTIVE_MAX_FIELDS, INTERACTIVE_MAX_CLASSES);
+    }
+
+    public InferenceLimits withMaxDepth(int maxDepth) {
+        return new InferenceLimits(maxDepth, maxFields, maxClasses);
+    }
+
+    public InferenceLimits withMaxFields(int maxFields) {
+        return new InferenceLimits(maxDepth, maxFields, maxClasses);
+    }
+
+    public InferenceLimits withMaxClasses(int maxClasses) {
+        return new InferenceLimits(maxDepth, maxFields, maxClasses);
+    }
+
+    // Nesting levels of objects and arrays, the root container being the first
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    // Fields across all generated classes
+    public int getMaxFields() {
+        return maxFields;
+    }
+
+    // Generated classes, the root class included
+    public int getMaxClasses() {
+        return maxClasses;
+    }
+
+    public int get(Limit limit) {
+        switch (limit) {
+            case DEPTH:
+                return maxDepth;
+            case FIELDS:
+                return maxFields;
+            default:
+                return maxClasses;
+        }
+    }
+
+    public enum Limit {
+        DEPTH("maximum depth"),
+        FIELDS("maximum field count"),
+        CLASSES("maximum class count");
+
+        private final String description;
+
+        Limit(String description) {
+            this.description = description;
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+}
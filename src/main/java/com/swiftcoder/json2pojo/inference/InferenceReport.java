@@ -0,0 +1,249 @@
+package com.swiftcoder.json2pojo.inference;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What an inference run looked at: elements scanned and sampled, the budget or limits that cut
+ * it short, and rare fields.
+ */
+public class InferenceReport {
+    private final SamplingStrategy strategy;
+    private final long valuesScanned;
+    private final long valuesSampled;
+    private final String truncationReason;
+    private final List<FieldCoverage> rareFields;
+    private final int duplicateClasses;
+    private final List<String> recursiveClasses;
+    private final List<LimitHit> limitHits;
+
+    public InferenceReport(SamplingStrategy strategy, long valuesScanned, long valuesSampled,
+                           String truncationReason, List<FieldCoverage> rareFields,
+                           int duplicateClasses, List<String> recursiveClasses) {
+        this(strategy, valuesScanned, valuesSampled, truncationReason, rareFields, duplicateClasses,
+            recursiveClasses, List.of());
+    }
+
+    public InferenceReport(SamplingStrategy strategy, long valuesScanned, long valuesSampled,
+                           String truncationReason, List<FieldCoverage> rareFields,
+                           int duplicateClasses, List<String> recursiveClasses, List<LimitHit> limitHits) {
+        this.strategy = strategy;
+        this.valuesScanned = valuesScanned;
+        this.valuesSampled = valuesSampled;
+        this.truncationReason = truncationReason;
+        this.rareFields = Collections.unmodifiableList(rareFields);
+        this.duplicateClasses = duplicateClasses;
+        this.recursiveClasses = Collections.unmodifiableList(recursiveClasses);
+        this.limitHits = Collections.unmodifiableList(limitHits);
+    }
+
+    public static InferenceReport from(FieldShape root, InferenceContext context,
+                                       ClassCanonicalizer.Result canonicalization) {
+        List<FieldCoverage> rareFields = new ArrayList<>();
+        collectRareFields(root, context.getSampling().getRareFieldThreshold(), rareFields);
+        return new InferenceReport(context.getSampling().getStrategy(), context.getValuesScanned(),
+            context.getValuesSampled(), context.getTruncationReason(), rareFields,
+            canonicalization.getClassesBefore() - canonicalization.getClassesAfter(),
+            canonicalization.getRecursiveClasses(), context.getLimitHits());
+    }
+
+    // Depth-first in field order, with an explicit stack so the depth of the shapes does not matter
+    private static void collectRareFields(FieldShape root, double threshold, List<FieldCoverage> rareFields) {
+        // {shape, path, observations of the enclosing object or null}
+        Deque<Object[]> pending = new ArrayDeque<>();
+        pending.push(new Object[]{root, "", null});
+        while (!pending.isEmpty()) {
+            Object[] next = pending.pop();
+            FieldShape shape = (FieldShape) next[0];
+            String path = (String) next[1];
+            Integer possible = (Integer) next[2];
+            if (possible != null && shape.getPresent() < possible * threshold) {
+                rareFields.add(new FieldCoverage(path, shape.getPresent(), possible));
+            }
+
+            // Pushed in reverse so they are popped in document order
+            if (shape.getElementShape() != null) {
+                pending.push(new Object[]{shape.getElementShape(), path + "[]", null});
+            }
+            ObjectShape objectShape = shape.getObjectShape();
+            if (objectShape != null && objectShape.isMap()) {
+                pending.push(new Object[]{objectShape.getValueShape(), path + "{}", null});
+            } else if (objectShape != null) {
+                List<Map.Entry<String, FieldShape>> fields = new ArrayList<>(objectShape.getFields().entrySet());
+                for (int i = fields.size() - 1; i >= 0; i--) {
+                    String key = fields.get(i).getKey();
+                    pending.push(new Object[]{fields.get(i).getValue(), path.isEmpty() ? key : path + "." + key,
+                        objectShape.getObservations()});
+                }
+            }
+        }
+    }
+
+    public SamplingStrategy getStrategy() {
+        return strategy;
+    }
+
+    public long getValuesScanned() {
+        return valuesScanned;
+    }
+
+    public long getValuesSampled() {
+        return valuesSampled;
+    }
+
+    public boolean isTruncated() {
+        return truncationReason != null;
+    }
+
+    public String getTruncationReason() {
+        return truncationReason;
+    }
+
+    public List<FieldCoverage> getRareFields() {
+        return rareFields;
+    }
+
+    // Nested classes folded into a structurally identical one (or into a recursive ancestor)
+    public int getDuplicateClasses() {
+        return duplicateClasses;
+    }
+
+    public List<String> getRecursiveClasses() {
+        return recursiveClasses;
+    }
+
+    // Structural limits that dropped part of the schema, in InferenceLimits.Limit order
+    public List<LimitHit> getLimitHits() {
+        return limitHits;
+    }
+
+    public boolean isPartial() {
+        return !limitHits.isEmpty();
+    }
+
+    public boolean isSampled() {
+        return valuesSampled < valuesScanned || isTruncated();
+    }
+
+    // Rule of three: a field absent from every sample occurs in fewer than 3/n of the values (95% confidence)
+    public double getDetectionLimit() {
+        return valuesSampled == 0 ? 1.0 : Math.min(1.0, 3.0 / valuesSampled);
+    }
+
+    // Short human-readable description, empty when nothing was sampled away or rare
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder();
+        if (isSampled()) {
+            summary.append("Inferred from ").append(valuesSampled).append(" of ").append(valuesScanned)
+                .append(" array elements/records (").append(strategy).append(")");
+            if (isTruncated()) {
+                summary.append(", ").append(truncationReason);
+            }
+            summary.append(String.format(". Fields rarer than %.2f%% may be missing.", getDetectionLimit() * 100));
+        }
+        for (LimitHit hit : limitHits) {
+            if (summary.length() > 0) {
+                summary.append("\n");
+            }
+            summary.append("Partial schema: ").append(hit);
+        }
+        if (duplicateClasses > 0) {
+            if (summary.length() > 0) {
+                summary.append("\n");
+            }
+            summary.append("Merged ").append(duplicateClasses).append(" structurally identical class(es)");
+            if (!recursiveClasses.isEmpty()) {
+                summary.append("; recursive: ").append(String.join(", ", recursiveClasses));
+            }
+        }
+        if (!rareFields.isEmpty()) {
+            if (summary.length() > 0) {
+                summary.append("\n");
+            }
+            summary.append("Rarely present fields: ");
+            int shown = Math.min(rareFields.size(), 10);
+            for (int i = 0; i < shown; i++) {
+                summary.append(i == 0 ? "" : ", ").append(rareFields.get(i));
+            }
+            if (rareFields.size() > shown) {
+                summary.append(" and ").append(rareFields.size() - shown).append(" more");
+            }
+        }
+        return summary.toString();
+    }
+
+    public static class FieldCoverage {
+        private final String path;
+        private final long seen;
+        private final long possible;
+
+        public FieldCoverage(String path, long seen, long possible) {
+            this.path = path;
+            this.seen = seen;
+            this.possible = possible;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public long getSeen() {
+            return seen;
+        }
+
+        public long getPossible() {
+            return possible;
+        }
+
+        public double getFraction() {
+            return possible == 0 ? 0 : (double) seen / possible;
+        }
+
+        @Override
+        public String toString() {
+            return path + " (" + seen + "/" + possible + ")";
+        }
+    }
+
+    public static class LimitHit {
+        private final InferenceLimits.Limit limit;
+        private final int maximum;
+        private final long count;
+        private final String firstPath;
+
+        public LimitHit(InferenceLimits.Limit limit, int maximum, long count, String firstPath) {
+            this.limit = limit;
+            this.maximum = maximum;
+            this.count = count;
+            this.firstPath = firstPath;
+        }
+
+        public InferenceLimits.Limit getLimit() {
+            return limit;
+        }
+
+        public int getMaximum() {
+            return maximum;
+        }
+
+        // Values, fields or classes dropped because of the limit
+        public long getCount() {
+            return count;
+        }
+
+        // Where the limit was first hit; empty for the root
+        public String getFirstPath() {
+            return firstPath;
+        }
+
+        @Override
+        public String toString() {
+            return limit + " of " + maximum + " reached at " + (firstPath.isEmpty() ? "the root" : firstPath)
+                + " (" + count + " dropped)";
+        }
+    }
+}
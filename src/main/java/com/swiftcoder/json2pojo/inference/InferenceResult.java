@@ -0,0 +1,33 @@
+package com.swiftcoder.json2pojo.inference;
+
+import com.swiftcoder.json2pojo.metrics.PipelineMetrics;
+import com.swiftcoder.json2pojo.models.JsonClass;
+
+public class InferenceResult {
+    private final JsonClass rootClass;
+    private final InferenceReport report;
+    private final PipelineMetrics metrics;
+
+    public InferenceResult(JsonClass rootClass, InferenceReport report) {
+        this(rootClass, report, PipelineMetrics.EMPTY);
+    }
+
+    public InferenceResult(JsonClass rootClass, InferenceReport report, PipelineMetrics metrics) {
+        this.rootClass = rootClass;
+        this.report = report;
+        this.metrics = metrics;
+    }
+
+    public JsonClass getRootClass() {
+        return rootClass;
+    }
+
+    public InferenceReport getReport() {
+        return report;
+    }
+
+    // Read and inference phases
+    public PipelineMetrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,345 @@
+package com.swiftcoder.json2pojo.inference;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Infers the shape of a newline-delimited JSON (JSON Lines) corpus. The file is memory-mapped,
+ * split on line boundaries into one range per worker, and every range is observed into its
+ * own partial shape; partial shapes are merged back in file order. A range longer than one
+ * mapping, which a very long line can cause, is mapped and read a window at a time. Sampled runs
+ * read the records sequentially instead, stopping as soon as the sample or budget is complete.
+ */
+public class JsonLinesReader {
+    // A single mapping cannot exceed Integer.MAX_VALUE bytes
+    private static final long MAX_RANGE_BYTES = 1L << 30;
+    private static final long DEFAULT_MIN_RANGE_BYTES = 1L << 20;
+    private static final int SCAN_WINDOW_BYTES = 1 << 16;
+
+    private final JsonFactory jsonFactory;
+    private final StreamingShapeReader shapeReader;
+    private final ForkJoinPool pool;
+    private final long minRangeBytes;
+    private final long maxRangeBytes;
+
+    public JsonLinesReader(JsonFactory jsonFactory, StreamingShapeReader shapeReader) {
+        this(jsonFactory, shapeReader, ForkJoinPool.commonPool(), DEFAULT_MIN_RANGE_BYTES);
+    }
+
+    public JsonLinesReader(JsonFactory jsonFactory, StreamingShapeReader shapeReader,
+                           ForkJoinPool pool, long minRangeBytes) {
+        this(jsonFactory, shapeReader, pool, minRangeBytes, MAX_RANGE_BYTES);
+    }
+
+    // maxRangeBytes bounds every mapping and is capped at MAX_RANGE_BYTES
+    public JsonLinesReader(JsonFactory jsonFactory, StreamingShapeReader shapeReader,
+                           ForkJoinPool pool, long minRangeBytes, long maxRangeBytes) {
+        this.jsonFactory = jsonFactory;
+        this.shapeReader = shapeReader;
+        this.pool = pool;
+        this.maxRangeBytes = Math.max(1, Math.min(MAX_RANGE_BYTES, maxRangeBytes));
+        this.minRangeBytes = Math.max(1, Math.min(this.maxRangeBytes, minRangeBytes));
+    }
+
+    public FieldShape read(Path file) throws IOException {
+        return read(file, new InferenceContext(SamplingConfig.all()));
+    }
+
+    // Returns the merged shape of the selected records; every record is observed as one root value
+    public FieldShape read(Path file, InferenceContext context) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long limit = size;
+            long byteBudget = context.getSampling().getByteBudget();
+            if (byteBudget > 0 && byteBudget < size) {
+                limit = nextLineStart(channel, byteBudget, size);
+                if (limit < size) {
+                    context.truncate("byte budget of " + byteBudget + " bytes exhausted");
+                }
+            }
+
+            switch (context.getSampling().getStrategy()) {
+                case FIRST_N:
+                case STRATIFIED:
+                    return readSequential(channel, limit, context);
+                case RESERVOIR:
+                    return readReservoir(channel, limit, context);
+                default:
+                    return readParallel(channel, limit, context);
+            }
+        }
+    }
+
+    private FieldShape readParallel(FileChannel channel, long limit, InferenceContext context) throws IOException {
+        long[] bounds = splitOnNewlines(channel, limit, rangeCount(limit));
+
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        List<ForkJoinTask<FieldShape>> tasks = new ArrayList<>();
+        for (int i = 0; i + 1 < bounds.length; i++) {
+            long start = bounds[i];
+            long length = bounds[i + 1] - start;
+            if (length > 0) {
+                tasks.add(pool.submit(() -> readRange(channel, start, length, context, failure)));
+            }
+        }
+
+        FieldShape merged = new FieldShape();
+        for (ForkJoinTask<FieldShape> task : tasks) {
+            task.quietlyJoin();
+            if (failure.get() != null) {
+                // The channel is closed on return, so the other ranges are waited for; they stop before their next record
+                for (ForkJoinTask<FieldShape> other : tasks) {
+                    other.quietlyJoin();
+                }
+                break;
+            }
+            merged.merge(task.join());
+        }
+        RuntimeException first = failure.get();
+        if (first instanceof UncheckedIOException) {
+            throw ((UncheckedIOException) first).getCause();
+        }
+        if (first != null) {
+            throw first;
+        }
+        return merged;
+    }
+
+    // FIRST_N and STRATIFIED only need a prefix of the file, so one reader walks it in order
+    private FieldShape readSequential(FileChannel channel, long limit, InferenceContext context) throws IOException {
+        SamplingConfig sampling = context.getSampling();
+        Samplers.Strata strata = sampling.getStrategy() == SamplingStrategy.STRATIFIED
+            ? new Samplers.Strata(sampling.getMaxSamples())
+            : null;
+
+        FieldShape shape = new FieldShape();
+        long index = 0;
+        long observed = 0;
+        try (JsonParser tokens = jsonFactory.createParser(
+            new MappedRangeInputStream(channel, 0, limit, maxRangeBytes))) {
+            while (tokens.nextToken() != null) {
+                if ((strata == null && index >= sampling.getMaxSamples()) || context.isOverBudget(index)) {
+                    break;
+                }
+                if (strata == null) {
+                    shapeReader.observe(tokens, shape, context);
+                    observed++;
+                } else {
+                    FieldShape single = new FieldShape();
+                    shapeReader.observe(tokens, single, context);
+                    if (strata.admit(Samplers.shapeKey(single))) {
+                        shape.merge(single);
+                        observed++;
+                    }
+                }
+                index++;
+            }
+        }
+        context.recordSampling(index, observed);
+        return shape;
+    }
+
+    // Picks a uniform sample of line offsets by scanning for newlines only, then parses just those lines
+    private FieldShape readReservoir(FileChannel channel, long limit, InferenceContext context) throws IOException {
+        int capacity = context.getSampling().getMaxSamples();
+        long[] starts = new long[Math.min(capacity, 1024)];
+        long[] ends = new long[starts.length];
+        SplittableRandom random = Samplers.randomFor(context.getSampling(), limit);
+        long index = 0;
+        int kept = 0;
+
+        long lineStart = 0;
+        long regionStart = 0;
+        while (regionStart < limit && !context.isOverBudget(0)) {
+            int length = (int) Math.min(maxRangeBytes, limit - regionStart);
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, regionStart, length);
+            for (int i = 0; i <= length; i++) {
+                long position = regionStart + i;
+                boolean lineEnd = i < length ? region.get(i) == '\n' : position == limit;
+                if (!lineEnd) {
+                    continue;
+                }
+                if (position > lineStart) {
+                    if (context.isOverBudget(index + 1)) {
+                        break;
+                    }
+                    long slot = index < capacity ? index : random.nextLong(index + 1);
+                    if (slot < capacity) {
+                        if (slot >= starts.length) {
+                            int grown = (int) Math.min(capacity, (long) starts.length * 2);
+                            starts = Arrays.copyOf(starts, grown);
+                            ends = Arrays.copyOf(ends, grown);
+                        }
+                        starts[(int) slot] = lineStart;
+                        ends[(int) slot] = position;
+                        kept = (int) Math.max(kept, slot + 1);
+                    }
+                    index++;
+                }
+                lineStart = position + 1;
+            }
+            regionStart += length;
+        }
+
+        long[][] lines = new long[kept][];
+        for (int i = 0; i < kept; i++) {
+            lines[i] = new long[]{starts[i], ends[i]};
+        }
+        Arrays.sort(lines, (a, b) -> Long.compare(a[0], b[0]));
+
+        FieldShape shape = new FieldShape();
+        MappedByteBuffer region = null;
+        long mappedStart = 0;
+        byte[] line = new byte[256];
+        for (long[] bounds : lines) {
+            if (bounds[1] - bounds[0] > maxRangeBytes) {
+                // Longer than one mapping, so read through windows rather than copied out
+                try (JsonParser tokens = jsonFactory.createParser(
+                    new MappedRangeInputStream(channel, bounds[0], bounds[1], maxRangeBytes))) {
+                    if (tokens.nextToken() != null) {
+                        shapeReader.observe(tokens, shape, context);
+                    }
+                }
+                continue;
+            }
+            int length = (int) (bounds[1] - bounds[0]);
+            if (region == null || bounds[1] > mappedStart + region.capacity()) {
+                mappedStart = bounds[0];
+                region = channel.map(FileChannel.MapMode.READ_ONLY, mappedStart, Math.min(maxRangeBytes, limit - mappedStart));
+            }
+            if (line.length < length) {
+                line = new byte[Math.max(length, line.length * 2)];
+            }
+            region.get((int) (bounds[0] - mappedStart), line, 0, length);
+            try (JsonParser tokens = jsonFactory.createParser(line, 0, length)) {
+                if (tokens.nextToken() != null) {
+                    shapeReader.observe(tokens, shape, context);
+                }
+            }
+        }
+        context.recordSampling(index, kept);
+        return shape;
+    }
+
+    private int rangeCount(long size) {
+        long bySize = (size + maxRangeBytes - 1) / maxRangeBytes;
+        long byWorkers = Math.min(pool.getParallelism(), Math.max(1, size / minRangeBytes));
+        return (int) Math.max(1, Math.max(bySize, byWorkers));
+    }
+
+    private long[] splitOnNewlines(FileChannel channel, long size, int rangeCount) throws IOException {
+        long[] bounds = new long[rangeCount + 1];
+        bounds[rangeCount] = size;
+        for (int i = 1; i < rangeCount; i++) {
+            long nominal = size / rangeCount * i;
+            bounds[i] = Math.max(bounds[i - 1], nextLineStart(channel, nominal, size));
+        }
+        return bounds;
+    }
+
+    // Offset of the first line starting at or after position
+    private long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        if (position <= 0) {
+            return 0;
+        }
+        long offset = position - 1;
+        while (offset < size) {
+            int length = (int) Math.min(SCAN_WINDOW_BYTES, size - offset);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            for (int i = 0; i < length; i++) {
+                if (window.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += length;
+        }
+        return size;
+    }
+
+    // The first range to fail records its cause in failure; the others stop at their next record, or before starting
+    private FieldShape readRange(FileChannel channel, long start, long length, InferenceContext context,
+                                 AtomicReference<RuntimeException> failure) {
+        try {
+            FieldShape partial = new FieldShape();
+            long records = 0;
+            // Records are root-level values separated by newlines, which Jackson reads back to back
+            try (JsonParser tokens = jsonFactory.createParser(
+                new MappedRangeInputStream(channel, start, start + length, maxRangeBytes))) {
+                while (failure.get() == null && tokens.nextToken() != null && !context.isOverBudget(records)) {
+                    shapeReader.observe(tokens, partial, context);
+                    records++;
+                }
+            }
+            context.recordSampling(records, records);
+            return partial;
+        } catch (IOException e) {
+            UncheckedIOException wrapped = new UncheckedIOException("Error reading JSON Lines at offset " + start, e);
+            failure.compareAndSet(null, wrapped);
+            throw wrapped;
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+            throw e;
+        }
+    }
+
+    // Maps start..end a window at a time, so a range may be longer than a single mapping allows
+    private static class MappedRangeInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long end;
+        private final long windowBytes;
+        private long next;
+        private MappedByteBuffer window;
+
+        MappedRangeInputStream(FileChannel channel, long start, long end, long windowBytes) {
+            this.channel = channel;
+            this.next = start;
+            this.end = end;
+            this.windowBytes = windowBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return fill() ? window.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int count = Math.min(length, window.remaining());
+            window.get(bytes, offset, count);
+            return count;
+        }
+
+        private boolean fill() throws IOException {
+            while (window == null || !window.hasRemaining()) {
+                if (next >= end) {
+                    return false;
+                }
+                int length = (int) Math.min(windowBytes, end - next);
+                window = channel.map(FileChannel.MapMode.READ_ONLY, next, length);
+                next += length;
+            }
+            return true;
+        }
+    }
+}
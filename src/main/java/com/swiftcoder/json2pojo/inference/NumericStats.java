@@ -0,0 +1,125 @@
+package com.swiftcoder.json2pojo.inference;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Range, integrality, precision and scale of every number observed under one field. Like
+ * {@link FieldShape} it is mergeable, so parallel partial results combine exactly.
+ */
+public class NumericStats {
+    // Decimal digits a float/double round-trips exactly
+    private static final int FLOAT_DIGITS = 6;
+    private static final int DOUBLE_DIGITS = 15;
+
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+    private boolean beyondLong;
+    private boolean fractional;
+    private int maxPrecision;
+    private int maxScale;
+    private double maxMagnitude;
+    private double minMagnitude = Double.MAX_VALUE;
+
+    public void recordInteger(long value) {
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        maxPrecision = Math.max(maxPrecision, digits(value));
+    }
+
+    public void recordBigInteger(BigInteger value) {
+        beyondLong = true;
+        maxPrecision = Math.max(maxPrecision, value.abs().toString().length());
+    }
+
+    // Scale is taken from the literal, so 10.50 counts as two decimal places
+    public void recordDecimal(BigDecimal value) {
+        fractional = true;
+        maxPrecision = Math.max(maxPrecision, value.precision());
+        maxScale = Math.max(maxScale, value.scale());
+        double magnitude = Math.abs(value.doubleValue());
+        maxMagnitude = Math.max(maxMagnitude, magnitude);
+        if (magnitude != 0) {
+            minMagnitude = Math.min(minMagnitude, magnitude);
+        }
+    }
+
+    public void merge(NumericStats other) {
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        beyondLong |= other.beyondLong;
+        fractional |= other.fractional;
+        maxPrecision = Math.max(maxPrecision, other.maxPrecision);
+        maxScale = Math.max(maxScale, other.maxScale);
+        maxMagnitude = Math.max(maxMagnitude, other.maxMagnitude);
+        minMagnitude = Math.min(minMagnitude, other.minMagnitude);
+    }
+
+    public long getMin() {
+        return min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public boolean isIntegral() {
+        return !fractional;
+    }
+
+    public int getMaxPrecision() {
+        return maxPrecision;
+    }
+
+    public int getMaxScale() {
+        return maxScale;
+    }
+
+    // Exactly two decimal places somewhere and never more, e.g. 9.99 and 10.5
+    public boolean isMoneyLike() {
+        return fractional && maxScale == 2;
+    }
+
+    /**
+     * The narrowest boxed type that holds every observed value without loss: Byte, Short,
+     * Integer, Long or BigInteger for integral values; Float, Double or BigDecimal otherwise.
+     */
+    public String getNarrowestType() {
+        if (!fractional) {
+            if (beyondLong) {
+                return "BigInteger";
+            }
+            if (min >= Byte.MIN_VALUE && max <= Byte.MAX_VALUE) {
+                return "Byte";
+            }
+            if (min >= Short.MIN_VALUE && max <= Short.MAX_VALUE) {
+                return "Short";
+            }
+            if (min >= Integer.MIN_VALUE && max <= Integer.MAX_VALUE) {
+                return "Integer";
+            }
+            return "Long";
+        }
+        if (beyondLong || isMoneyLike() || maxPrecision > DOUBLE_DIGITS) {
+            return "BigDecimal";
+        }
+        if (maxPrecision <= FLOAT_DIGITS && maxMagnitude <= Float.MAX_VALUE
+                && (minMagnitude == Double.MAX_VALUE || minMagnitude >= Float.MIN_NORMAL)) {
+            return "Float";
+        }
+        return "Double";
+    }
+
+    private static int digits(long value) {
+        if (value == Long.MIN_VALUE) {
+            return 19;
+        }
+        long abs = Math.abs(value);
+        int digits = 1;
+        while (abs >= 10) {
+            abs /= 10;
+            digits++;
+        }
+        return digits;
+    }
+}
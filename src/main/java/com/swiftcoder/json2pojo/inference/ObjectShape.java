@@ -0,0 +1,220 @@
+package com.swiftcoder.json2pojo.inference;
+
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Accumulated shape of every JSON object observed at one position of the document.
+ * Fields keep the order in which they were first seen; objects keyed by data (IDs, dates)
+ * are collapsed into a map.
+ */
+public class ObjectShape {
+    // Fewest keys for which a map is considered at all
+    private static final int MIN_MAP_KEYS = 2;
+    // Past this many keys collapsing is checked while observing, at every power of two
+    private static final int ONLINE_CHECK_KEYS = 16;
+
+    private Map<String, FieldShape> fields = new LinkedHashMap<>();
+    // Non-null once collapsed into a map
+    private FieldShape valueShape;
+    private int observations;
+
+    public int getObservations() {
+        return observations;
+    }
+
+    // Empty once collapsed into a map
+    public Map<String, FieldShape> getFields() {
+        return fields;
+    }
+
+    public boolean isMap() {
+        return valueShape != null;
+    }
+
+    // Shape of every value of a map, or null while this is an object with fields
+    public FieldShape getValueShape() {
+        return valueShape;
+    }
+
+    public void recordObservation() {
+        observations++;
+    }
+
+    public FieldShape field(String name) {
+        if (valueShape != null) {
+            return valueShape;
+        }
+        FieldShape field = fields.get(name);
+        if (field == null) {
+            field = new FieldShape();
+            fields.put(name, field);
+            int size = fields.size();
+            if (size >= ONLINE_CHECK_KEYS && (size & (size - 1)) == 0 && collapseIfMapLike()) {
+                return valueShape;
+            }
+        }
+        return field;
+    }
+
+    // Folds other into this shape; other must not be used afterwards
+    public void merge(ObjectShape other) {
+        observations += other.observations;
+        if (valueShape != null || other.valueShape != null) {
+            if (valueShape == null) {
+                collapse();
+            }
+            if (other.valueShape != null) {
+                valueShape.merge(other.valueShape);
+            }
+            for (FieldShape field : other.fields.values()) {
+                valueShape.merge(field);
+            }
+            return;
+        }
+
+        for (Map.Entry<String, FieldShape> entry : other.fields.entrySet()) {
+            FieldShape existing = fields.get(entry.getKey());
+            if (existing == null) {
+                fields.put(entry.getKey(), entry.getValue());
+            } else {
+                existing.merge(entry.getValue());
+            }
+        }
+        // Partial results may only cross the threshold once combined
+        if (fields.size() >= ONLINE_CHECK_KEYS) {
+            collapseIfMapLike();
+        }
+    }
+
+    // For FieldShape.copy(): same keys with empty shapes, each queued with the shape it is to copy
+    ObjectShape copyOutline(Deque<FieldShape[]> pending) {
+        ObjectShape copy = new ObjectShape();
+        copy.observations = observations;
+        if (valueShape != null) {
+            copy.valueShape = new FieldShape();
+            pending.push(new FieldShape[]{valueShape, copy.valueShape});
+        }
+        for (Map.Entry<String, FieldShape> field : fields.entrySet()) {
+            FieldShape target = new FieldShape();
+            copy.fields.put(field.getKey(), target);
+            pending.push(new FieldShape[]{field.getValue(), target});
+        }
+        return copy;
+    }
+
+    // Turns this shape into a map if its keys look like data and its values share one shape
+    public boolean collapseIfMapLike() {
+        if (valueShape == null && looksLikeMap()) {
+            collapse();
+        }
+        return valueShape != null;
+    }
+
+    private boolean looksLikeMap() {
+        if (fields.size() < MIN_MAP_KEYS || !hasUniformValues()) {
+            return false;
+        }
+        int dynamicKeys = 0;
+        for (String key : fields.keySet()) {
+            if (isDynamicKey(key)) {
+                dynamicKeys++;
+            }
+        }
+        // A few hand-named keys (e.g. "total") may sit among the generated ones once there are many
+        return fields.size() < ONLINE_CHECK_KEYS ? dynamicKeys == fields.size() : dynamicKeys * 10 >= fields.size() * 9;
+    }
+
+    // Every value is of one kind (ignoring nulls); all numbers count as one kind, objects only
+    // when their fields largely agree
+    private boolean hasUniformValues() {
+        int numericKinds = FieldShape.INT | FieldShape.LONG | FieldShape.BIG_INTEGER | FieldShape.DOUBLE;
+        int common = 0;
+        ObjectShape firstObject = null;
+        for (FieldShape field : fields.values()) {
+            int kinds = field.getValueKinds();
+            if ((kinds & ~numericKinds) == 0 && kinds != 0) {
+                kinds = numericKinds;
+            }
+            if (kinds == 0) {
+                continue;
+            }
+            if (common != 0 && common != kinds) {
+                return false;
+            }
+            common = kinds;
+            if (kinds == FieldShape.OBJECT) {
+                if (firstObject == null) {
+                    firstObject = field.getObjectShape();
+                } else if (!hasSimilarFields(firstObject, field.getObjectShape())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // At least half of the field names of both are shared, so optional fields still match
+    private static boolean hasSimilarFields(ObjectShape a, ObjectShape b) {
+        if (a.isMap() || b.isMap()) {
+            return a.isMap() && b.isMap();
+        }
+        int shared = 0;
+        for (String name : a.fields.keySet()) {
+            if (b.fields.containsKey(name)) {
+                shared++;
+            }
+        }
+        int union = a.fields.size() + b.fields.size() - shared;
+        return shared * 2 >= union;
+    }
+
+    // IDs, dates, hashes and prefixed counters such as u_1001 or ORD-0042
+    static boolean isDynamicKey(String key) {
+        if (key.isEmpty()) {
+            return false;
+        }
+        // Not a Java identifier, so never meant as a field name
+        if (Character.isDigit(key.charAt(0))) {
+            return true;
+        }
+        if (key.length() >= 16 && isHexOrDash(key)) {
+            return true;
+        }
+        int letters = 0;
+        while (letters < key.length() && Character.isLetter(key.charAt(letters))) {
+            letters++;
+        }
+        int digitsStart = letters;
+        if (digitsStart < key.length() && "_-:.".indexOf(key.charAt(digitsStart)) >= 0) {
+            digitsStart++;
+        }
+        int digits = 0;
+        while (digitsStart + digits < key.length() && Character.isDigit(key.charAt(digitsStart + digits))) {
+            digits++;
+        }
+        return letters <= 4 && digits >= 3 && digitsStart + digits == key.length();
+    }
+
+    private static boolean isHexOrDash(String key) {
+        boolean hasDigit = false;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (Character.isDigit(c)) {
+                hasDigit = true;
+            } else if (c != '-' && (Character.toLowerCase(c) < 'a' || Character.toLowerCase(c) > 'f')) {
+                return false;
+            }
+        }
+        return hasDigit;
+    }
+
+    private void collapse() {
+        valueShape = new FieldShape();
+        for (FieldShape field : fields.values()) {
+            valueShape.merge(field);
+        }
+        fields = new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,261 @@
+package com.swiftcoder.json2pojo.inference;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Infers a JSON document in overlapping stages: the calling thread cuts a top-level array into
+ * batches, pool workers observe them, and their shapes are folded back in document order.
+ * Samples the same elements as {@link StreamingShapeReader}.
+ */
+public class PipelinedShapeReader {
+    private static final int DEFAULT_BATCH_BYTES = 1 << 18;
+    // Batches queued or being observed per worker; also what the reader may get ahead by
+    private static final int BATCHES_AHEAD_PER_WORKER = 2;
+
+    private final JsonFactory jsonFactory;
+    private final StreamingShapeReader shapeReader;
+    private final ForkJoinPool pool;
+    private final int batchBytes;
+
+    public PipelinedShapeReader(JsonFactory jsonFactory, StreamingShapeReader shapeReader) {
+        this(jsonFactory, shapeReader, ForkJoinPool.commonPool(), DEFAULT_BATCH_BYTES);
+    }
+
+    public PipelinedShapeReader(JsonFactory jsonFactory, StreamingShapeReader shapeReader, ForkJoinPool pool,
+                                int batchBytes) {
+        this.jsonFactory = jsonFactory;
+        this.shapeReader = shapeReader;
+        this.pool = pool;
+        this.batchBytes = Math.max(1, batchBytes);
+    }
+
+    public FieldShape read(InputStream input, InferenceContext context) throws IOException {
+        if (pool.getParallelism() < 2) {
+            return readSequential(input, context);
+        }
+        RecordSplitter splitter = new RecordSplitter(input);
+        FieldShape root = new FieldShape();
+        if (!splitter.start()) {
+            // Same as a token stream that ends before any value
+            root.recordNull();
+        } else if (!splitter.isArray()) {
+            RecordSplitter.Batch document = new RecordSplitter.Batch(batchBytes);
+            splitter.hasNext();
+            splitter.next(document);
+            observe(document, root, false, context);
+        } else {
+            readElements(splitter, root.recordArray(), context);
+        }
+        context.recordBytesRead(splitter.getBytesRead());
+        return root;
+    }
+
+    // A single worker has nothing to overlap with, so scanning and copying batches would only add work
+    private FieldShape readSequential(InputStream input, InferenceContext context) throws IOException {
+        try (JsonParser tokens = jsonFactory.createParser(input)) {
+            tokens.nextToken();
+            FieldShape root = shapeReader.read(tokens, context);
+            context.recordBytesRead(tokens.currentLocation().getByteOffset());
+            return root;
+        }
+    }
+
+    private void readElements(RecordSplitter splitter, FieldShape elementShape, InferenceContext context)
+        throws IOException {
+        Sampler sampler = new Sampler(elementShape, context);
+        int window = Math.max(1, pool.getParallelism() * BATCHES_AHEAD_PER_WORKER);
+        Deque<ForkJoinTask<Observed>> observing = new ArrayDeque<>(window);
+        try {
+            RecordSplitter.Batch batch = new RecordSplitter.Batch(batchBytes);
+            while (splitter.hasNext()) {
+                sampler.next(splitter, batch);
+                if (batch.getLength() >= batchBytes) {
+                    submit(batch, sampler.perRecord, context, observing);
+                    batch = new RecordSplitter.Batch(batchBytes);
+                    // Backpressure: the reader waits for the oldest batch once the window is full
+                    if (observing.size() >= window) {
+                        sampler.fold(observing.poll().join());
+                    }
+                }
+            }
+            if (batch.getRecords() > 0) {
+                submit(batch, sampler.perRecord, context, observing);
+            }
+            while (!observing.isEmpty()) {
+                sampler.fold(observing.poll().join());
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            for (ForkJoinTask<Observed> task : observing) {
+                task.cancel(false);
+            }
+        }
+        sampler.finish();
+    }
+
+    private void submit(RecordSplitter.Batch batch, boolean perRecord, InferenceContext context,
+                        Deque<ForkJoinTask<Observed>> observing) {
+        observing.add(pool.submit(() -> observeBatch(batch, perRecord, context)));
+    }
+
+    // Runs on a pool worker
+    private Observed observeBatch(RecordSplitter.Batch batch, boolean perRecord, InferenceContext context) {
+        try {
+            if (!perRecord) {
+                FieldShape shape = new FieldShape();
+                observe(batch, shape, true, context);
+                return new Observed(batch, new FieldShape[]{shape});
+            }
+            FieldShape[] shapes = new FieldShape[batch.getRecords()];
+            try (JsonParser tokens = jsonFactory.createParser(batch.getBytes(), 0, batch.getLength())) {
+                for (int i = 0; i < shapes.length; i++) {
+                    tokens.nextToken();
+                    shapes[i] = new FieldShape();
+                    shapeReader.observeElement(tokens, shapes[i], context);
+                }
+            }
+            return new Observed(batch, shapes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void observe(RecordSplitter.Batch batch, FieldShape shape, boolean elements, InferenceContext context)
+        throws IOException {
+        try (JsonParser tokens = jsonFactory.createParser(batch.getBytes(), 0, batch.getLength())) {
+            if (!elements) {
+                tokens.nextToken();
+                shapeReader.observe(tokens, shape, context);
+                return;
+            }
+            while (tokens.nextToken() != null) {
+                shapeReader.observeElement(tokens, shape, context);
+            }
+        }
+    }
+
+    private static class Observed {
+        private final RecordSplitter.Batch batch;
+        // One shape for the whole batch, or one per record when sampling needs them apart
+        private final FieldShape[] shapes;
+
+        Observed(RecordSplitter.Batch batch, FieldShape[] shapes) {
+            this.batch = batch;
+            this.shapes = shapes;
+        }
+    }
+
+    // Decides which elements are parsed, then folds what the workers observed into the element shape
+    private static class Sampler {
+        private final FieldShape elementShape;
+        private final InferenceContext context;
+        private final SamplingStrategy strategy;
+        private final int maxSamples;
+        private final boolean perRecord;
+        private final SplittableRandom random;
+        private final Samplers.Strata strata;
+        private FieldShape[] reservoir;
+        private long[] positions;
+        private int kept;
+        private long index;
+        private long observed;
+
+        Sampler(FieldShape elementShape, InferenceContext context) {
+            this.elementShape = elementShape;
+            this.context = context;
+            this.strategy = context.getSampling().getStrategy();
+            this.maxSamples = context.getSampling().getMaxSamples();
+            this.perRecord = strategy == SamplingStrategy.RESERVOIR || strategy == SamplingStrategy.STRATIFIED;
+            this.random = strategy == SamplingStrategy.RESERVOIR ? Samplers.randomFor(context.getSampling(), 0) : null;
+            this.strata = strategy == SamplingStrategy.STRATIFIED ? new Samplers.Strata(maxSamples) : null;
+            if (strategy == SamplingStrategy.RESERVOIR) {
+                this.reservoir = new FieldShape[Math.min(maxSamples, 64)];
+                this.positions = new long[reservoir.length];
+            }
+        }
+
+        // Scans the next element, adding it to batch if it is sampled; same choices as the streaming frames
+        void next(RecordSplitter splitter, RecordSplitter.Batch batch) throws IOException {
+            boolean overBudget = context.isOverBudget(index);
+            boolean sampled;
+            if (strategy == SamplingStrategy.RESERVOIR) {
+                int slot = index < maxSamples ? (int) index : random.nextInt((int) index + 1);
+                sampled = slot < maxSamples && !overBudget;
+                if (sampled) {
+                    batch.drawn(index, slot);
+                }
+            } else if (strategy == SamplingStrategy.STRATIFIED) {
+                sampled = !overBudget;
+            } else {
+                sampled = index < maxSamples && !overBudget;
+            }
+            splitter.next(sampled ? batch : null);
+            index++;
+            // Reservoir and stratified samples are only counted once folded
+            if (sampled && !perRecord) {
+                observed++;
+            }
+        }
+
+        // Called in batch order, so replacements and quotas resolve as they would in one pass
+        void fold(Observed result) {
+            if (strategy == SamplingStrategy.RESERVOIR) {
+                for (int i = 0; i < result.shapes.length; i++) {
+                    keep(result.batch.getSlot(i), result.batch.getPosition(i), result.shapes[i]);
+                }
+            } else if (strategy == SamplingStrategy.STRATIFIED) {
+                for (FieldShape shape : result.shapes) {
+                    if (strata.admit(Samplers.shapeKey(shape))) {
+                        elementShape.merge(shape);
+                        observed++;
+                    }
+                }
+            } else {
+                elementShape.merge(result.shapes[0]);
+            }
+        }
+
+        void finish() {
+            if (strategy == SamplingStrategy.RESERVOIR) {
+                // Slots skipped because the budget ran out stay empty
+                Integer[] order = new Integer[kept];
+                int sampled = 0;
+                for (int i = 0; i < kept; i++) {
+                    if (reservoir[i] != null) {
+                        order[sampled++] = i;
+                    }
+                }
+                final long[] keptPositions = positions;
+                Arrays.sort(order, 0, sampled, (a, b) -> Long.compare(keptPositions[a], keptPositions[b]));
+                for (int i = 0; i < sampled; i++) {
+                    elementShape.merge(reservoir[order[i]]);
+                }
+                observed = sampled;
+            }
+            context.recordSampling(index, observed);
+        }
+
+        private void keep(int slot, long position, FieldShape shape) {
+            if (slot >= reservoir.length) {
+                int grown = (int) Math.min(maxSamples, Math.max((long) reservoir.length * 2, slot + 1L));
+                reservoir = Arrays.copyOf(reservoir, grown);
+                positions = Arrays.copyOf(positions, grown);
+            }
+            reservoir[slot] = shape;
+            positions[slot] = position;
+            kept = Math.max(kept, slot + 1);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.swiftcoder.json2pojo.inference;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Cuts a JSON document into its top-level records without parsing them, tracking only strings,
+ * escapes and bracket depth on the raw bytes.
+ */
+class RecordSplitter {
+    private static final int CHUNK_BYTES = 1 << 16;
+
+    private final InputStream input;
+    private final byte[] chunk = new byte[CHUNK_BYTES];
+    private int position;
+    private int limit;
+    // Bytes consumed before chunk[0]
+    private long offset;
+    private boolean array;
+    private boolean finished;
+    // Array elements seen so far, to check the commas between them
+    private long elements;
+    // Whether hasNext() stopped at an element that next() has not scanned yet
+    private boolean pending;
+
+    RecordSplitter(InputStream input) {
+        this.input = input;
+    }
+
+    // Reads up to the top-level value; false for empty input
+    boolean start() throws IOException {
+        int first = skipWhitespace();
+        if (first < 0) {
+            finished = true;
+            return false;
+        }
+        array = first == '[';
+        if (array) {
+            position++;
+        }
+        return true;
+    }
+
+    // Instead of start(): continues a top-level array right after the element ending at offset, the input
+    // being the rest of the document from there on
+    void resume(long offset, long elements) {
+        this.offset = offset;
+        this.array = true;
+        this.elements = elements;
+    }
+
+    boolean isArray() {
+        return array;
+    }
+
+    long getBytesRead() {
+        return offset + position;
+    }
+
+    // Moves past the separator to the next record; false at the end
+    boolean hasNext() throws IOException {
+        if (finished) {
+            return false;
+        }
+        if (!array) {
+            return true;
+        }
+        int next = skipWhitespace();
+        if (next < 0) {
+            throw malformed("Unexpected end of input in the top-level array");
+        }
+        if (next == ',' && !pending) {
+            if (elements == 0) {
+                throw malformed("Expected an array element");
+            }
+            position++;
+            next = skipWhitespace();
+            if (next < 0 || next == ',' || next == ']') {
+                throw malformed("Expected an array element");
+            }
+        } else if (elements > 0 && !pending && next != ']') {
+            throw malformed("Expected ',' or ']' after an array element");
+        }
+        if (next == '}') {
+            throw malformed("Unexpected '}'");
+        }
+        if (next == ']') {
+            position++;
+            finished = true;
+            return false;
+        }
+        pending = true;
+        return true;
+    }
+
+    // Scans the record hasNext() found and appends it to batch, or skips it when batch is null
+    void next(Batch batch) throws IOException {
+        if (!array) {
+            // The only record; whatever follows it is left to the parser, as on the sequential path
+            finished = true;
+            copyRest(batch);
+            return;
+        }
+        scanElement(batch);
+        pending = false;
+        elements++;
+    }
+
+    // One value at depth zero: a container ends at its closing bracket, a scalar before the next separator
+    private void scanElement(Batch batch) throws IOException {
+        int depth = 0;
+        boolean inString = false;
+        boolean escaped = false;
+        int start = position;
+        while (true) {
+            if (position == limit) {
+                if (batch != null) {
+                    batch.append(chunk, start, position - start);
+                }
+                if (!fill()) {
+                    if (depth > 0 || inString) {
+                        throw malformed("Unexpected end of input in an array element");
+                    }
+                    break;
+                }
+                start = position;
+            }
+            byte c = chunk[position];
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                    if (depth == 0) {
+                        position++;
+                        break;
+                    }
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                if (depth == 0) {
+                    break;
+                }
+                if (--depth == 0) {
+                    position++;
+                    break;
+                }
+            } else if (depth == 0 && (c == ',' || isWhitespace(c))) {
+                break;
+            }
+            position++;
+        }
+        if (batch != null) {
+            batch.append(chunk, start, position - start);
+            batch.endRecord();
+        }
+    }
+
+    private void copyRest(Batch batch) throws IOException {
+        do {
+            batch.append(chunk, position, limit - position);
+            position = limit;
+        } while (fill());
+        batch.endRecord();
+    }
+
+    // The next non-whitespace byte without consuming it, or -1 at the end of input
+    private int skipWhitespace() throws IOException {
+        while (true) {
+            while (position < limit) {
+                byte c = chunk[position];
+                if (!isWhitespace(c)) {
+                    return c & 0xFF;
+                }
+                position++;
+            }
+            if (!fill()) {
+                return -1;
+            }
+        }
+    }
+
+    private boolean fill() throws IOException {
+        offset += limit;
+        position = 0;
+        limit = 0;
+        int read = input.read(chunk, 0, chunk.length);
+        while (read == 0) {
+            read = input.read(chunk, 0, chunk.length);
+        }
+        if (read < 0) {
+            return false;
+        }
+        limit = read;
+        return true;
+    }
+
+    private IOException malformed(String message) {
+        return new IOException(message + " at byte " + getBytesRead());
+    }
+
+    private static boolean isWhitespace(byte c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    // Records laid out one per line, so a parser reads them back to back as root-level values
+    static class Batch {
+        private byte[] bytes;
+        private int length;
+        private int records;
+        // Reservoir sampling only: each record's element index and the slot it was drawn for
+        private long[] positions;
+        private int[] slots;
+
+        Batch(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        byte[] getBytes() {
+            return bytes;
+        }
+
+        int getLength() {
+            return length;
+        }
+
+        int getRecords() {
+            return records;
+        }
+
+        long getPosition(int record) {
+            return positions[record];
+        }
+
+        int getSlot(int record) {
+            return slots[record];
+        }
+
+        void drawn(long position, int slot) {
+            if (positions == null) {
+                positions = new long[16];
+                slots = new int[16];
+            } else if (records == positions.length) {
+                positions = Arrays.copyOf(positions, records * 2);
+                slots = Arrays.copyOf(slots, records * 2);
+            }
+            positions[records] = position;
+            slots[records] = slot;
+        }
+
+        private void append(byte[] source, int from, int count) {
+            if (length + count + 1 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + count + 1));
+            }
+            System.arraycopy(source, from, bytes, length, count);
+            length += count;
+        }
+
+        private void endRecord() {
+            bytes[length++] = '\n';
+            records++;
+        }
+    }
+}
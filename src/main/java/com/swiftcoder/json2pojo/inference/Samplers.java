@@ -0,0 +1,93 @@
+package com.swiftcoder.json2pojo.inference;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// Selection helpers shared by the tree, streaming and JSON Lines readers
+final class Samplers {
+
+    private Samplers() {
+    }
+
+    // Sorted indices of a uniform sample of k out of size positions (Algorithm R over indices)
+    static int[] reservoirIndices(int size, int k, SplittableRandom random) {
+        if (size <= k) {
+            int[] all = new int[size];
+            for (int i = 0; i < size; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        int[] reservoir = new int[k];
+        for (int i = 0; i < k; i++) {
+            reservoir[i] = i;
+        }
+        for (int i = k; i < size; i++) {
+            int j = random.nextInt(i + 1);
+            if (j < k) {
+                reservoir[j] = i;
+            }
+        }
+        Arrays.sort(reservoir);
+        return reservoir;
+    }
+
+    // Seeded per array size so the same input always yields the same sample
+    static SplittableRandom randomFor(SamplingConfig sampling, long size) {
+        return new SplittableRandom(sampling.getSeed() ^ (size * 0x9E3779B97F4A7C15L));
+    }
+
+    // Key of a single observed value: its kind plus, for objects, the names and kinds of its fields
+    static long shapeKey(FieldShape single) {
+        long key = single.getKinds();
+        ObjectShape objectShape = single.getObjectShape();
+        if (objectShape != null && objectShape.isMap()) {
+            // Keys are data, so only the shape of the values counts
+            key = key * 31 + shapeKey(objectShape.getValueShape());
+        } else if (objectShape != null) {
+            for (Map.Entry<String, FieldShape> field : objectShape.getFields().entrySet()) {
+                key = key * 31 + field.getKey().hashCode();
+                key = key * 31 + field.getValue().getKinds();
+            }
+        }
+        return key;
+    }
+
+    static long shapeKey(JsonNode value) {
+        if (!value.isObject()) {
+            return value.getNodeType().ordinal();
+        }
+        long key = FieldShape.OBJECT;
+        Iterator<Map.Entry<String, JsonNode>> fields = value.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            key = key * 31 + field.getKey().hashCode();
+            key = key * 31 + field.getValue().getNodeType().ordinal();
+        }
+        return key;
+    }
+
+    // Per-shape admission counter for STRATIFIED sampling
+    static class Strata {
+        private final Map<Long, Integer> counts = new HashMap<>();
+        private final int maxPerShape;
+
+        Strata(int maxPerShape) {
+            this.maxPerShape = maxPerShape;
+        }
+
+        boolean admit(long shapeKey) {
+            int count = counts.getOrDefault(shapeKey, 0);
+            if (count >= maxPerShape) {
+                return false;
+            }
+            counts.put(shapeKey, count + 1);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.swiftcoder.json2pojo.inference;
+
+/**
+ * How much of the input inference is allowed to look at. The strategy applies to the elements
+ * of every array and to the records of a JSON Lines corpus; the time budget bounds the whole run
+ * and the byte budget the part of a JSON Lines corpus that is read (0 means unbounded). JSON
+ * documents are always read to the end. The {@link InferenceLimits} bound the structure of what
+ * is inferred.
+ */
+public class SamplingConfig {
+    private static final double DEFAULT_RARE_FIELD_THRESHOLD = 0.05;
+
+    private final SamplingStrategy strategy;
+    private final int maxSamples;
+    private final long seed;
+    private final long timeBudgetMillis;
+    private final long byteBudget;
+    private final double rareFieldThreshold;
+    private final InferenceLimits limits;
+
+    public SamplingConfig(SamplingStrategy strategy, int maxSamples, long seed, long timeBudgetMillis,
+                          long byteBudget, double rareFieldThreshold) {
+        this(strategy, maxSamples, seed, timeBudgetMillis, byteBudget, rareFieldThreshold, InferenceLimits.defaults());
+    }
+
+    public SamplingConfig(SamplingStrategy strategy, int maxSamples, long seed, long timeBudgetMillis,
+                          long byteBudget, double rareFieldThreshold, InferenceLimits limits) {
+        this.strategy = strategy;
+        this.maxSamples = maxSamples;
+        this.seed = seed;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.byteBudget = byteBudget;
+        this.rareFieldThreshold = rareFieldThreshold;
+        this.limits = limits;
+    }
+
+    public static SamplingConfig all() {
+        return new SamplingConfig(SamplingStrategy.ALL, Integer.MAX_VALUE, 0, 0, 0, DEFAULT_RARE_FIELD_THRESHOLD);
+    }
+
+    public static SamplingConfig firstN(int maxSamples) {
+        return new SamplingConfig(SamplingStrategy.FIRST_N, maxSamples, 0, 0, 0, DEFAULT_RARE_FIELD_THRESHOLD);
+    }
+
+    public static SamplingConfig reservoir(int maxSamples, long seed) {
+        return new SamplingConfig(SamplingStrategy.RESERVOIR, maxSamples, seed, 0, 0, DEFAULT_RARE_FIELD_THRESHOLD);
+    }
+
+    // maxSamplesPerShape applies to each distinct shape separately
+    public static SamplingConfig stratified(int maxSamplesPerShape) {
+        return new SamplingConfig(SamplingStrategy.STRATIFIED, maxSamplesPerShape, 0, 0, 0, DEFAULT_RARE_FIELD_THRESHOLD);
+    }
+
+    // Bounded enough for the IDE actions to stay responsive on any pasted payload
+    public static SamplingConfig interactive() {
+        return reservoir(10_000, 0).withTimeBudgetMillis(5_000).withLimits(InferenceLimits.interactive());
+    }
+
+    public SamplingConfig withTimeBudgetMillis(long timeBudgetMillis) {
+        return new SamplingConfig(strategy, maxSamples, seed, timeBudgetMillis, byteBudget, rareFieldThreshold, limits);
+    }
+
+    // Only bounds JSON Lines corpora
+    public SamplingConfig withByteBudget(long byteBudget) {
+        return new SamplingConfig(strategy, maxSamples, seed, timeBudgetMillis, byteBudget, rareFieldThreshold, limits);
+    }
+
+    public SamplingConfig withRareFieldThreshold(double rareFieldThreshold) {
+        return new SamplingConfig(strategy, maxSamples, seed, timeBudgetMillis, byteBudget, rareFieldThreshold, limits);
+    }
+
+    public SamplingConfig withLimits(InferenceLimits limits) {
+        return new SamplingConfig(strategy, maxSamples, seed, timeBudgetMillis, byteBudget, rareFieldThreshold, limits);
+    }
+
+    public SamplingStrategy getStrategy() {
+        return strategy;
+    }
+
+    public int getMaxSamples() {
+        return maxSamples;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getTimeBudgetMillis() {
+        return timeBudgetMillis;
+    }
+
+    public long getByteBudget() {
+        return byteBudget;
+    }
+
+    public double getRareFieldThreshold() {
+        return rareFieldThreshold;
+    }
+
+    public InferenceLimits getLimits() {
+        return limits;
+    }
+}
@@ -0,0 +1,12 @@
+package com.swiftcoder.json2pojo.inference;
+
+public enum SamplingStrategy {
+    // Observe every array element and every record
+    ALL,
+    // Observe only the first N elements/records
+    FIRST_N,
+    // Observe a uniform random sample of N elements/records
+    RESERVOIR,
+    // Observe at most N elements/records of each distinct shape
+    STRATIFIED
+}
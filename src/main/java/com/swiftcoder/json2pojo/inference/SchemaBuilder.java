@@ -0,0 +1,242 @@
+package com.swiftcoder.json2pojo.inference;
+
+import com.swiftcoder.json2pojo.models.JsonClass;
+import com.swiftcoder.json2pojo.models.JsonField;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+
+/**
+ * Turns accumulated shapes into the JsonClass/JsonField model, widening types where the
+ * observed values disagree and flagging fields that were null or missing in some objects.
+ * Classes are built from a work queue rather than by recursion, within the field and class
+ * limits of the run.
+ */
+public class SchemaBuilder {
+    // A value set only looks like an enum when values repeat: at least this many strings per distinct value
+    private static final int MIN_REPEATS_PER_VALUE = 2;
+
+    public JsonClass build(FieldShape root, String rootClassName) {
+        return build(root, rootClassName, new InferenceContext(SamplingConfig.all()));
+    }
+
+    // Field and class limits are enforced here and reported to the context
+    public JsonClass build(FieldShape root, String rootClassName, InferenceContext context) {
+        ObjectShape rootShape = root.getObjectShape();
+        // A top-level array of objects describes its elements
+        if (rootShape == null && root.getElementShape() != null) {
+            rootShape = root.getElementShape().getObjectShape();
+        }
+        // Likewise a top-level map describes its values
+        if (rootShape != null && rootShape.collapseIfMapLike()) {
+            rootShape = rootShape.getValueShape().getObjectShape();
+        }
+
+        JsonClass rootClass = new JsonClass(context.getSymbols().canonical(capitalizeFirstLetter(rootClassName)));
+        Build build = new Build(context);
+        build.classes++;
+        if (rootShape != null) {
+            build.pending.add(new PendingClass(rootShape, rootClass, ""));
+        }
+        // Breadth-first, so the limits drop the deepest classes and fields first
+        while (!build.pending.isEmpty()) {
+            buildClass(build.pending.poll(), build);
+        }
+        context.recordCreated(build.classes, build.fields);
+        return rootClass;
+    }
+
+    private void buildClass(PendingClass pending, Build build) {
+        ObjectShape shape = pending.shape;
+        for (Map.Entry<String, FieldShape> entry : shape.getFields().entrySet()) {
+            String fieldPath = pending.path.isEmpty() ? entry.getKey() : pending.path + "." + entry.getKey();
+            if (build.fields >= build.limits.getMaxFields()) {
+                build.context.recordLimitHit(InferenceLimits.Limit.FIELDS, fieldPath);
+                continue;
+            }
+            build.fields++;
+            pending.jsonClass.addField(createJsonField(entry.getKey(), entry.getValue(), shape.getObservations(),
+                pending.jsonClass, fieldPath, build));
+        }
+    }
+
+    private JsonField createJsonField(String fieldName, FieldShape shape, int parentObservations, JsonClass parentClass,
+                                      String fieldPath, Build build) {
+        boolean nullable = shape.hasKind(FieldShape.NULL);
+        boolean optional = shape.getPresent() < parentObservations;
+        int valueKinds = shape.getValueKinds();
+
+        if (valueKinds == 0) {
+            return new JsonField(fieldName, "Object", false, true, optional, "null");
+        }
+
+        if (valueKinds == FieldShape.ARRAY) {
+            String elementType = getElementType(fieldName, shape.getElementShape(), parentClass, fieldPath + "[]", build);
+            boolean elementNullable = shape.getElementShape().hasKind(FieldShape.NULL);
+            JsonField field = new JsonField(fieldName, elementType, true, nullable, optional, elementNullable, "array");
+            field = withEnum(field, shape.getElementShape(), singularClassName(fieldName, build));
+            return withNumericType(field, shape.getElementShape());
+        }
+
+        if (valueKinds == FieldShape.OBJECT && shape.getObjectShape().collapseIfMapLike()) {
+            FieldShape values = shape.getObjectShape().getValueShape();
+            // Values are typed like array elements: one class for all of them, Object when they are arrays or mixed
+            String valueType = getElementType(fieldName, values, parentClass, fieldPath + "{}", build);
+            JsonField field = new JsonField(fieldName, valueType, false, nullable, optional, "object").withMap(true);
+            field = withEnum(field, values, singularClassName(fieldName, build));
+            return withNumericType(field, values);
+        }
+
+        if (valueKinds == FieldShape.OBJECT) {
+            String nestedClassName = className(fieldName, build);
+            if (!addNestedClass(shape.getObjectShape(), nestedClassName, parentClass, fieldPath, build)) {
+                return new JsonField(fieldName, "Object", false, nullable, optional, "object");
+            }
+            return new JsonField(fieldName, nestedClassName, false, nullable, optional, "object");
+        }
+
+        String javaType = getScalarType(valueKinds);
+        JsonField field = new JsonField(fieldName, javaType, false, nullable, optional, getOriginalJsonType(valueKinds));
+        field = withEnum(field, shape, className(fieldName, build));
+        return withNumericType(field, shape);
+    }
+
+    // Queues the nested class for building, or returns false once the class limit is reached
+    private boolean addNestedClass(ObjectShape shape, String className, JsonClass parentClass, String path, Build build) {
+        if (build.classes >= build.limits.getMaxClasses()) {
+            build.context.recordLimitHit(InferenceLimits.Limit.CLASSES, path);
+            return false;
+        }
+        build.classes++;
+        JsonClass nestedClass = new JsonClass(className);
+        // Attached right away so nested classes keep field order; fields are added when dequeued
+        parentClass.addNestedClass(nestedClass);
+        build.pending.add(new PendingClass(shape, nestedClass, path));
+        return true;
+    }
+
+    // Records the distinct strings as enum candidates; whether they become an enum is up to the generation config
+    private JsonField withEnum(JsonField field, FieldShape shape, String enumName) {
+        StringStats strings = shape.getStrings();
+        if (strings == null || !"String".equals(field.getType()) || !strings.isExact()
+                || strings.getCount() < (long) MIN_REPEATS_PER_VALUE * strings.getCardinality()) {
+            return field;
+        }
+        return field.withEnum(enumName, strings.getDistinctValues());
+    }
+
+    // Records the narrowest type for the observed values; only used when narrowing is switched on
+    private JsonField withNumericType(JsonField field, FieldShape shape) {
+        NumericStats numbers = shape.getNumbers();
+        if (numbers == null || !isNumeric(field.getType())) {
+            return field;
+        }
+        return field.withNumericType(numbers.getNarrowestType());
+    }
+
+    private boolean isNumeric(String type) {
+        return "Integer".equals(type) || "Long".equals(type) || "BigInteger".equals(type)
+            || "Double".equals(type) || "BigDecimal".equals(type);
+    }
+
+    private String getElementType(String fieldName, FieldShape elementShape, JsonClass parentClass, String path,
+                                  Build build) {
+        int valueKinds = elementShape.getValueKinds();
+        // Maps nested in collections stay untyped rather than growing nested generics
+        if (valueKinds == FieldShape.OBJECT && elementShape.getObjectShape().collapseIfMapLike()) {
+            return "Object";
+        }
+        if (valueKinds == FieldShape.OBJECT) {
+            String nestedClassName = singularClassName(fieldName, build);
+            return addNestedClass(elementShape.getObjectShape(), nestedClassName, parentClass, path, build)
+                ? nestedClassName : "Object";
+        }
+        return getScalarType(valueKinds);
+    }
+
+    // Widens numeric kinds to the smallest type that holds all of them; anything else mixed is Object
+    private String getScalarType(int valueKinds) {
+        if (valueKinds == FieldShape.BOOLEAN) {
+            return "Boolean";
+        }
+        if (valueKinds == FieldShape.STRING) {
+            return "String";
+        }
+        int numericKinds = FieldShape.INT | FieldShape.LONG | FieldShape.BIG_INTEGER | FieldShape.DOUBLE;
+        if (valueKinds != 0 && (valueKinds & ~numericKinds) == 0) {
+            if ((valueKinds & FieldShape.DOUBLE) != 0) {
+                // A double cannot hold integers beyond long range exactly
+                return (valueKinds & FieldShape.BIG_INTEGER) != 0 ? "BigDecimal" : "Double";
+            }
+            if ((valueKinds & FieldShape.BIG_INTEGER) != 0) {
+                return "BigInteger";
+            }
+            if ((valueKinds & FieldShape.LONG) != 0) {
+                return "Long";
+            }
+            return "Integer";
+        }
+        return "Object";
+    }
+
+    // Same names as JsonNodeType.toString() for single-kind values
+    private String getOriginalJsonType(int valueKinds) {
+        int numericKinds = FieldShape.INT | FieldShape.LONG | FieldShape.BIG_INTEGER | FieldShape.DOUBLE;
+        if (valueKinds == FieldShape.BOOLEAN) {
+            return "BOOLEAN";
+        }
+        if (valueKinds == FieldShape.STRING) {
+            return "STRING";
+        }
+        if ((valueKinds & ~numericKinds) == 0) {
+            return "NUMBER";
+        }
+        return "mixed";
+    }
+
+    // Class and enum names go through the symbol table, so every field typed with one shares its name
+    private String className(String fieldName, Build build) {
+        return build.context.getSymbols().canonical(capitalizeFirstLetter(fieldName));
+    }
+
+    private String singularClassName(String fieldName, Build build) {
+        String name = capitalizeFirstLetter(fieldName);
+        name = name.endsWith("s") ? name.substring(0, name.length() - 1) : name;
+        return build.context.getSymbols().canonical(name);
+    }
+
+    private String capitalizeFirstLetter(String str) {
+        if (str == null || str.isEmpty()) {
+            return str;
+        }
+        return str.substring(0, 1).toUpperCase() + str.substring(1);
+    }
+
+    // Running totals of one build
+    private static class Build {
+        private final InferenceContext context;
+        private final InferenceLimits limits;
+        private final Deque<PendingClass> pending = new ArrayDeque<>();
+        private int fields;
+        private int classes;
+
+        Build(InferenceContext context) {
+            this.context = context;
+            this.limits = context.getLimits();
+        }
+    }
+
+    // A class already attached to its parent whose fields are still to be built
+    private static class PendingClass {
+        private final ObjectShape shape;
+        private final JsonClass jsonClass;
+        private final String path;
+
+        PendingClass(ObjectShape shape, JsonClass jsonClass, String path) {
+            this.shape = shape;
+            this.jsonClass = jsonClass;
+            this.path = path;
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.swiftcoder.json2pojo.inference;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+
+/**
+ * Observes a JSON value straight from a Jackson token stream into a {@link FieldShape},
+ * without materializing a tree. Memory is bounded by the size of the schema (plus the
+ * reservoir of element shapes when sampling uniformly). Nesting is tracked on an explicit stack
+ * rather than the call stack, and containers beyond the maximum depth are skipped.
+ */
+public class StreamingShapeReader {
+
+    // Expects the parser to be positioned on the first token of the value
+    public FieldShape read(JsonParser tokens) throws IOException {
+        return read(tokens, new InferenceContext(SamplingConfig.all()));
+    }
+
+    public FieldShape read(JsonParser tokens, InferenceContext context) throws IOException {
+        FieldShape shape = new FieldShape();
+        observe(tokens, shape, context);
+        return shape;
+    }
+
+    // Leaves the parser on the last token of the observed value
+    public void observe(JsonParser tokens, FieldShape shape, InferenceContext context) throws IOException {
+        observe(tokens, shape, context, false);
+    }
+
+    // Observes one element of a top-level array read elsewhere, at the depth and path it has in that array
+    public void observeElement(JsonParser tokens, FieldShape elementShape, InferenceContext context) throws IOException {
+        observe(tokens, elementShape, context, true);
+    }
+
+    private void observe(JsonParser tokens, FieldShape shape, InferenceContext context, boolean inTopLevelArray)
+            throws IOException {
+        // One frame per open object or array, so nesting costs heap rather than stack
+        Deque<Frame> open = new ArrayDeque<>();
+        if (inTopLevelArray) {
+            open.push(new EnclosingArrayFrame());
+        }
+        int outermost = open.size();
+        observeValue(tokens, shape, open, context);
+        long steps = 0;
+        while (open.size() > outermost) {
+            // Polled between values too, so one huge object still sees a cancel or the deadline
+            context.isOverBudget(++steps);
+            Frame frame = open.peek();
+            FieldShape next = frame.advance(tokens, context);
+            if (next == null) {
+                open.pop();
+                frame.finish(context);
+            } else {
+                observeValue(tokens, next, open, context);
+            }
+        }
+    }
+
+    // Records a scalar, or opens a frame for an object or array whose values are observed next
+    private void observeValue(JsonParser tokens, FieldShape shape, Deque<Frame> open,
+                              InferenceContext context) throws IOException {
+        JsonToken token = tokens.currentToken();
+        if (token == null || token == JsonToken.VALUE_NULL) {
+            shape.recordNull();
+        } else if ((token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY)
+                && open.size() >= context.getLimits().getMaxDepth()) {
+            tokens.skipChildren();
+            shape.recordScalar(FieldShape.UNKNOWN);
+            context.recordLimitHit(InferenceLimits.Limit.DEPTH, path(open));
+        } else if (token == JsonToken.START_OBJECT) {
+            open.push(new ObjectFrame(shape.recordObject()));
+        } else if (token == JsonToken.START_ARRAY) {
+            open.push(elementFrame(shape.recordArray(), context));
+        } else if (token == JsonToken.VALUE_NUMBER_INT) {
+            if (tokens.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                shape.recordBigInteger(tokens.getBigIntegerValue());
+            } else {
+                shape.recordInteger(tokens.getLongValue());
+            }
+        } else if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            shape.recordDecimal(tokens.getDecimalValue());
+        } else if (token == JsonToken.VALUE_STRING) {
+            shape.recordString(tokens.getText());
+        } else {
+            shape.recordScalar(scalarKind(tokens));
+        }
+    }
+
+    private Frame elementFrame(FieldShape elementShape, InferenceContext context) {
+        switch (context.getSampling().getStrategy()) {
+            case RESERVOIR:
+                return new ReservoirFrame(elementShape, context);
+            case STRATIFIED:
+                return new StratifiedFrame(elementShape, context);
+            default:
+                return new FirstNFrame(elementShape, context);
+        }
+    }
+
+    // Same notation as the rare-field paths of the report: a.b[].c
+    private static String path(Deque<Frame> open) {
+        StringBuilder path = new StringBuilder();
+        Iterator<Frame> outermostFirst = open.descendingIterator();
+        while (outermostFirst.hasNext()) {
+            Frame frame = outermostFirst.next();
+            if (frame instanceof ObjectFrame) {
+                path.append(path.length() == 0 ? "" : ".").append(((ObjectFrame) frame).name);
+            } else {
+                path.append("[]");
+            }
+        }
+        return path.toString();
+    }
+
+    private abstract static class Frame {
+        // Moves to the next value to observe and returns the shape it goes into, or null at the end
+        abstract FieldShape advance(JsonParser tokens, InferenceContext context) throws IOException;
+
+        void finish(InferenceContext context) {
+        }
+    }
+
+    private static class ObjectFrame extends Frame {
+        private final ObjectShape objectShape;
+        private String name;
+
+        ObjectFrame(ObjectShape objectShape) {
+            this.objectShape = objectShape;
+        }
+
+        @Override
+        FieldShape advance(JsonParser tokens, InferenceContext context) throws IOException {
+            if (context.isOutOfTime()) {
+                // The remaining fields are skipped, leaving the parser on the end of the object
+                while (tokens.nextToken() == JsonToken.FIELD_NAME) {
+                    tokens.nextToken();
+                    tokens.skipChildren();
+                }
+                return null;
+            }
+            if (tokens.nextToken() != JsonToken.FIELD_NAME) {
+                return null;
+            }
+            name = tokens.currentName();
+            FieldShape fieldShape = objectShape.field(name);
+            tokens.nextToken();
+            return fieldShape;
+        }
+    }
+
+    // Stands for the array around an element observed on its own; it is never advanced
+    private static class EnclosingArrayFrame extends Frame {
+        @Override
+        FieldShape advance(JsonParser tokens, InferenceContext context) {
+            return null;
+        }
+    }
+
+    // FIRST_N and ALL: the first getMaxSamples() elements go straight into the element shape
+    private static class FirstNFrame extends Frame {
+        private final FieldShape elementShape;
+        private final int limit;
+        private int index;
+        private int observed;
+
+        FirstNFrame(FieldShape elementShape, InferenceContext context) {
+            this.elementShape = elementShape;
+            this.limit = context.getSampling().getMaxSamples();
+        }
+
+        @Override
+        FieldShape advance(JsonParser tokens, InferenceContext context) throws IOException {
+            while (tokens.nextToken() != JsonToken.END_ARRAY) {
+                // Polled past the limit too, as the rest of the array is still scanned
+                boolean sampled = !context.isOverBudget(index) && index < limit;
+                index++;
+                if (sampled) {
+                    observed++;
+                    return elementShape;
+                }
+                tokens.skipChildren();
+            }
+            return null;
+        }
+
+        @Override
+        void finish(InferenceContext context) {
+            context.recordSampling(index, observed);
+        }
+    }
+
+    // Keeps the shapes of a uniform sample of elements, then merges them in document order
+    private static class ReservoirFrame extends Frame {
+        private final FieldShape elementShape;
+        private final int capacity;
+        private final SplittableRandom random;
+        private FieldShape[] reservoir;
+        private int[] positions;
+        private int index;
+        private int kept;
+
+        ReservoirFrame(FieldShape elementShape, InferenceContext context) {
+            this.elementShape = elementShape;
+            this.capacity = context.getSampling().getMaxSamples();
+            this.random = Samplers.randomFor(context.getSampling(), 0);
+            this.reservoir = new FieldShape[Math.min(capacity, 64)];
+            this.positions = new int[reservoir.length];
+        }
+
+        @Override
+        FieldShape advance(JsonParser tokens, InferenceContext context) throws IOException {
+            while (tokens.nextToken() != JsonToken.END_ARRAY) {
+                boolean overBudget = context.isOverBudget(index);
+                int slot = index < capacity ? index : random.nextInt(index + 1);
+                if (slot < capacity && !overBudget) {
+                    if (slot >= reservoir.length) {
+                        int grown = (int) Math.min(capacity, (long) reservoir.length * 2);
+                        reservoir = Arrays.copyOf(reservoir, grown);
+                        positions = Arrays.copyOf(positions, grown);
+                    }
+                    FieldShape single = new FieldShape();
+                    reservoir[slot] = single;
+                    positions[slot] = index++;
+                    kept = Math.max(kept, slot + 1);
+                    return single;
+                }
+                tokens.skipChildren();
+                index++;
+            }
+            return null;
+        }
+
+        @Override
+        void finish(InferenceContext context) {
+            // Slots skipped because the budget ran out stay empty
+            Integer[] order = new Integer[kept];
+            int sampled = 0;
+            for (int i = 0; i < kept; i++) {
+                if (reservoir[i] != null) {
+                    order[sampled++] = i;
+                }
+            }
+            final int[] keptPositions = positions;
+            Arrays.sort(order, 0, sampled, (a, b) -> Integer.compare(keptPositions[a], keptPositions[b]));
+            for (int i = 0; i < sampled; i++) {
+                elementShape.merge(reservoir[order[i]]);
+            }
+            context.recordSampling(index, sampled);
+        }
+    }
+
+    // Observes every element on its own, keeping it only if its shape is still under its quota
+    private static class StratifiedFrame extends Frame {
+        private final FieldShape elementShape;
+        private final Samplers.Strata strata;
+        // Fully observed by the time the frame is advanced again
+        private FieldShape pending;
+        private int index;
+        private int observed;
+
+        StratifiedFrame(FieldShape elementShape, InferenceContext context) {
+            this.elementShape = elementShape;
+            this.strata = new Samplers.Strata(context.getSampling().getMaxSamples());
+        }
+
+        @Override
+        FieldShape advance(JsonParser tokens, InferenceContext context) throws IOException {
+            admitPending();
+            while (tokens.nextToken() != JsonToken.END_ARRAY) {
+                if (!context.isOverBudget(index++)) {
+                    pending = new FieldShape();
+                    return pending;
+                }
+                tokens.skipChildren();
+            }
+            return null;
+        }
+
+        @Override
+        void finish(InferenceContext context) {
+            admitPending();
+            context.recordSampling(index, observed);
+        }
+
+        private void admitPending() {
+            if (pending != null && strata.admit(Samplers.shapeKey(pending))) {
+                elementShape.merge(pending);
+                observed++;
+            }
+            pending = null;
+        }
+    }
+
+    static int scalarKind(JsonParser tokens) throws IOException {
+        switch (tokens.currentToken()) {
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return FieldShape.BOOLEAN;
+            case VALUE_NUMBER_INT:
+                JsonParser.NumberType numberType = tokens.getNumberType();
+                if (numberType == JsonParser.NumberType.INT) {
+                    return FieldShape.INT;
+                }
+                if (numberType == JsonParser.NumberType.LONG) {
+                    return FieldShape.LONG;
+                }
+                return FieldShape.BIG_INTEGER;
+            case VALUE_NUMBER_FLOAT:
+                return FieldShape.DOUBLE;
+            case VALUE_STRING:
+                return FieldShape.STRING;
+            default:
+                return 0;
+        }
+    }
+}
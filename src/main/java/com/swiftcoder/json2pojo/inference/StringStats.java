@@ -0,0 +1,75 @@
+package com.swiftcoder.json2pojo.inference;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Distinct values of every string observed under one field. Up to {@link #MAX_TRACKED_VALUES}
+ * values are kept exactly, in first-seen order; past that only a {@link HyperLogLog} estimate
+ * of the cardinality remains, so memory stays bounded however large the input.
+ */
+public class StringStats {
+    public static final int MAX_TRACKED_VALUES = 256;
+
+    private long count;
+    // Null once overflowed into the sketch
+    private Set<String> values = new LinkedHashSet<>();
+    private HyperLogLog sketch;
+
+    public void record(String value) {
+        count++;
+        if (values == null) {
+            sketch.add(value);
+        } else if (values.add(value) && values.size() > MAX_TRACKED_VALUES) {
+            overflow();
+        }
+    }
+
+    public void merge(StringStats other) {
+        count += other.count;
+        if (other.values == null) {
+            if (values != null) {
+                overflow();
+            }
+            sketch.merge(other.sketch);
+            return;
+        }
+        for (String value : other.values) {
+            if (values == null) {
+                sketch.add(value);
+            } else if (values.add(value) && values.size() > MAX_TRACKED_VALUES) {
+                overflow();
+            }
+        }
+    }
+
+    // Strings observed, duplicates included
+    public long getCount() {
+        return count;
+    }
+
+    public boolean isExact() {
+        return values != null;
+    }
+
+    // In first-seen order; null once more than MAX_TRACKED_VALUES distinct values were seen
+    public List<String> getDistinctValues() {
+        return values == null ? null : Collections.unmodifiableList(new ArrayList<>(values));
+    }
+
+    // Exact while tracked, estimated afterwards
+    public long getCardinality() {
+        return values != null ? values.size() : sketch.estimate();
+    }
+
+    private void overflow() {
+        sketch = new HyperLogLog();
+        for (String value : values) {
+            sketch.add(value);
+        }
+        values = null;
+    }
+}
@@ -0,0 +1,69 @@
+package com.swiftcoder.json2pojo.inference;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Field names and type names mapped to small int ids and shared Strings. A table may outlive a
+ * run together with the Jackson factory it owns, so later runs reuse the names already decoded.
+ */
+public class SymbolTable {
+    // Symbols past the cap still work, they just get no id
+    private static final int MAX_SYMBOLS = 1 << 16;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    // Written under the lock, read without it: an id is published in ids only after its slot is set
+    private volatile String[] symbols = new String[64];
+    private int size;
+
+    // Names are canonicalized and interned by this factory (Jackson's defaults), so equal names share one String
+    public JsonFactory getJsonFactory() {
+        return jsonFactory;
+    }
+
+    // The id of symbol, assigned on first sight, or -1 once the table is full
+    public int idOf(String symbol) {
+        Integer id = ids.get(symbol);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(symbol);
+            if (id != null) {
+                return id;
+            }
+            if (size >= MAX_SYMBOLS) {
+                return -1;
+            }
+            String[] table = symbols;
+            if (size == table.length) {
+                table = Arrays.copyOf(table, size * 2);
+            }
+            table[size] = symbol;
+            symbols = table;
+            ids.put(symbol, size);
+            return size++;
+        }
+    }
+
+    public String symbol(int id) {
+        return symbols[id];
+    }
+
+    // The shared instance equal to symbol, so the model holds one copy of every name
+    public String canonical(String symbol) {
+        if (symbol == null) {
+            return null;
+        }
+        int id = idOf(symbol);
+        return id < 0 ? symbol : symbols[id];
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+}
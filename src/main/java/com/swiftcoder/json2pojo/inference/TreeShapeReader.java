@@ -0,0 +1,296 @@
+package com.swiftcoder.json2pojo.inference;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Observes an in-memory JsonNode tree into a {@link FieldShape}, on an explicit stack rather than
+ * the call stack. Large arrays are split into chunks inferred on a ForkJoinPool.
+ */
+public class TreeShapeReader {
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 4096;
+    private static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+    private final int chunkSize;
+
+    public TreeShapeReader() {
+        this(ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD, DEFAULT_CHUNK_SIZE);
+    }
+
+    public TreeShapeReader(ForkJoinPool pool, int parallelThreshold, int chunkSize) {
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    public FieldShape read(JsonNode root) {
+        return read(root, new InferenceContext(SamplingConfig.all()));
+    }
+
+    public FieldShape read(JsonNode root, InferenceContext context) {
+        FieldShape shape = new FieldShape();
+        observe(root, shape, context);
+        return shape;
+    }
+
+    private void observe(JsonNode value, FieldShape shape, InferenceContext context) {
+        Deque<Frame> open = new ArrayDeque<>();
+        observeValue(value, shape, open, 0, "", context);
+        drain(open, 0, "", context);
+    }
+
+    // outerDepth and outerPath locate the frames below the stack, for chunks of an enclosing array
+    private void drain(Deque<Frame> open, int outerDepth, String outerPath, InferenceContext context) {
+        long steps = 0;
+        while (!open.isEmpty()) {
+            // Per value as well as per element, for objects with more fields than an array has elements
+            context.isOverBudget(++steps);
+            Frame frame = open.peek();
+            FieldShape next = frame.advance(context);
+            if (next == null) {
+                open.pop();
+                frame.finish(context);
+            } else {
+                observeValue(frame.value, next, open, outerDepth, outerPath, context);
+            }
+        }
+    }
+
+    // Records a scalar, or opens a frame for an object or array whose values are observed next
+    private void observeValue(JsonNode value, FieldShape shape, Deque<Frame> open, int outerDepth,
+                              String outerPath, InferenceContext context) {
+        if (value.isNull() || value.isMissingNode()) {
+            shape.recordNull();
+        } else if (value.isContainerNode() && outerDepth + open.size() >= context.getLimits().getMaxDepth()) {
+            shape.recordScalar(FieldShape.UNKNOWN);
+            context.recordLimitHit(InferenceLimits.Limit.DEPTH, path(outerPath, open));
+        } else if (value.isObject()) {
+            open.push(new ObjectFrame(value, shape.recordObject()));
+        } else if (value.isArray()) {
+            observeElements(value, shape.recordArray(), open, outerDepth, outerPath, context);
+        } else if (value.isBigInteger()) {
+            shape.recordBigInteger(value.bigIntegerValue());
+        } else if (value.isIntegralNumber()) {
+            shape.recordInteger(value.longValue());
+        } else if (value.isNumber()) {
+            shape.recordDecimal(value.decimalValue());
+        } else if (value.isTextual()) {
+            shape.recordString(value.textValue());
+        } else {
+            shape.recordScalar(scalarKind(value));
+        }
+    }
+
+    private void observeElements(JsonNode array, FieldShape elementShape, Deque<Frame> open, int outerDepth,
+                                 String outerPath, InferenceContext context) {
+        int[] selection = selectElements(array, context.getSampling());
+        int count = selection == null ? Math.min(array.size(), context.getSampling().getMaxSamples()) : selection.length;
+        context.recordSampling(array.size(), 0);
+
+        if (count >= parallelThreshold) {
+            elementShape.merge(inferElements(array, selection, count, outerDepth + open.size(),
+                path(outerPath, open), context));
+        } else {
+            open.push(new ElementFrame(array, selection, 0, count, elementShape));
+        }
+    }
+
+    // null selects the first getMaxSamples() elements (all of them for ALL)
+    private int[] selectElements(JsonNode array, SamplingConfig sampling) {
+        int size = array.size();
+        switch (sampling.getStrategy()) {
+            case RESERVOIR:
+                return Samplers.reservoirIndices(size, sampling.getMaxSamples(), Samplers.randomFor(sampling, size));
+            case STRATIFIED:
+                Samplers.Strata strata = new Samplers.Strata(sampling.getMaxSamples());
+                int[] admitted = new int[Math.min(size, 16)];
+                int count = 0;
+                for (int i = 0; i < size; i++) {
+                    if (strata.admit(Samplers.shapeKey(array.get(i)))) {
+                        if (count == admitted.length) {
+                            admitted = Arrays.copyOf(admitted, count * 2);
+                        }
+                        admitted[count++] = i;
+                    }
+                }
+                return Arrays.copyOf(admitted, count);
+            default:
+                return null;
+        }
+    }
+
+    // depth and path are those of the array itself
+    private void observeRange(JsonNode array, int[] selection, int from, int to, FieldShape shape,
+                              int depth, String path, InferenceContext context) {
+        Deque<Frame> open = new ArrayDeque<>();
+        open.push(new ElementFrame(array, selection, from, to, shape));
+        drain(open, depth, path, context);
+    }
+
+    private FieldShape inferElements(JsonNode array, int[] selection, int count, int depth, String path,
+                                     InferenceContext context) {
+        ElementChunkTask task = new ElementChunkTask(this, array, selection, 0, count, depth, path, context);
+        // Nested large arrays are already running inside the pool; fork there instead of re-submitting
+        if (ForkJoinTask.getPool() == pool) {
+            return task.invoke();
+        }
+        return pool.invoke(task);
+    }
+
+    // Same notation as the rare-field paths of the report: a.b[].c
+    private static String path(String outerPath, Deque<Frame> open) {
+        StringBuilder path = new StringBuilder(outerPath);
+        Iterator<Frame> outermostFirst = open.descendingIterator();
+        while (outermostFirst.hasNext()) {
+            Frame frame = outermostFirst.next();
+            if (frame instanceof ObjectFrame) {
+                path.append(path.length() == 0 ? "" : ".").append(((ObjectFrame) frame).name);
+            } else {
+                path.append("[]");
+            }
+        }
+        return path.toString();
+    }
+
+    static int scalarKind(JsonNode value) {
+        if (value.isBoolean()) {
+            return FieldShape.BOOLEAN;
+        }
+        if (value.isInt()) {
+            return FieldShape.INT;
+        }
+        if (value.isLong()) {
+            return FieldShape.LONG;
+        }
+        if (value.isBigInteger()) {
+            return FieldShape.BIG_INTEGER;
+        }
+        if (value.isNumber()) {
+            return FieldShape.DOUBLE;
+        }
+        if (value.isTextual()) {
+            return FieldShape.STRING;
+        }
+        return 0;
+    }
+
+    private abstract static class Frame {
+        // The value to observe next, set by advance
+        JsonNode value;
+
+        // Moves to the next value to observe and returns the shape it goes into, or null at the end
+        abstract FieldShape advance(InferenceContext context);
+
+        void finish(InferenceContext context) {
+        }
+    }
+
+    private static class ObjectFrame extends Frame {
+        private final Iterator<Map.Entry<String, JsonNode>> fields;
+        private final ObjectShape objectShape;
+        private String name;
+
+        ObjectFrame(JsonNode object, ObjectShape objectShape) {
+            this.fields = object.fields();
+            this.objectShape = objectShape;
+        }
+
+        @Override
+        FieldShape advance(InferenceContext context) {
+            if (context.isOutOfTime() || !fields.hasNext()) {
+                return null;
+            }
+            Map.Entry<String, JsonNode> field = fields.next();
+            name = field.getKey();
+            value = field.getValue();
+            return objectShape.field(name);
+        }
+    }
+
+    // The selected elements from..to of an array, all observed into one shape
+    private static class ElementFrame extends Frame {
+        private final JsonNode array;
+        private final int[] selection;
+        private final int to;
+        private final FieldShape shape;
+        private int next;
+        private int observed;
+
+        ElementFrame(JsonNode array, int[] selection, int from, int to, FieldShape shape) {
+            this.array = array;
+            this.selection = selection;
+            this.next = from;
+            this.to = to;
+            this.shape = shape;
+        }
+
+        @Override
+        FieldShape advance(InferenceContext context) {
+            if (next >= to || context.isOverBudget(next)) {
+                return null;
+            }
+            value = array.get(selection == null ? next : selection[next]);
+            next++;
+            observed++;
+            return shape;
+        }
+
+        @Override
+        void finish(InferenceContext context) {
+            context.recordSampling(0, observed);
+        }
+    }
+
+    private static class ElementChunkTask extends RecursiveTask<FieldShape> {
+        private static final long serialVersionUID = 1L;
+
+        private final TreeShapeReader reader;
+        private final JsonNode array;
+        private final int[] selection;
+        private final int from;
+        private final int to;
+        private final int depth;
+        private final String path;
+        private final InferenceContext context;
+
+        ElementChunkTask(TreeShapeReader reader, JsonNode array, int[] selection, int from, int to, int depth,
+                         String path, InferenceContext context) {
+            this.reader = reader;
+            this.array = array;
+            this.selection = selection;
+            this.from = from;
+            this.to = to;
+            this.depth = depth;
+            this.path = path;
+            this.context = context;
+        }
+
+        @Override
+        protected FieldShape compute() {
+            if (to - from <= reader.chunkSize) {
+                FieldShape partial = new FieldShape();
+                reader.observeRange(array, selection, from, to, partial, depth, path, context);
+                return partial;
+            }
+
+            int middle = (from + to) >>> 1;
+            ElementChunkTask left = new ElementChunkTask(reader, array, selection, from, middle, depth, path, context);
+            ElementChunkTask right = new ElementChunkTask(reader, array, selection, middle, to, depth, path, context);
+            right.fork();
+            FieldShape merged = left.compute();
+            // Left before right keeps first-seen field order identical to a sequential scan
+            merged.merge(right.join());
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.swiftcoder.json2pojo.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.swiftcoder.json2pojo.Inference")
+@Label("Schema Inference")
+@Category({"json2pojo"})
+@Description("Turning the observed shapes into classes and fields")
+public class InferenceEvent extends Event {
+    @Label("Root Class")
+    public String rootClass;
+
+    @Label("Values Visited")
+    public long valuesVisited;
+
+    @Label("Classes Created")
+    public int classesCreated;
+
+    @Label("Fields Created")
+    public int fieldsCreated;
+
+    public void complete(String rootClass, long valuesVisited, int classesCreated, int fieldsCreated) {
+        end();
+        if (shouldCommit()) {
+            this.rootClass = rootClass;
+            this.valuesVisited = valuesVisited;
+            this.classesCreated = classesCreated;
+            this.fieldsCreated = fieldsCreated;
+            commit();
+        }
+    }
+}
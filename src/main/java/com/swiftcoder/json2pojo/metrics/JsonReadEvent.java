@@ -0,0 +1,33 @@
+package com.swiftcoder.json2pojo.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.swiftcoder.json2pojo.JsonRead")
+@Label("JSON Read")
+@Category({"json2pojo"})
+@Description("Reading a JSON document; on the streaming paths this includes observing its shape")
+public class JsonReadEvent extends Event {
+    @Label("Source")
+    @Description("tree, stream, pipelined, incremental or lines")
+    public String source;
+
+    @Label("Input Length")
+    @Description("Bytes, or characters for character input")
+    @DataAmount
+    public long inputLength;
+
+    // Ends the event and commits it with its fields if it is enabled and over its threshold
+    public void complete(String source, long inputLength) {
+        end();
+        if (shouldCommit()) {
+            this.source = source;
+            this.inputLength = inputLength;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.swiftcoder.json2pojo.metrics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Snapshot of what each phase of one generation run cost: JSON read, inference, code render and
+ * file write. Phases are null until they ran; each API fills in its own and callers combine them
+ * with the {@code with} methods. The same phases are recorded as JFR events in category json2pojo.
+ */
+public class PipelineMetrics {
+    public static final PipelineMetrics EMPTY = new PipelineMetrics(null, null, null, null);
+
+    private final ReadPhase read;
+    private final InferencePhase inference;
+    private final RenderPhase render;
+    private final WritePhase write;
+
+    private PipelineMetrics(ReadPhase read, InferencePhase inference, RenderPhase render, WritePhase write) {
+        this.read = read;
+        this.inference = inference;
+        this.render = render;
+        this.write = write;
+    }
+
+    public ReadPhase getRead() {
+        return read;
+    }
+
+    public InferencePhase getInference() {
+        return inference;
+    }
+
+    public RenderPhase getRender() {
+        return render;
+    }
+
+    public WritePhase getWrite() {
+        return write;
+    }
+
+    public PipelineMetrics withRead(ReadPhase read) {
+        return new PipelineMetrics(read, inference, render, write);
+    }
+
+    public PipelineMetrics withInference(InferencePhase inference) {
+        return new PipelineMetrics(read, inference, render, write);
+    }
+
+    public PipelineMetrics withRender(RenderPhase render) {
+        return new PipelineMetrics(read, inference, render, write);
+    }
+
+    public PipelineMetrics withWrite(WritePhase write) {
+        return new PipelineMetrics(read, inference, render, write);
+    }
+
+    // One line per phase that ran, for the completion notification
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder();
+        if (read != null) {
+            line(summary, String.format(Locale.ROOT, "Read: %s, %s", millis(read.nanos), size(read.inputLength)));
+        }
+        if (inference != null) {
+            line(summary, String.format(Locale.ROOT, "Inference: %s, %d value(s) visited, %d class(es), %d field(s)",
+                millis(inference.nanos), inference.valuesVisited, inference.classesCreated, inference.fieldsCreated));
+        }
+        if (render != null) {
+            Map.Entry<String, Long> largest = largest(render.bytesPerClass);
+            line(summary, String.format(Locale.ROOT, "Render: %s, %s in %d class(es)%s", millis(render.nanos),
+                size(render.getTotalBytes()), render.bytesPerClass.size(),
+                largest == null ? "" : ", largest " + largest.getKey() + " " + size(largest.getValue())));
+        }
+        if (write != null) {
+            Map.Entry<String, Long> slowest = largest(write.nanosPerFile);
+            line(summary, String.format(Locale.ROOT, "Write: %s, %d file(s)%s", millis(write.nanos),
+                write.nanosPerFile.size(),
+                slowest == null ? "" : ", slowest " + slowest.getKey() + " " + millis(slowest.getValue())));
+        }
+        return summary.toString();
+    }
+
+    @Override
+    public String toString() {
+        return getSummary();
+    }
+
+    private static void line(StringBuilder summary, String line) {
+        if (summary.length() > 0) {
+            summary.append('\n');
+        }
+        summary.append(line);
+    }
+
+    private static Map.Entry<String, Long> largest(Map<String, Long> values) {
+        Map.Entry<String, Long> largest = null;
+        for (Map.Entry<String, Long> entry : values.entrySet()) {
+            if (largest == null || entry.getValue() > largest.getValue()) {
+                largest = entry;
+            }
+        }
+        return largest;
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f ms", nanos / 1e6);
+    }
+
+    private static String size(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        return bytes < 1024 * 1024
+            ? String.format(Locale.ROOT, "%.1f KB", bytes / 1024.0)
+            : String.format(Locale.ROOT, "%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+
+    // Parsing the document; the streaming paths observe shapes in the same pass
+    public static class ReadPhase {
+        private final long nanos;
+        private final long inputLength;
+
+        // inputLength is in bytes, or characters for character input
+        public ReadPhase(long nanos, long inputLength) {
+            this.nanos = nanos;
+            this.inputLength = inputLength;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public long getInputLength() {
+            return inputLength;
+        }
+    }
+
+    public static class InferencePhase {
+        private final long nanos;
+        private final long valuesVisited;
+        private final int classesCreated;
+        private final int fieldsCreated;
+
+        public InferencePhase(long nanos, long valuesVisited, int classesCreated, int fieldsCreated) {
+            this.nanos = nanos;
+            this.valuesVisited = valuesVisited;
+            this.classesCreated = classesCreated;
+            this.fieldsCreated = fieldsCreated;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        // Values observed into the schema; sampled-out values are not visited
+        public long getValuesVisited() {
+            return valuesVisited;
+        }
+
+        // Before canonicalization merges identical classes
+        public int getClassesCreated() {
+            return classesCreated;
+        }
+
+        public int getFieldsCreated() {
+            return fieldsCreated;
+        }
+    }
+
+    public static class RenderPhase {
+        private final long nanos;
+        private final Map<String, Long> bytesPerClass;
+
+        // nanos is summed over classes, so parallel rendering can exceed the wall-clock time
+        public RenderPhase(long nanos, Map<String, Long> bytesPerClass) {
+            this.nanos = nanos;
+            this.bytesPerClass = Collections.unmodifiableMap(new LinkedHashMap<>(bytesPerClass));
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        // UTF-8 size of each rendered class by qualified name, in generation order
+        public Map<String, Long> getBytesPerClass() {
+            return bytesPerClass;
+        }
+
+        public long getTotalBytes() {
+            long total = 0;
+            for (long bytes : bytesPerClass.values()) {
+                total += bytes;
+            }
+            return total;
+        }
+    }
+
+    public static class WritePhase {
+        private final long nanos;
+        private final Map<String, Long> nanosPerFile;
+
+        public WritePhase(long nanos, Map<String, Long> nanosPerFile) {
+            this.nanos = nanos;
+            this.nanosPerFile = Collections.unmodifiableMap(new LinkedHashMap<>(nanosPerFile));
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        // Time spent in the sink (file system or PSI/VFS) per file name, in write order
+        public Map<String, Long> getNanosPerFile() {
+            return nanosPerFile;
+        }
+    }
+}
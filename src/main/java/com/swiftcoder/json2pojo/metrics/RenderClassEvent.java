@@ -0,0 +1,30 @@
+package com.swiftcoder.json2pojo.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.swiftcoder.json2pojo.RenderClass")
+@Label("Render Class")
+@Category({"json2pojo"})
+@Description("Rendering the source of one generated class")
+public class RenderClassEvent extends Event {
+    @Label("Class")
+    public String className;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    public void complete(String className, long bytes) {
+        end();
+        if (shouldCommit()) {
+            this.className = className;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
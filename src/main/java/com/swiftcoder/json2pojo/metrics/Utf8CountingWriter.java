@@ -0,0 +1,59 @@
+package com.swiftcoder.json2pojo.metrics;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+// Passes everything through while counting its UTF-8 size, without encoding it twice
+public class Utf8CountingWriter extends FilterWriter {
+    private long bytes;
+
+    public Utf8CountingWriter(Writer out) {
+        super(out);
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        out.write(c);
+        bytes += utf8Length((char) c);
+    }
+
+    @Override
+    public void write(char[] buffer, int offset, int length) throws IOException {
+        out.write(buffer, offset, length);
+        for (int i = offset; i < offset + length; i++) {
+            bytes += utf8Length(buffer[i]);
+        }
+    }
+
+    @Override
+    public void write(String text, int offset, int length) throws IOException {
+        out.write(text, offset, length);
+        for (int i = offset; i < offset + length; i++) {
+            bytes += utf8Length(text.charAt(i));
+        }
+    }
+
+    public static long utf8Length(CharSequence text) {
+        long bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            bytes += utf8Length(text.charAt(i));
+        }
+        return bytes;
+    }
+
+    // Each half of a surrogate pair counts 2, making 4 for the pair
+    private static int utf8Length(char c) {
+        if (c < 0x80) {
+            return 1;
+        }
+        if (c < 0x800 || Character.isSurrogate(c)) {
+            return 2;
+        }
+        return 3;
+    }
+}
@@ -0,0 +1,30 @@
+package com.swiftcoder.json2pojo.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.swiftcoder.json2pojo.WriteFile")
+@Label("Write File")
+@Category({"json2pojo"})
+@Description("Handing one generated source to its sink (file system or PSI/VFS); may enclose its Render Class event")
+public class WriteFileEvent extends Event {
+    @Label("File")
+    public String fileName;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    public void complete(String fileName, long bytes) {
+        end();
+        if (shouldCommit()) {
+            this.fileName = fileName;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
@@ -8,14 +8,87 @@ public class GenerationConfig {
     private final Set<String> lombokAnnotations;
     private final String packageName;
     private final String rootClassName;
+    private final boolean generateReaders;
+    private final boolean generateWriters;
+    private final NullHandling nullHandling;
+    private final boolean usePrimitives;
+    private final boolean narrowNumbers;
+    private final int enumThreshold;
 
     public GenerationConfig(boolean useJackson, boolean useLombok, Set<String> lombokAnnotations, 
                            String packageName, String rootClassName) {
+        this(useJackson, useLombok, lombokAnnotations, packageName, rootClassName, false, false, NullHandling.INCLUDE,
+            false, false, 0);
+    }
+
+    private GenerationConfig(boolean useJackson, boolean useLombok, Set<String> lombokAnnotations,
+                             String packageName, String rootClassName, boolean generateReaders,
+                             boolean generateWriters, NullHandling nullHandling, boolean usePrimitives,
+                             boolean narrowNumbers, int enumThreshold) {
         this.useJackson = useJackson;
         this.useLombok = useLombok;
         this.lombokAnnotations = lombokAnnotations;
         this.packageName = packageName;
         this.rootClassName = rootClassName;
+        this.generateReaders = generateReaders;
+        this.generateWriters = generateWriters;
+        this.nullHandling = nullHandling;
+        this.usePrimitives = usePrimitives;
+        this.narrowNumbers = narrowNumbers;
+        this.enumThreshold = enumThreshold;
+    }
+
+    public GenerationConfig withPackageName(String packageName) {
+        return new GenerationConfig(useJackson, useLombok, lombokAnnotations, packageName, rootClassName,
+            generateReaders, generateWriters, nullHandling, usePrimitives, narrowNumbers,
+            enumThreshold);
+    }
+
+    public GenerationConfig withRootClassName(String rootClassName) {
+        return new GenerationConfig(useJackson, useLombok, lombokAnnotations, packageName, rootClassName,
+            generateReaders, generateWriters, nullHandling, usePrimitives, narrowNumbers,
+            enumThreshold);
+    }
+
+    // Also emit an XxxReader per class that reads it straight from a Jackson token stream
+    public GenerationConfig withGenerateReaders(boolean generateReaders) {
+        return new GenerationConfig(useJackson, useLombok, lombokAnnotations, packageName, rootClassName,
+            generateReaders, generateWriters, nullHandling, usePrimitives, narrowNumbers,
+            enumThreshold);
+    }
+
+    // Also emit an XxxWriter per class that writes it straight to a Jackson JsonGenerator
+    public GenerationConfig withGenerateWriters(boolean generateWriters) {
+        return new GenerationConfig(useJackson, useLombok, lombokAnnotations, packageName, rootClassName,
+            generateReaders, generateWriters, nullHandling, usePrimitives, narrowNumbers,
+            enumThreshold);
+    }
+
+    public GenerationConfig withNullHandling(NullHandling nullHandling) {
+        return new GenerationConfig(useJackson, useLombok, lombokAnnotations, packageName, rootClassName,
+            generateReaders, generateWriters, nullHandling, usePrimitives, narrowNumbers,
+            enumThreshold);
+    }
+
+    // Fields never seen null or missing become int/long/double/boolean, null-free numeric arrays int[]/long[]/double[]
+    public GenerationConfig withUsePrimitives(boolean usePrimitives) {
+        return new GenerationConfig(useJackson, useLombok, lombokAnnotations, packageName, rootClassName,
+            generateReaders, generateWriters, nullHandling, usePrimitives, narrowNumbers,
+            enumThreshold);
+    }
+
+    // Numbers get the narrowest type that holds every observed value: byte/short/int/long/BigInteger, float/double/BigDecimal
+    public GenerationConfig withNarrowNumbers(boolean narrowNumbers) {
+        return new GenerationConfig(useJackson, useLombok, lombokAnnotations, packageName, rootClassName,
+            generateReaders, generateWriters, nullHandling, usePrimitives, narrowNumbers,
+            enumThreshold);
+    }
+
+    // String fields with at most this many distinct observed values become enums; 0 turns enums off
+    public GenerationConfig withEnumThreshold(int enumThreshold) {
+        return new GenerationConfig(useJackson, useLombok, lombokAnnotations, packageName, rootClassName,
+            generateReaders, generateWriters, nullHandling, usePrimitives, narrowNumbers,
+            enumThreshold);
     }
 
     public boolean isUseJackson() {
@@ -37,4 +110,28 @@ public class GenerationConfig {
     public String getRootClassName() {
         return rootClassName;
     }
-}
\ No newline at end of file
+
+    public boolean isGenerateReaders() {
+        return generateReaders;
+    }
+
+    public boolean isGenerateWriters() {
+        return generateWriters;
+    }
+
+    public NullHandling getNullHandling() {
+        return nullHandling;
+    }
+
+    public boolean isUsePrimitives() {
+        return usePrimitives;
+    }
+
+    public boolean isNarrowNumbers() {
+        return narrowNumbers;
+    }
+
+    public int getEnumThreshold() {
+        return enumThreshold;
+    }
+}
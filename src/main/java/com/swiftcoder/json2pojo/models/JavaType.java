@@ -0,0 +1,123 @@
+package com.swiftcoder.json2pojo.models;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Interned descriptor of a Java type in generated code. Its List, Map and array forms are
+ * created once and kept on it. Interning is weak, so types no model uses are dropped.
+ */
+public final class JavaType {
+    // Looked up without locking, as rendering asks for these for nearly every field
+    private static final Map<String, JavaType> BUILT_IN = new HashMap<>();
+    // Guarded by itself; keyed by the type's own name, which keeps the entry while the type is in use
+    private static final Map<String, WeakReference<JavaType>> INTERNED = new WeakHashMap<>();
+
+    static {
+        for (String name : new String[]{"boolean", "byte", "short", "int", "long", "float", "double", "Boolean", "Byte",
+            "Short", "Integer", "Long", "Float", "Double", "String", "Object", "BigInteger", "BigDecimal"}) {
+            BUILT_IN.put(name, new JavaType(Kind.SIMPLE, name, null));
+        }
+    }
+
+    public enum Kind {
+        SIMPLE,
+        LIST,
+        MAP,
+        ARRAY
+    }
+
+    private final Kind kind;
+    private final String name;
+    // The element, value or component type; null for simple types
+    private final JavaType elementType;
+    private volatile JavaType listType;
+    private volatile JavaType mapType;
+    private volatile JavaType arrayType;
+
+    private JavaType(Kind kind, String name, JavaType elementType) {
+        this.kind = kind;
+        this.name = name;
+        this.elementType = elementType;
+    }
+
+    // A class, boxed, primitive or enum type by its simple name
+    public static JavaType of(String name) {
+        JavaType builtIn = BUILT_IN.get(name);
+        if (builtIn != null) {
+            return builtIn;
+        }
+        synchronized (INTERNED) {
+            WeakReference<JavaType> interned = INTERNED.get(name);
+            JavaType type = interned != null ? interned.get() : null;
+            if (type == null) {
+                type = new JavaType(Kind.SIMPLE, name, null);
+                // A stale entry keeps its old key, so it is replaced rather than overwritten
+                INTERNED.remove(name);
+                INTERNED.put(type.name, new WeakReference<>(type));
+            }
+            return type;
+        }
+    }
+
+    public JavaType list() {
+        JavaType type = listType;
+        if (type == null) {
+            type = new JavaType(Kind.LIST, "List<" + name + ">", this);
+            listType = type;
+        }
+        return type;
+    }
+
+    // Map<String, this>
+    public JavaType map() {
+        JavaType type = mapType;
+        if (type == null) {
+            type = new JavaType(Kind.MAP, "Map<String, " + name + ">", this);
+            mapType = type;
+        }
+        return type;
+    }
+
+    public JavaType array() {
+        JavaType type = arrayType;
+        if (type == null) {
+            type = new JavaType(Kind.ARRAY, name + "[]", this);
+            arrayType = type;
+        }
+        return type;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    // The rendered type, e.g. "Map<String, Integer>"
+    public String getName() {
+        return name;
+    }
+
+    public JavaType getElementType() {
+        return elementType;
+    }
+
+    // Racing threads may briefly create equal instances, so equality still compares names
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return name.equals(((JavaType) o).name);
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
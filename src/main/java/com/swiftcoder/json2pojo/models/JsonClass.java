@@ -1,16 +1,31 @@
 package com.swiftcoder.json2pojo.models;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.Set;
 
+/**
+ * A generated class: its fields in declaration order and the classes nested under it. Fields
+ * live in a plain array with an open-addressing name index beside it, built on the first lookup,
+ * so classes with thousands of fields are looked up and merged without linear scans.
+ */
 public class JsonClass {
-    private final String className;
-    private final List<JsonField> fields;
+    // Up to this many fields a scan is cheaper than hashing
+    private static final int INDEX_THRESHOLD = 8;
+
+    private String className;
+    private JsonField[] fields = new JsonField[4];
+    private int fieldCount;
+    // Slots hold field index + 1, 0 when empty; at most half full. Null until needed
+    private int[] nameIndex;
+    private final List<JsonField> fieldView = new FieldList();
     private final List<JsonClass> nestedClasses;
 
     public JsonClass(String className) {
         this.className = className;
-        this.fields = new ArrayList<>();
         this.nestedClasses = new ArrayList<>();
     }
 
@@ -18,8 +33,13 @@ public class JsonClass {
         return className;
     }
 
+    public void setClassName(String className) {
+        this.className = className;
+    }
+
+    // Read-only view in declaration order; change fields through addField and replaceField
     public List<JsonField> getFields() {
-        return fields;
+        return fieldView;
     }
 
     public List<JsonClass> getNestedClasses() {
@@ -27,14 +47,115 @@ public class JsonClass {
     }
 
     public void addField(JsonField field) {
-        fields.add(field);
+        if (fieldCount == fields.length) {
+            fields = Arrays.copyOf(fields, fieldCount * 2);
+        }
+        fields[fieldCount++] = field;
+        if (nameIndex != null) {
+            if (fieldCount * 2 > nameIndex.length) {
+                rebuildIndex();
+            } else {
+                insert(nameIndex, fieldCount - 1);
+            }
+        }
+    }
+
+    public void replaceField(int index, JsonField field) {
+        if (index < 0 || index >= fieldCount) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + fieldCount);
+        }
+        boolean renamed = !fields[index].getName().equals(field.getName());
+        fields[index] = field;
+        if (renamed) {
+            nameIndex = null;
+        }
+    }
+
+    // The first field with this name, or null
+    public JsonField getField(String name) {
+        int index = indexOfField(name);
+        return index < 0 ? null : fields[index];
+    }
+
+    public int indexOfField(String name) {
+        if (fieldCount <= INDEX_THRESHOLD) {
+            for (int i = 0; i < fieldCount; i++) {
+                if (fields[i].getName().equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        if (nameIndex == null) {
+            rebuildIndex();
+        }
+        int mask = nameIndex.length - 1;
+        for (int slot = spread(name.hashCode()) & mask; nameIndex[slot] != 0; slot = (slot + 1) & mask) {
+            int index = nameIndex[slot] - 1;
+            if (fields[index].getName().equals(name)) {
+                return index;
+            }
+        }
+        return -1;
     }
 
     public void addNestedClass(JsonClass nestedClass) {
         nestedClasses.add(nestedClass);
     }
 
+    public void removeNestedClass(JsonClass nestedClass) {
+        nestedClasses.remove(nestedClass);
+    }
+
+    // One pass over the list, however many are removed
+    public void removeNestedClasses(Set<JsonClass> removed) {
+        nestedClasses.removeIf(removed::contains);
+    }
+
     public boolean hasNestedClasses() {
         return !nestedClasses.isEmpty();
     }
-}
\ No newline at end of file
+
+    private void rebuildIndex() {
+        int capacity = Integer.highestOneBit(Math.max(INDEX_THRESHOLD, fieldCount) * 2) * 2;
+        int[] index = new int[capacity];
+        for (int i = 0; i < fieldCount; i++) {
+            insert(index, i);
+        }
+        nameIndex = index;
+    }
+
+    // Linear probing; a repeated name keeps pointing at its first field
+    private void insert(int[] index, int fieldIndex) {
+        String name = fields[fieldIndex].getName();
+        int mask = index.length - 1;
+        int slot = spread(name.hashCode()) & mask;
+        while (index[slot] != 0) {
+            if (fields[index[slot] - 1].getName().equals(name)) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = fieldIndex + 1;
+    }
+
+    // As in HashMap: the mask keeps only low bits, so fold the high ones in
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private final class FieldList extends AbstractList<JsonField> implements RandomAccess {
+        @Override
+        public JsonField get(int index) {
+            if (index < 0 || index >= fieldCount) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + fieldCount);
+            }
+            return fields[index];
+        }
+
+        @Override
+        public int size() {
+            return fieldCount;
+        }
+    }
+}
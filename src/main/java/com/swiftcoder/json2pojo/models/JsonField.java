@@ -1,20 +1,57 @@
 package com.swiftcoder.json2pojo.models;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 public class JsonField {
     private final String name;
-    private final String type;
+    private final JavaType type;
     private final boolean isArray;
+    private final boolean isMap;
     private final boolean isNullable;
+    private final boolean isOptional;
+    private final boolean isElementNullable;
     private final String originalJsonType;
+    private final String numericType;
+    private final String enumName;
+    private final List<String> enumValues;
+
+    private static final List<String> INTEGRAL_TYPES = List.of("Byte", "Short", "Integer", "Long", "BigInteger");
+    private static final List<String> DECIMAL_TYPES = List.of("Float", "Double", "BigDecimal");
 
     public JsonField(String name, String type, boolean isArray, boolean isNullable, String originalJsonType) {
+        this(name, type, isArray, isNullable, false, originalJsonType);
+    }
+
+    public JsonField(String name, String type, boolean isArray, boolean isNullable, boolean isOptional,
+                     String originalJsonType) {
+        this(name, type, isArray, isNullable, isOptional, false, originalJsonType);
+    }
+
+    public JsonField(String name, String type, boolean isArray, boolean isNullable, boolean isOptional,
+                     boolean isElementNullable, String originalJsonType) {
+        this(name, JavaType.of(type), isArray, false, isNullable, isOptional, isElementNullable, originalJsonType, null,
+            null, null);
+    }
+
+    private JsonField(String name, JavaType type, boolean isArray, boolean isMap, boolean isNullable, boolean isOptional,
+                      boolean isElementNullable, String originalJsonType, String numericType,
+                      String enumName, List<String> enumValues) {
         this.name = name;
         this.type = type;
         this.isArray = isArray;
+        this.isMap = isMap;
         this.isNullable = isNullable;
+        this.isOptional = isOptional;
+        this.isElementNullable = isElementNullable;
         this.originalJsonType = originalJsonType;
+        this.numericType = numericType;
+        this.enumName = enumName;
+        this.enumValues = enumValues;
     }
 
     public String getName() {
@@ -22,6 +59,10 @@ public class JsonField {
     }
 
     public String getType() {
+        return type.getName();
+    }
+
+    public JavaType getTypeDescriptor() {
         return type;
     }
 
@@ -29,19 +70,173 @@ public class JsonField {
         return isArray;
     }
 
+    // Map<String, type>: an object keyed by data (IDs, dates) rather than by field names
+    public boolean isMap() {
+        return isMap;
+    }
+
     public boolean isNullable() {
         return isNullable;
     }
 
+    // True when the field was missing from at least one of the merged objects
+    public boolean isOptional() {
+        return isOptional;
+    }
+
+    // For arrays: true when at least one element was null
+    public boolean isElementNullable() {
+        return isElementNullable;
+    }
+
     public String getOriginalJsonType() {
         return originalJsonType;
     }
 
     public String getJavaType() {
         if (isArray) {
-            return "List<" + type + ">";
+            return type.list().getName();
         }
-        return type;
+        if (isMap) {
+            return type.map().getName();
+        }
+        return type.getName();
+    }
+
+    // The Java type under config: numbers narrowed to their observed range when narrowNumbers is set,
+    // then values proven never null or missing as primitives and null-free numeric arrays as primitive arrays
+    public String getJavaType(GenerationConfig config) {
+        return getJavaTypeDescriptor(config).getName();
+    }
+
+    // Called for every declaration, accessor and constructor parameter, so it only looks up interned types
+    public JavaType getJavaTypeDescriptor(GenerationConfig config) {
+        String valueType = getValueType(config);
+        JavaType value = valueType.equals(type.getName()) ? type : JavaType.of(valueType);
+        if (isMap) {
+            return value.map();
+        }
+        if (config.isUsePrimitives()) {
+            String primitive = getPrimitiveType(valueType);
+            if (primitive != null && isArray && !isElementNullable && !"boolean".equals(primitive)) {
+                return JavaType.of(primitive).array();
+            }
+            if (primitive != null && !isArray && !isNullable && !isOptional
+                    && ("NUMBER".equals(originalJsonType) || "BOOLEAN".equals(originalJsonType))) {
+                return JavaType.of(primitive);
+            }
+        }
+        return isArray ? value.list() : value;
+    }
+
+    // Boxed type of the value, or of each element for arrays and each value for maps
+    public String getValueType(GenerationConfig config) {
+        if (isEnum(config)) {
+            return enumName;
+        }
+        if (config.isNarrowNumbers() && numericType != null) {
+            // byte[] would be (de)serialized as base64, so array elements narrow to Short at most
+            if (isArray && "Byte".equals(numericType)) {
+                return "Short";
+            }
+            return numericType;
+        }
+        return type.getName();
+    }
+
+    // Strings with few enough distinct values become an enum of those values when enumThreshold allows
+    public boolean isEnum(GenerationConfig config) {
+        return enumValues != null && !enumValues.isEmpty() && enumValues.size() <= config.getEnumThreshold();
+    }
+
+    public String getEnumName() {
+        return enumName;
+    }
+
+    // Every distinct string observed, in first-seen order, or null when there were too many to track
+    public List<String> getEnumValues() {
+        return enumValues;
+    }
+
+    // Narrowest boxed numeric type that holds every observed value (Byte ... BigDecimal), or null
+    public String getNumericType() {
+        return numericType;
+    }
+
+    private static String getPrimitiveType(String boxedType) {
+        switch (boxedType) {
+            case "Byte":
+                return "byte";
+            case "Short":
+                return "short";
+            case "Integer":
+                return "int";
+            case "Long":
+                return "long";
+            case "Float":
+                return "float";
+            case "Double":
+                return "double";
+            case "Boolean":
+                return "boolean";
+            default:
+                return null;
+        }
+    }
+
+    public JsonField withType(String type) {
+        return new JsonField(name, JavaType.of(type), isArray, isMap, isNullable, isOptional, isElementNullable, originalJsonType,
+            numericType, enumName, enumValues);
+    }
+
+    public JsonField withNumericType(String numericType) {
+        return new JsonField(name, type, isArray, isMap, isNullable, isOptional, isElementNullable, originalJsonType,
+            numericType, enumName, enumValues);
+    }
+
+    public JsonField withMap(boolean isMap) {
+        return new JsonField(name, type, isArray, isMap, isNullable, isOptional, isElementNullable, originalJsonType,
+            numericType, enumName, enumValues);
+    }
+
+    public JsonField withEnum(String enumName, List<String> enumValues) {
+        return new JsonField(name, type, isArray, isMap, isNullable, isOptional, isElementNullable, originalJsonType,
+            numericType, enumName, enumValues == null ? null : Collections.unmodifiableList(new ArrayList<>(enumValues)));
+    }
+
+    // The union of both fields' null/missing flags, numeric ranges and enum values, keeping this field's name and type
+    public JsonField widen(JsonField other) {
+        return new JsonField(name, type, isArray, isMap, isNullable || other.isNullable, isOptional || other.isOptional,
+            isElementNullable || other.isElementNullable, originalJsonType, widerNumericType(numericType, other.numericType),
+            enumName, unionEnumValues(enumValues, other.enumValues));
+    }
+
+    // Untracked on either side means the union is unknown too
+    private static List<String> unionEnumValues(List<String> first, List<String> second) {
+        if (first == null || second == null) {
+            return null;
+        }
+        Set<String> union = new LinkedHashSet<>(first);
+        union.addAll(second);
+        return union.size() == first.size() ? first : Collections.unmodifiableList(new ArrayList<>(union));
+    }
+
+    private static String widerNumericType(String first, String second) {
+        if (first == null || second == null) {
+            return first == null ? second : first;
+        }
+        int firstIndex = INTEGRAL_TYPES.indexOf(first);
+        int secondIndex = INTEGRAL_TYPES.indexOf(second);
+        if (firstIndex < 0 || secondIndex < 0) {
+            firstIndex = DECIMAL_TYPES.indexOf(first);
+            secondIndex = DECIMAL_TYPES.indexOf(second);
+            if (firstIndex < 0 || secondIndex < 0) {
+                // One integral and one decimal: only BigDecimal holds both
+                return "BigDecimal";
+            }
+            return DECIMAL_TYPES.get(Math.max(firstIndex, secondIndex));
+        }
+        return INTEGRAL_TYPES.get(Math.max(firstIndex, secondIndex));
     }
 
     @Override
@@ -50,13 +245,20 @@ public class JsonField {
         if (o == null || getClass() != o.getClass()) return false;
         JsonField jsonField = (JsonField) o;
         return isArray == jsonField.isArray &&
+                isMap == jsonField.isMap &&
                 isNullable == jsonField.isNullable &&
+                isOptional == jsonField.isOptional &&
+                isElementNullable == jsonField.isElementNullable &&
                 Objects.equals(name, jsonField.name) &&
-                Objects.equals(type, jsonField.type);
+                Objects.equals(type, jsonField.type) &&
+                Objects.equals(numericType, jsonField.numericType) &&
+                Objects.equals(enumName, jsonField.enumName) &&
+                Objects.equals(enumValues, jsonField.enumValues);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, type, isArray, isNullable);
+        return Objects.hash(name, type, isArray, isMap, isNullable, isOptional, isElementNullable, numericType, enumName,
+            enumValues);
     }
 }
\ No newline at end of file
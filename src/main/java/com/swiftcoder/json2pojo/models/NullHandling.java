@@ -0,0 +1,15 @@
+package com.swiftcoder.json2pojo.models;
+
+// How generated writers treat a null field value
+public enum NullHandling {
+    // Always write the field, as "field": null (matches default databind output)
+    INCLUDE,
+    // Leave null fields out of the output
+    OMIT,
+    // Per field: omit nulls for fields that were missing from some samples, write them for fields that were present
+    INFERRED;
+
+    public boolean omits(JsonField field) {
+        return this == OMIT || (this == INFERRED && field.isOptional());
+    }
+}
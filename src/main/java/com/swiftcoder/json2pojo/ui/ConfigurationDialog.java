@@ -1,22 +1,40 @@
 package com.swiftcoder.json2pojo.ui;
 
+import com.swiftcoder.json2pojo.inference.StringStats;
+import com.swiftcoder.json2pojo.inference.SymbolTable;
 import com.swiftcoder.json2pojo.models.GenerationConfig;
+import com.swiftcoder.json2pojo.models.NullHandling;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.ui.DocumentAdapter;
+import com.intellij.ui.JBSplitter;
 import com.intellij.ui.components.JBScrollPane;
 import com.intellij.ui.components.JBTextArea;
 import com.intellij.ui.components.JBTextField;
+import com.intellij.util.Alarm;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.IOException;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class ConfigurationDialog extends DialogWrapper {
+    // Typing pause after which the preview is regenerated
+    private static final int PREVIEW_DELAY_MS = 150;
+
     private JBTextArea jsonTextArea;
+    private JBTextArea previewTextArea;
     private JBTextField packageNameField;
     private JBTextField classNameField;
     private JCheckBox useJacksonCheckBox;
@@ -27,18 +45,33 @@ public class ConfigurationDialog extends DialogWrapper {
     private JCheckBox lombokBuilderCheckBox;
     private JCheckBox lombokNoArgsConstructorCheckBox;
     private JCheckBox lombokAllArgsConstructorCheckBox;
+    private JCheckBox generateReadersCheckBox;
+    private JCheckBox usePrimitivesCheckBox;
+    private JCheckBox narrowNumbersCheckBox;
+    private JCheckBox generateEnumsCheckBox;
+    private JSpinner enumThresholdSpinner;
+    private JCheckBox generateWritersCheckBox;
+    private JComboBox<NullHandling> nullHandlingComboBox;
 
     private String jsonInput;
     private GenerationConfig config;
     private String defaultPackageName;
 
-    public ConfigurationDialog(Project project) {
-        this(project, "com.swiftcoder.model");
+    private final GenerationPreview preview;
+    private final Alarm previewAlarm;
+    // Bumped on every change, so a preview still running for older input knows it is out of date
+    private final AtomicLong previewRevision = new AtomicLong();
+
+    public ConfigurationDialog(Project project, SymbolTable symbols) {
+        this(project, "com.swiftcoder.model", symbols);
     }
 
-    public ConfigurationDialog(Project project, String defaultPackageName) {
+    // symbols are shared with the generation that follows, so the preview warms them up
+    public ConfigurationDialog(Project project, String defaultPackageName, SymbolTable symbols) {
         super(project);
         this.defaultPackageName = defaultPackageName != null ? defaultPackageName : "com.swiftcoder.model";
+        this.preview = new GenerationPreview(symbols);
+        this.previewAlarm = new Alarm(Alarm.ThreadToUse.SWING_THREAD, getDisposable());
         setTitle("Generate POJO from JSON");
         setModal(true);
         init();
@@ -56,6 +89,18 @@ public class ConfigurationDialog extends DialogWrapper {
         jsonTextArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
         jsonPanel.add(new JBScrollPane(jsonTextArea), BorderLayout.CENTER);
 
+        // Preview Section
+        JPanel previewPanel = new JPanel(new BorderLayout());
+        previewPanel.setBorder(BorderFactory.createTitledBorder("Preview (all elements)"));
+        previewTextArea = new JBTextArea(15, 50);
+        previewTextArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        previewTextArea.setEditable(false);
+        previewPanel.add(new JBScrollPane(previewTextArea), BorderLayout.CENTER);
+
+        JBSplitter splitter = new JBSplitter(false, 0.5f);
+        splitter.setFirstComponent(jsonPanel);
+        splitter.setSecondComponent(previewPanel);
+
         // Configuration Section
         JPanel configPanel = new JPanel(new GridBagLayout());
         configPanel.setBorder(BorderFactory.createTitledBorder("Configuration"));
@@ -106,6 +151,39 @@ public class ConfigurationDialog extends DialogWrapper {
         gbc.gridx = 0; gbc.gridy = 4; gbc.gridwidth = 2; gbc.fill = GridBagConstraints.HORIZONTAL;
         configPanel.add(lombokPanel, gbc);
 
+        // Streaming (de)serializer options
+        gbc.gridx = 0; gbc.gridy = 5; gbc.gridwidth = 2; gbc.fill = GridBagConstraints.NONE;
+        generateReadersCheckBox = new JCheckBox("Generate Streaming Readers");
+        configPanel.add(generateReadersCheckBox, gbc);
+
+        gbc.gridx = 0; gbc.gridy = 7; gbc.gridwidth = 2;
+        usePrimitivesCheckBox = new JCheckBox("Use Primitive Types Where Never Null");
+        configPanel.add(usePrimitivesCheckBox, gbc);
+
+        gbc.gridx = 0; gbc.gridy = 8; gbc.gridwidth = 2;
+        narrowNumbersCheckBox = new JCheckBox("Narrow Numbers to Observed Value Range");
+        configPanel.add(narrowNumbersCheckBox, gbc);
+
+        gbc.gridx = 0; gbc.gridy = 9; gbc.gridwidth = 1;
+        generateEnumsCheckBox = new JCheckBox("Generate Enums for Strings With at Most");
+        configPanel.add(generateEnumsCheckBox, gbc);
+        gbc.gridx = 1;
+        enumThresholdSpinner = new JSpinner(new SpinnerNumberModel(50, 2, StringStats.MAX_TRACKED_VALUES, 1));
+        enumThresholdSpinner.setToolTipText("Distinct values a string field may have to become an enum");
+        enumThresholdSpinner.setEnabled(false);
+        configPanel.add(enumThresholdSpinner, gbc);
+        generateEnumsCheckBox.addActionListener(e -> enumThresholdSpinner.setEnabled(generateEnumsCheckBox.isSelected()));
+
+        gbc.gridx = 0; gbc.gridy = 6; gbc.gridwidth = 1;
+        generateWritersCheckBox = new JCheckBox("Generate Streaming Writers");
+        configPanel.add(generateWritersCheckBox, gbc);
+        gbc.gridx = 1;
+        nullHandlingComboBox = new JComboBox<>(NullHandling.values());
+        nullHandlingComboBox.setToolTipText("How writers treat null fields");
+        nullHandlingComboBox.setEnabled(false);
+        configPanel.add(nullHandlingComboBox, gbc);
+        generateWritersCheckBox.addActionListener(e -> nullHandlingComboBox.setEnabled(generateWritersCheckBox.isSelected()));
+
         // Add action listeners
         useLombokCheckBox.addActionListener(new ActionListener() {
             @Override
@@ -133,7 +211,26 @@ public class ConfigurationDialog extends DialogWrapper {
         lombokGetterCheckBox.setSelected(true);
         lombokSetterCheckBox.setSelected(true);
 
-        panel.add(jsonPanel, BorderLayout.CENTER);
+        // Every edit and option change schedules a preview
+        DocumentAdapter previewOnEdit = new DocumentAdapter() {
+            @Override
+            protected void textChanged(@NotNull DocumentEvent e) {
+                schedulePreview();
+            }
+        };
+        jsonTextArea.getDocument().addDocumentListener(previewOnEdit);
+        packageNameField.getDocument().addDocumentListener(previewOnEdit);
+        classNameField.getDocument().addDocumentListener(previewOnEdit);
+        for (AbstractButton option : List.of(useJacksonCheckBox, useLombokCheckBox, lombokGetterCheckBox,
+                lombokSetterCheckBox, lombokDataCheckBox, lombokBuilderCheckBox, lombokNoArgsConstructorCheckBox,
+                lombokAllArgsConstructorCheckBox, generateReadersCheckBox, usePrimitivesCheckBox,
+                narrowNumbersCheckBox, generateEnumsCheckBox, generateWritersCheckBox)) {
+            option.addActionListener(e -> schedulePreview());
+        }
+        nullHandlingComboBox.addActionListener(e -> schedulePreview());
+        enumThresholdSpinner.addChangeListener(e -> schedulePreview());
+
+        panel.add(splitter, BorderLayout.CENTER);
         panel.add(configPanel, BorderLayout.SOUTH);
 
         return panel;
@@ -148,6 +245,19 @@ public class ConfigurationDialog extends DialogWrapper {
             return;
         }
 
+        config = buildConfig();
+
+        super.doOKAction();
+    }
+
+    @Override
+    protected void dispose() {
+        // Abandons a preview that is still inferring
+        previewRevision.incrementAndGet();
+        super.dispose();
+    }
+
+    private GenerationConfig buildConfig() {
         Set<String> lombokAnnotations = new HashSet<>();
         if (useLombokCheckBox.isSelected()) {
             if (lombokGetterCheckBox.isSelected()) lombokAnnotations.add("@Getter");
@@ -158,15 +268,58 @@ public class ConfigurationDialog extends DialogWrapper {
             if (lombokAllArgsConstructorCheckBox.isSelected()) lombokAnnotations.add("@AllArgsConstructor");
         }
 
-        config = new GenerationConfig(
+        return new GenerationConfig(
             useJacksonCheckBox.isSelected(),
             useLombokCheckBox.isSelected(),
             lombokAnnotations,
             packageNameField.getText().trim(),
             classNameField.getText().trim()
-        );
+        ).withGenerateReaders(generateReadersCheckBox.isSelected())
+            .withGenerateWriters(generateWritersCheckBox.isSelected())
+            .withNullHandling((NullHandling) nullHandlingComboBox.getSelectedItem())
+            .withUsePrimitives(usePrimitivesCheckBox.isSelected())
+            .withNarrowNumbers(narrowNumbersCheckBox.isSelected())
+            .withEnumThreshold(generateEnumsCheckBox.isSelected() ? (Integer) enumThresholdSpinner.getValue() : 0);
+    }
 
-        super.doOKAction();
+    // Restarts the debounce; a preview already running goes stale right away
+    private void schedulePreview() {
+        previewRevision.incrementAndGet();
+        previewAlarm.cancelAllRequests();
+        previewAlarm.addRequest(this::startPreview, PREVIEW_DELAY_MS);
+    }
+
+    // On the EDT once typing paused: takes the input as it is now, then infers and renders on a pooled thread
+    private void startPreview() {
+        long revision = previewRevision.get();
+        String json = jsonTextArea.getText().trim();
+        GenerationConfig previewConfig = buildConfig();
+        if (json.isEmpty() || previewConfig.getRootClassName().isEmpty()) {
+            previewTextArea.setText("");
+            return;
+        }
+        Runnable cancellationCheck = () -> {
+            if (previewRevision.get() != revision) {
+                throw new CancellationException();
+            }
+        };
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            String text;
+            try {
+                text = preview.render(json, previewConfig, cancellationCheck);
+            } catch (CancellationException e) {
+                return;
+            } catch (IOException e) {
+                text = "Invalid JSON: " + e.getMessage();
+            }
+            String shown = text;
+            ApplicationManager.getApplication().invokeLater(() -> {
+                if (previewRevision.get() == revision) {
+                    previewTextArea.setText(shown);
+                    previewTextArea.setCaretPosition(0);
+                }
+            }, ModalityState.stateForComponent(previewTextArea));
+        });
     }
 
     public String getJsonInput() {
@@ -0,0 +1,58 @@
+package com.swiftcoder.json2pojo.ui;
+
+import com.swiftcoder.json2pojo.JsonParser;
+import com.swiftcoder.json2pojo.generators.JavaCodeGenerator;
+import com.swiftcoder.json2pojo.inference.IncrementalShapeReader;
+import com.swiftcoder.json2pojo.inference.InferenceLimits;
+import com.swiftcoder.json2pojo.inference.SamplingConfig;
+import com.swiftcoder.json2pojo.inference.StreamingShapeReader;
+import com.swiftcoder.json2pojo.inference.SymbolTable;
+import com.swiftcoder.json2pojo.models.GenerationConfig;
+import com.swiftcoder.json2pojo.models.JsonClass;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Classes for the JSON and options in the configuration dialog, inferred from every element
+ * rather than the sample generation uses. Inference is incremental across calls.
+ */
+public class GenerationPreview {
+    private final SymbolTable symbols;
+    private final IncrementalShapeReader shapeReader;
+    private final JavaCodeGenerator generator = new JavaCodeGenerator();
+    // Guarded by this
+    private String lastJson;
+    private String lastRootClassName;
+    private JsonClass lastRootClass;
+
+    public GenerationPreview(SymbolTable symbols) {
+        this.symbols = symbols;
+        this.shapeReader = new IncrementalShapeReader(symbols.getJsonFactory(), new StreamingShapeReader());
+    }
+
+    // cancellationCheck throws once the preview is out of date; rendering happens outside the lock
+    public String render(String json, GenerationConfig config, Runnable cancellationCheck) throws IOException {
+        JsonClass rootClass;
+        synchronized (this) {
+            check(cancellationCheck);
+            if (!json.equals(lastJson) || !config.getRootClassName().equals(lastRootClassName)) {
+                JsonParser parser = new JsonParser(SamplingConfig.all().withLimits(InferenceLimits.interactive()),
+                    cancellationCheck, symbols);
+                lastRootClass = parser.inferJsonIncremental(json.getBytes(StandardCharsets.UTF_8),
+                    config.getRootClassName(), shapeReader).getRootClass();
+                lastJson = json;
+                lastRootClassName = config.getRootClassName();
+            }
+            rootClass = lastRootClass;
+        }
+        check(cancellationCheck);
+        return String.join("\n", generator.generateJavaClasses(rootClass, config));
+    }
+
+    private static void check(Runnable cancellationCheck) {
+        if (cancellationCheck != null) {
+            cancellationCheck.run();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.swiftcoder.json2pojo;
+
+import com.swiftcoder.json2pojo.cli.BatchGenerator;
+import com.swiftcoder.json2pojo.cli.BatchSummary;
+import com.swiftcoder.json2pojo.cli.SampleResult;
+import com.swiftcoder.json2pojo.generators.GenerationCache;
+import com.swiftcoder.json2pojo.inference.SamplingConfig;
+import com.swiftcoder.json2pojo.models.GenerationConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchGeneratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static final GenerationConfig CONFIG =
+        new GenerationConfig(false, false, Set.of(), "com.example.api", "Root");
+
+    @Test
+    public void testEachSampleGetsItsOwnPackage() throws IOException {
+        Path samples = tempDir.resolve("samples");
+        write(samples.resolve("user-profile.json"), "{\"name\":\"a\",\"address\":{\"city\":\"x\"}}");
+        write(samples.resolve("orders/order.json"), "[{\"id\":1,\"address\":{\"zip\":\"1\"}}]");
+        write(samples.resolve("events.ndjson"), "{\"type\":\"a\"}\n{\"type\":\"b\",\"at\":3}\n");
+        write(samples.resolve("broken.json"), "{\"name\":");
+        write(samples.resolve("notes.txt"), "not a sample");
+
+        List<Path> found = BatchGenerator.findSamples(samples.toString());
+        assertEquals(4, found.size());
+
+        Path output = tempDir.resolve("out");
+        BatchSummary summary = new BatchGenerator(CONFIG, SamplingConfig.all(), 2, null).run(found, output);
+
+        assertEquals(4, summary.getResults().size());
+        assertEquals(1, summary.getFailures().size());
+        assertTrue(summary.getFailures().get(0).getSample().endsWith("broken.json"));
+        assertEquals(5, summary.getClassesWritten());
+        assertTrue(summary.getBytesRead() > 0);
+
+        // Both samples have an Address class, which must not collide
+        assertTrue(Files.exists(output.resolve("com/example/api/user_profile/UserProfile.java")));
+        assertTrue(Files.exists(output.resolve("com/example/api/user_profile/Address.java")));
+        assertTrue(Files.exists(output.resolve("com/example/api/order/Order.java")));
+        assertTrue(Files.exists(output.resolve("com/example/api/order/Address.java")));
+        assertTrue(Files.exists(output.resolve("com/example/api/events/Events.java")));
+        String events = Files.readString(output.resolve("com/example/api/events/Events.java"));
+        assertTrue(events.contains("package com.example.api.events;"));
+    }
+
+    @Test
+    public void testGlobSelectsMatchingFiles() throws IOException {
+        write(tempDir.resolve("a/one.json"), "{}");
+        write(tempDir.resolve("a/two.jsonl"), "{}");
+        write(tempDir.resolve("b/three.json"), "{}");
+
+        List<Path> found = BatchGenerator.findSamples(tempDir.toString() + "/*/*.json");
+        assertEquals(List.of(tempDir.resolve("a/one.json"), tempDir.resolve("b/three.json")), found);
+    }
+
+    @Test
+    public void testCacheSkipsUnchangedSamples() throws IOException {
+        Path samples = tempDir.resolve("samples");
+        write(samples.resolve("first.json"), "{\"id\":1,\"child\":{\"x\":true}}");
+        write(samples.resolve("second.json"), "{\"name\":\"b\"}");
+        Path output = tempDir.resolve("out");
+        Path cacheFile = tempDir.resolve("cache.properties");
+        List<Path> found = BatchGenerator.findSamples(samples.toString());
+
+        BatchSummary first = new BatchGenerator(CONFIG, SamplingConfig.all(), 2, GenerationCache.load(cacheFile))
+            .run(found, output);
+        assertEquals(3, first.getClassesWritten());
+        assertEquals(0, first.getClassesSkipped());
+
+        write(samples.resolve("second.json"), "{\"name\":\"b\",\"age\":3}");
+        BatchSummary second = new BatchGenerator(CONFIG, SamplingConfig.all(), 2, GenerationCache.load(cacheFile))
+            .run(found, output);
+        assertEquals(1, second.getClassesWritten());
+        assertEquals(2, second.getClassesSkipped());
+        for (SampleResult result : second.getResults()) {
+            assertFalse(result.isFailed());
+        }
+    }
+
+    @Test
+    public void testPruneAndRemoveDeleteStaleClasses() throws IOException {
+        Path samples = tempDir.resolve("samples");
+        write(samples.resolve("order.json"), "{\"id\":1,\"address\":{\"zip\":\"1\"}}");
+        write(samples.resolve("user.json"), "{\"name\":\"a\"}");
+        Path output = tempDir.resolve("out");
+        Path packageRoot = output.resolve("com/example/api");
+        BatchGenerator batch = new BatchGenerator(CONFIG, SamplingConfig.all(), 1, GenerationCache.inMemory(), true);
+        batch.run(BatchGenerator.findSamples(samples.toString()), output);
+        assertTrue(Files.exists(packageRoot.resolve("order/Address.java")));
+
+        write(samples.resolve("order.json"), "{\"id\":1}");
+        batch.run(List.of(samples.resolve("order.json")), output);
+        assertTrue(Files.exists(packageRoot.resolve("order/Order.java")));
+        assertFalse(Files.exists(packageRoot.resolve("order/Address.java")));
+
+        Files.delete(samples.resolve("user.json"));
+        batch.remove(List.of(samples.resolve("user.json")), output);
+        assertFalse(Files.exists(packageRoot.resolve("user")));
+        assertTrue(Files.exists(packageRoot.resolve("order/Order.java")));
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
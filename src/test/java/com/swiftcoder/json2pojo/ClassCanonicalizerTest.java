@@ -0,0 +1,75 @@
+package com.swiftcoder.json2pojo;
+
+import com.swiftcoder.json2pojo.inference.InferenceResult;
+import com.swiftcoder.json2pojo.models.JsonClass;
+import com.swiftcoder.json2pojo.models.JsonField;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClassCanonicalizerTest {
+
+    @Test
+    public void testIdenticalShapesShareOneClass() throws IOException {
+        String json = "{\"billingAddress\":{\"street\":\"a\",\"city\":\"b\"},"
+            + "\"shippingAddress\":{\"street\":\"c\",\"city\":\"d\"},"
+            + "\"homeAddress\":{\"street\":\"e\",\"city\":\"f\"},"
+            + "\"geo\":{\"lat\":1.5,\"lon\":2.5}}";
+        InferenceResult result = new JsonParser().inferJson(json, "Customer");
+        JsonClass customer = result.getRootClass();
+
+        assertEquals(2, customer.getNestedClasses().size());
+        JsonClass address = customer.getNestedClasses().get(0);
+        assertEquals("Address", address.getClassName());
+        for (int i = 0; i < 3; i++) {
+            assertEquals("Address", customer.getFields().get(i).getType());
+        }
+        assertEquals("Geo", customer.getFields().get(3).getType());
+        assertEquals(2, result.getReport().getDuplicateClasses());
+    }
+
+    @Test
+    public void testNestedDuplicatesCollapseBottomUp() throws IOException {
+        String json = "{\"from\":{\"name\":\"x\",\"location\":{\"zip\":\"1\"}},"
+            + "\"to\":{\"name\":\"y\",\"place\":{\"zip\":\"2\"}},"
+            + "\"via\":{\"name\":\"z\",\"location\":{\"zip\":\"3\"}}}";
+        JsonClass root = new JsonParser().parseJson(json, "Route");
+
+        // from/via are identical; to differs only in its link field name but shares the zip class
+        assertEquals(2, root.getNestedClasses().size());
+        assertEquals(root.getFields().get(0).getType(), root.getFields().get(2).getType());
+        JsonClass from = root.getNestedClasses().get(0);
+        JsonClass to = root.getNestedClasses().get(1);
+        assertEquals(1, from.getNestedClasses().size());
+        assertTrue(to.getNestedClasses().isEmpty());
+        assertEquals(from.getFields().get(1).getType(), to.getFields().get(1).getType());
+    }
+
+    @Test
+    public void testRecursiveShapesReferToAncestor() throws IOException {
+        String json = "{\"name\":\"root\",\"children\":[{\"name\":\"a\",\"children\":["
+            + "{\"name\":\"b\",\"children\":[]}]}]}";
+        InferenceResult result = new JsonParser().inferJson(json, "Node");
+        JsonClass node = result.getRootClass();
+
+        assertTrue(node.getNestedClasses().isEmpty());
+        JsonField children = node.getFields().get(1);
+        assertEquals("Node", children.getType());
+        assertTrue(children.isArray());
+        assertEquals(1, result.getReport().getRecursiveClasses().size());
+    }
+
+    @Test
+    public void testDistinctShapesWithSameNameGetUniqueNames() throws IOException {
+        String json = "{\"a\":{\"item\":{\"x\":1}},\"b\":{\"item\":{\"y\":\"s\"}}}";
+        JsonClass root = new JsonParser().parseJson(json, "Root");
+
+        String first = root.getNestedClasses().get(0).getFields().get(0).getType();
+        String second = root.getNestedClasses().get(1).getFields().get(0).getType();
+        assertEquals("Item", first);
+        assertEquals("Item2", second);
+        assertEquals("Item2", root.getNestedClasses().get(1).getNestedClasses().get(0).getClassName());
+    }
+}
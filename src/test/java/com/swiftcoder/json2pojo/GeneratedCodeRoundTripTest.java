@@ -0,0 +1,308 @@
+package com.swiftcoder.json2pojo;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftcoder.json2pojo.generators.DirectoryClassSink;
+import com.swiftcoder.json2pojo.generators.GeneratedClass;
+import com.swiftcoder.json2pojo.generators.JavaCodeGenerator;
+import com.swiftcoder.json2pojo.models.GenerationConfig;
+import com.swiftcoder.json2pojo.models.JsonClass;
+import com.swiftcoder.json2pojo.models.NullHandling;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.StringWriter;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Compiles the generated sources and checks them against the databind path
+public class GeneratedCodeRoundTripTest {
+
+    private static final String SAMPLE = "{\"id\":1,\"big\":12345678901,\"price\":9.5,\"active\":true,"
+        + "\"name\":\"John\",\"nickname\":null,\"tags\":[\"a\",\"b\"],\"scores\":[1,2],"
+        + "\"address\":{\"city\":\"Rome\",\"zip\":\"00100\"},\"orders\":[{\"sku\":\"x\",\"qty\":2}],"
+        + "\"extra\":[1,\"two\",{\"three\":3}],\"anything\":null}";
+
+    private static final String INPUT = "{\"id\":7,\"big\":-9,\"price\":3,\"active\":false,\"name\":\"Ann\","
+        + "\"nickname\":\"annie\",\"unknown\":{\"deep\":[1,{\"x\":null}]},\"tags\":[null,\"c\"],\"scores\":null,"
+        + "\"address\":null,\"orders\":[{\"sku\":\"y\",\"qty\":1,\"note\":\"skip\"},{\"sku\":null,\"qty\":null}],"
+        + "\"extra\":[{\"k\":[true,1.5,12345678901]},null],\"anything\":{\"k\":[false,{}]}}";
+
+    private final ObjectMapper mapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testReaderMatchesDatabind() throws Exception {
+        GenerationConfig config = new GenerationConfig(true, false, new HashSet<>(), "com.example.model", "Order")
+            .withGenerateReaders(true);
+        try (URLClassLoader loader = compile(new JsonParser().parseJson(SAMPLE, "Order"), config)) {
+            Class<?> pojoClass = loader.loadClass("com.example.model.Order");
+            Method read = loader.loadClass("com.example.model.OrderReader")
+                .getMethod("read", com.fasterxml.jackson.core.JsonParser.class);
+
+            for (String json : new String[]{SAMPLE, INPUT}) {
+                Object expected = mapper.readValue(json, pojoClass);
+                Object actual;
+                try (com.fasterxml.jackson.core.JsonParser parser = mapper.getFactory().createParser(json)) {
+                    actual = read.invoke(null, parser);
+                }
+                assertEquals(mapper.<JsonNode>valueToTree(expected), mapper.<JsonNode>valueToTree(actual));
+            }
+        }
+    }
+
+    @Test
+    public void testWriterMatchesDatabind() throws Exception {
+        GenerationConfig config = new GenerationConfig(true, false, new HashSet<>(), "com.example.model", "Order")
+            .withGenerateReaders(true).withGenerateWriters(true);
+        try (URLClassLoader loader = compile(new JsonParser().parseJson(SAMPLE, "Order"), config)) {
+            Class<?> pojoClass = loader.loadClass("com.example.model.Order");
+            Method write = loader.loadClass("com.example.model.OrderWriter")
+                .getMethod("write", com.fasterxml.jackson.core.JsonGenerator.class, pojoClass);
+
+            for (String json : new String[]{SAMPLE, INPUT}) {
+                Object value = mapper.readValue(json, pojoClass);
+                StringWriter output = new StringWriter();
+                try (com.fasterxml.jackson.core.JsonGenerator generator = mapper.getFactory().createGenerator(output)) {
+                    write.invoke(null, generator, value);
+                }
+                assertEquals(mapper.writeValueAsString(value), output.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testPrimitiveModeMatchesDatabind() throws Exception {
+        GenerationConfig config = new GenerationConfig(true, false, new HashSet<>(), "com.example.primitive", "Order")
+            .withGenerateReaders(true).withGenerateWriters(true).withUsePrimitives(true);
+        JsonClass root = new JsonParser().parseJson(SAMPLE, "Order");
+        String source = new JavaCodeGenerator().generateJavaClasses(root, config).get(0);
+        assertTrue(source.contains("    private int id;"));
+        assertTrue(source.contains("    private long big;"));
+        assertTrue(source.contains("    private boolean active;"));
+        assertTrue(source.contains("    private int[] scores;"));
+        assertTrue(source.contains("    private Object nickname;"));
+
+        try (URLClassLoader loader = compile(root, config)) {
+            Class<?> pojoClass = loader.loadClass("com.example.primitive.Order");
+            Method read = loader.loadClass("com.example.primitive.OrderReader")
+                .getMethod("read", com.fasterxml.jackson.core.JsonParser.class);
+            Method write = loader.loadClass("com.example.primitive.OrderWriter")
+                .getMethod("write", com.fasterxml.jackson.core.JsonGenerator.class, pojoClass);
+
+            for (String json : new String[]{SAMPLE, INPUT}) {
+                Object expected = mapper.readValue(json, pojoClass);
+                Object actual;
+                try (com.fasterxml.jackson.core.JsonParser parser = mapper.getFactory().createParser(json)) {
+                    actual = read.invoke(null, parser);
+                }
+                StringWriter output = new StringWriter();
+                try (com.fasterxml.jackson.core.JsonGenerator generator = mapper.getFactory().createGenerator(output)) {
+                    write.invoke(null, generator, actual);
+                }
+                assertEquals(mapper.writeValueAsString(expected), output.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testNarrowNumbersMatchesDatabind() throws Exception {
+        String sample = "[{\"age\":42,\"year\":2024,\"ratio\":0.5,\"price\":10.50,\"huge\":123456789012345678901234,"
+            + "\"levels\":[1,2,300],\"weights\":[1.5,2.5],\"fees\":[0.99,null],\"spare\":7},"
+            + "{\"age\":-7,\"year\":1999,\"ratio\":1.5,\"price\":9.99,\"huge\":1,\"levels\":[],"
+            + "\"weights\":[],\"fees\":[],\"spare\":null}]";
+        String input = "{\"age\":100,\"year\":-300,\"ratio\":2.5,\"price\":0.10,\"huge\":98765432109876543210,"
+            + "\"levels\":[5,6],\"weights\":[0.5],\"fees\":[null,1.00],\"spare\":null}";
+        GenerationConfig config = new GenerationConfig(true, false, new HashSet<>(), "com.example.narrow", "Reading")
+            .withGenerateReaders(true).withGenerateWriters(true).withUsePrimitives(true).withNarrowNumbers(true);
+        JsonClass root = new JsonParser().parseJson(sample, "Reading");
+        String source = new JavaCodeGenerator().generateJavaClasses(root, config).get(0);
+        assertTrue(source.contains("    private byte age;"));
+        assertTrue(source.contains("    private short year;"));
+        assertTrue(source.contains("    private float ratio;"));
+        assertTrue(source.contains("    private BigDecimal price;"));
+        assertTrue(source.contains("    private BigInteger huge;"));
+        assertTrue(source.contains("    private short[] levels;"));
+        assertTrue(source.contains("    private float[] weights;"));
+        assertTrue(source.contains("    private List<BigDecimal> fees;"));
+        assertTrue(source.contains("    private Byte spare;"));
+
+        try (URLClassLoader loader = compile(root, config)) {
+            Class<?> pojoClass = loader.loadClass("com.example.narrow.Reading");
+            Method read = loader.loadClass("com.example.narrow.ReadingReader")
+                .getMethod("read", com.fasterxml.jackson.core.JsonParser.class);
+            Method write = loader.loadClass("com.example.narrow.ReadingWriter")
+                .getMethod("write", com.fasterxml.jackson.core.JsonGenerator.class, pojoClass);
+
+            Object expected = mapper.readValue(input, pojoClass);
+            Object actual;
+            try (com.fasterxml.jackson.core.JsonParser parser = mapper.getFactory().createParser(input)) {
+                actual = read.invoke(null, parser);
+            }
+            StringWriter output = new StringWriter();
+            try (com.fasterxml.jackson.core.JsonGenerator generator = mapper.getFactory().createGenerator(output)) {
+                write.invoke(null, generator, actual);
+            }
+            // Scale survives both ways, e.g. 0.10 stays 0.10
+            assertEquals(mapper.writeValueAsString(expected), output.toString());
+            assertTrue(output.toString().contains("\"price\":0.10"));
+        }
+    }
+
+    @Test
+    public void testEnumsMatchDatabind() throws Exception {
+        String sample = "[{\"status\":\"in-progress\",\"codes\":[\"EUR\",\"usd\"]},{\"status\":\"done\",\"codes\":[\"EUR\"]},"
+            + "{\"status\":\"in-progress\",\"codes\":[\"usd\",null]},{\"status\":null,\"codes\":[]},{\"status\":\"done\",\"codes\":[]}]";
+        String input = "{\"status\":\"done\",\"codes\":[\"usd\",null,\"EUR\"]}";
+        GenerationConfig config = new GenerationConfig(true, false, new HashSet<>(), "com.example.enums", "Task")
+            .withGenerateReaders(true).withGenerateWriters(true).withEnumThreshold(10);
+        JsonClass root = new JsonParser().parseJson(sample, "Task");
+
+        try (URLClassLoader loader = compile(root, config)) {
+            Class<?> pojoClass = loader.loadClass("com.example.enums.Task");
+            Class<?> statusClass = loader.loadClass("com.example.enums.Status");
+            assertTrue(statusClass.isEnum());
+            assertEquals(statusClass, pojoClass.getMethod("getStatus").getReturnType());
+            assertEquals(statusClass.getEnumConstants()[0], statusClass.getMethod("fromValue", String.class)
+                .invoke(null, "in-progress"));
+
+            Method read = loader.loadClass("com.example.enums.TaskReader")
+                .getMethod("read", com.fasterxml.jackson.core.JsonParser.class);
+            Method write = loader.loadClass("com.example.enums.TaskWriter")
+                .getMethod("write", com.fasterxml.jackson.core.JsonGenerator.class, pojoClass);
+            Object expected = mapper.readValue(input, pojoClass);
+            Object actual;
+            try (com.fasterxml.jackson.core.JsonParser parser = mapper.getFactory().createParser(input)) {
+                actual = read.invoke(null, parser);
+            }
+            StringWriter output = new StringWriter();
+            try (com.fasterxml.jackson.core.JsonGenerator generator = mapper.getFactory().createGenerator(output)) {
+                write.invoke(null, generator, actual);
+            }
+            assertEquals(input, mapper.writeValueAsString(expected));
+            assertEquals(input, output.toString());
+        }
+    }
+
+    @Test
+    public void testMapsMatchDatabind() throws Exception {
+        String sample = "{\"users\":{\"u_1001\":{\"name\":\"a\"},\"u_1002\":{\"name\":\"b\",\"age\":3}},"
+            + "\"daily\":{\"2024-01-01\":5,\"2024-01-02\":7.5},\"raw\":{\"1\":[1],\"2\":[\"x\"]}}";
+        String input = "{\"users\":{\"u_7\":null,\"u_8\":{\"age\":9,\"extra\":1}},\"daily\":{\"d\":null,\"e\":1.5},"
+            + "\"raw\":{\"k\":[{\"a\":1},null]}}";
+        GenerationConfig config = new GenerationConfig(true, false, new HashSet<>(), "com.example.maps", "Stats")
+            .withGenerateReaders(true).withGenerateWriters(true);
+        JsonClass root = new JsonParser().parseJson(sample, "Stats");
+
+        try (URLClassLoader loader = compile(root, config)) {
+            Class<?> pojoClass = loader.loadClass("com.example.maps.Stats");
+            Method read = loader.loadClass("com.example.maps.StatsReader")
+                .getMethod("read", com.fasterxml.jackson.core.JsonParser.class);
+            Method write = loader.loadClass("com.example.maps.StatsWriter")
+                .getMethod("write", com.fasterxml.jackson.core.JsonGenerator.class, pojoClass);
+
+            for (String json : new String[]{sample, input}) {
+                Object expected = mapper.readValue(json, pojoClass);
+                Object actual;
+                try (com.fasterxml.jackson.core.JsonParser parser = mapper.getFactory().createParser(json)) {
+                    actual = read.invoke(null, parser);
+                }
+                StringWriter output = new StringWriter();
+                try (com.fasterxml.jackson.core.JsonGenerator generator = mapper.getFactory().createGenerator(output)) {
+                    write.invoke(null, generator, actual);
+                }
+                assertEquals(mapper.writeValueAsString(expected), output.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testWriterNullHandling() throws Exception {
+        // "nickname" is always present, "middle" only in some samples
+        String samples = "[{\"nickname\":null,\"middle\":\"Q\"},{\"nickname\":\"x\"}]";
+        String json = "{\"nickname\":null,\"middle\":null}";
+        JsonClass root = new JsonParser().parseJson(samples, "Person");
+
+        assertEquals("{\"nickname\":null,\"middle\":null}", writeWith(root, NullHandling.INCLUDE, json));
+        assertEquals("{}", writeWith(root, NullHandling.OMIT, json));
+        assertEquals("{\"nickname\":null}", writeWith(root, NullHandling.INFERRED, json));
+    }
+
+    @Test
+    public void testReaderWorksWithLombokGettersOnly() throws Exception {
+        GenerationConfig config = new GenerationConfig(true, true, new HashSet<>(List.of("@Getter", "@AllArgsConstructor")),
+            "com.example.model", "Order").withGenerateReaders(true);
+        List<String> sources = new JavaCodeGenerator().generateJavaClasses(new JsonParser().parseJson(SAMPLE, "Order"), config);
+
+        // Order, Address, Order item and a reader for each
+        assertEquals(6, sources.size());
+        assertTrue(sources.get(0).contains("    public void setName(String name) {"));
+        assertTrue(sources.get(0).contains("    public Order() {"));
+        assertTrue(sources.get(1).startsWith("package com.example.model;"));
+        assertTrue(sources.get(1).contains("public final class OrderReader {"));
+    }
+
+    private String writeWith(JsonClass root, NullHandling nullHandling, String json) throws Exception {
+        GenerationConfig config = new GenerationConfig(false, false, new HashSet<>(), "com.example." + nullHandling.name().toLowerCase(),
+            "Person").withGenerateReaders(true).withGenerateWriters(true).withNullHandling(nullHandling);
+        try (URLClassLoader loader = compile(root, config)) {
+            String packageName = config.getPackageName();
+            Class<?> pojoClass = loader.loadClass(packageName + ".Person");
+            Method read = loader.loadClass(packageName + ".PersonReader")
+                .getMethod("read", com.fasterxml.jackson.core.JsonParser.class);
+            Method write = loader.loadClass(packageName + ".PersonWriter")
+                .getMethod("write", com.fasterxml.jackson.core.JsonGenerator.class, pojoClass);
+
+            StringWriter output = new StringWriter();
+            try (com.fasterxml.jackson.core.JsonParser parser = mapper.getFactory().createParser(json);
+                 com.fasterxml.jackson.core.JsonGenerator generator = mapper.getFactory().createGenerator(output)) {
+                write.invoke(null, generator, read.invoke(null, parser));
+            }
+            return output.toString();
+        }
+    }
+
+    private URLClassLoader compile(JsonClass root, GenerationConfig config) throws Exception {
+        // Separate directories per call so several models can be compiled in one test
+        Path sourceRoot = Files.createTempDirectory(tempDir, "src");
+        Path classes = Files.createTempDirectory(tempDir, "classes");
+        List<GeneratedClass> generated = new JavaCodeGenerator().generate(root, config, new DirectoryClassSink(sourceRoot));
+        assertFalse(generated.isEmpty());
+
+        // Generated code only needs jackson-core and jackson-annotations
+        String classpath = Stream.of(JsonProperty.class, com.fasterxml.jackson.core.JsonParser.class)
+            .map(type -> type.getProtectionDomain().getCodeSource().getLocation().getPath())
+            .collect(Collectors.joining(File.pathSeparator));
+        List<String> arguments = new ArrayList<>(List.of("-d", classes.toString(), "-classpath", classpath));
+        try (Stream<Path> files = Files.walk(sourceRoot)) {
+            arguments.addAll(files.filter(file -> file.toString().endsWith(".java")).map(Path::toString)
+                .collect(Collectors.toList()));
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        int status = compiler.run(null, null, errors, arguments.toArray(new String[0]));
+        assertEquals(0, status, errors.toString());
+
+        return new URLClassLoader(new URL[]{classes.toUri().toURL()}, getClass().getClassLoader());
+    }
+}
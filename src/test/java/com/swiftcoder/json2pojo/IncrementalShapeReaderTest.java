@@ -0,0 +1,194 @@
+package com.swiftcoder.json2pojo;
+
+import com.swiftcoder.json2pojo.generators.JavaCodeGenerator;
+import com.swiftcoder.json2pojo.inference.FieldShape;
+import com.swiftcoder.json2pojo.inference.IncrementalShapeReader;
+import com.swiftcoder.json2pojo.inference.InferenceContext;
+import com.swiftcoder.json2pojo.inference.InferenceResult;
+import com.swiftcoder.json2pojo.inference.SamplingConfig;
+import com.swiftcoder.json2pojo.inference.SchemaBuilder;
+import com.swiftcoder.json2pojo.inference.StreamingShapeReader;
+import com.swiftcoder.json2pojo.inference.SymbolTable;
+import com.swiftcoder.json2pojo.models.GenerationConfig;
+import com.swiftcoder.json2pojo.ui.GenerationPreview;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncrementalShapeReaderTest {
+
+    private static final GenerationConfig CONFIG =
+        new GenerationConfig(true, false, Set.of(), "com.example.model", "Record");
+
+    @Test
+    public void testEditedDocumentsMatchTheStreamingPath() throws IOException {
+        String original = new String(new WorkloadGenerator(9).withWidth(10).withDepth(2).withHeterogeneity(0.2)
+            .withTotalBytes(2_000_000).toByteArray(), StandardCharsets.UTF_8);
+        int middle = original.indexOf("},{", original.length() / 2) + 2;
+        List<String> edits = List.of(
+            original,
+            // A new field in one element, an element inserted, an element removed, then an object root
+            original.substring(0, middle) + "{\"added\":[1,2.5]}," + original.substring(middle),
+            original.substring(0, middle) + "{\"added\":[1,2.5],\"flag\":true}," + original.substring(middle),
+            original.substring(0, middle) + original.substring(original.indexOf("},{", middle) + 2),
+            // Edits at either end, then the same document again
+            "[{\"first\":\"x\"}," + original.substring(1),
+            original.substring(0, original.length() - 1) + ",7]",
+            original.substring(0, original.length() - 1) + ",7]",
+            original,
+            "{\"root\":" + original + "}",
+            "[]",
+            "");
+        // Chunks parsed inline and on several workers
+        for (int workers : new int[]{1, 4}) {
+            ForkJoinPool pool = new ForkJoinPool(workers);
+            try {
+                IncrementalShapeReader reader = new IncrementalShapeReader(new JsonFactory(), new StreamingShapeReader(),
+                    pool);
+                for (String edit : edits) {
+                    byte[] json = edit.getBytes(StandardCharsets.UTF_8);
+                    InferenceContext context = new InferenceContext(SamplingConfig.all());
+                    FieldShape incremental = reader.read(json, context);
+                    InferenceContext sequentialContext = new InferenceContext(SamplingConfig.all());
+                    FieldShape sequential;
+                    try (com.fasterxml.jackson.core.JsonParser tokens = new JsonFactory().createParser(json)) {
+                        tokens.nextToken();
+                        sequential = new StreamingShapeReader().read(tokens, sequentialContext);
+                    }
+
+                    assertEquals(sequential.countValues(), incremental.countValues());
+                    assertEquals(
+                        new JavaCodeGenerator().generateJavaClasses(new SchemaBuilder().build(sequential, "Record"), CONFIG),
+                        new JavaCodeGenerator().generateJavaClasses(new SchemaBuilder().build(incremental, "Record"), CONFIG));
+                    assertEquals(sequentialContext.getValuesScanned(), context.getValuesScanned());
+                    assertEquals(json.length, context.getBytesRead());
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void testOnlyChunksAroundAnEditAreParsedAgain() throws IOException {
+        String original = new String(new WorkloadGenerator(4).withTotalBytes(2_000_000).toByteArray(),
+            StandardCharsets.UTF_8);
+        int middle = original.indexOf("},{", original.length() / 2) + 2;
+        String edited = original.substring(0, middle) + "{\"note\":\"typed\"}," + original.substring(middle);
+        AtomicLong observed = new AtomicLong();
+        IncrementalShapeReader reader = new IncrementalShapeReader(new JsonFactory(), countingReader(observed));
+
+        FieldShape first = reader.read(original.getBytes(StandardCharsets.UTF_8),
+            new InferenceContext(SamplingConfig.all()));
+        long elements = first.getElementShape().getPresent();
+        assertEquals(elements, observed.get());
+
+        observed.set(0);
+        reader.read(edited.getBytes(StandardCharsets.UTF_8), new InferenceContext(SamplingConfig.all()));
+        assertTrue(observed.get() > 0);
+        assertTrue(observed.get() < elements / 4, observed.get() + " of " + elements);
+
+        // An edit before the first chunk boundary still takes over the chunks after it
+        observed.set(0);
+        reader.read(("[{\"note\":1}," + edited.substring(1)).getBytes(StandardCharsets.UTF_8),
+            new InferenceContext(SamplingConfig.all()));
+        assertTrue(observed.get() < elements / 4, observed.get() + " of " + elements);
+        reader.read(edited.getBytes(StandardCharsets.UTF_8), new InferenceContext(SamplingConfig.all()));
+
+        // Reading the same document again parses nothing
+        observed.set(0);
+        reader.read(edited.getBytes(StandardCharsets.UTF_8), new InferenceContext(SamplingConfig.all()));
+        assertEquals(0, observed.get());
+    }
+
+    @Test
+    public void testFailedReadsKeepThePreviousChunks() throws IOException {
+        byte[] json = new WorkloadGenerator(6).withTotalBytes(500_000).toByteArray();
+        AtomicLong observed = new AtomicLong();
+        IncrementalShapeReader reader = new IncrementalShapeReader(new JsonFactory(), countingReader(observed));
+        reader.read(json, new InferenceContext(SamplingConfig.all()));
+
+        byte[] other = new WorkloadGenerator(7).withTotalBytes(500_000).toByteArray();
+        Runnable cancelled = () -> {
+            throw new CancellationException();
+        };
+        assertThrows(CancellationException.class,
+            () -> reader.read(other, new InferenceContext(SamplingConfig.all(), cancelled)));
+
+        // So does an edit that is not valid JSON yet
+        String text = new String(json, StandardCharsets.UTF_8);
+        int middle = text.indexOf("},{", text.length() / 2) + 2;
+        byte[] typing = (text.substring(0, middle) + "{\"half\":," + text.substring(middle))
+            .getBytes(StandardCharsets.UTF_8);
+        assertThrows(IOException.class, () -> reader.read(typing, new InferenceContext(SamplingConfig.all())));
+
+        observed.set(0);
+        reader.read(json, new InferenceContext(SamplingConfig.all()));
+        assertEquals(0, observed.get());
+    }
+
+    @Test
+    public void testIncrementalEntryPointAndPreviewInferTheSameModel() throws IOException {
+        byte[] json = new WorkloadGenerator(5).withDepth(2).toByteArray();
+        InferenceResult sequential = new JsonParser().inferJson(new ByteArrayInputStream(json), "Record");
+        InferenceResult incremental = new JsonParser().inferJsonIncremental(json, "Record",
+            new IncrementalShapeReader(new JsonFactory(), new StreamingShapeReader()));
+        List<String> expected = new JavaCodeGenerator().generateJavaClasses(sequential.getRootClass(), CONFIG);
+
+        assertEquals(expected, new JavaCodeGenerator().generateJavaClasses(incremental.getRootClass(), CONFIG));
+        assertEquals(json.length, incremental.getMetrics().getRead().getInputLength());
+
+        // Changing only the options renders the kept model again, checking only before and after the lock
+        GenerationPreview preview = new GenerationPreview(new SymbolTable());
+        String text = new String(json, StandardCharsets.UTF_8);
+        assertEquals(String.join("\n", expected), preview.render(text, CONFIG, null));
+        GenerationConfig primitives = CONFIG.withUsePrimitives(true);
+        AtomicLong checks = new AtomicLong();
+        assertEquals(String.join("\n", new JavaCodeGenerator().generateJavaClasses(sequential.getRootClass(), primitives)),
+            preview.render(text, primitives, checks::incrementAndGet));
+        assertEquals(2, checks.get());
+    }
+
+    @Test
+    public void testStalePreviewStopsBeforeRendering() throws IOException {
+        String text = new String(new WorkloadGenerator(3).toByteArray(), StandardCharsets.UTF_8);
+        GenerationPreview preview = new GenerationPreview(new SymbolTable());
+        preview.render(text, CONFIG, null);
+
+        // Out of date once inference is done, as when a newer keystroke arrives meanwhile
+        AtomicLong checks = new AtomicLong();
+        assertThrows(CancellationException.class, () -> preview.render(text, CONFIG.withUsePrimitives(true), () -> {
+            if (checks.incrementAndGet() > 1) {
+                throw new CancellationException();
+            }
+        }));
+        assertThrows(CancellationException.class, () -> preview.render("[1]", CONFIG, () -> {
+            throw new CancellationException();
+        }));
+        // Neither abandoned call replaced the kept model
+        AtomicLong after = new AtomicLong();
+        preview.render(text, CONFIG, after::incrementAndGet);
+        assertEquals(2, after.get());
+    }
+
+    private static StreamingShapeReader countingReader(AtomicLong observed) {
+        return new StreamingShapeReader() {
+            @Override
+            public void observeElement(com.fasterxml.jackson.core.JsonParser tokens, FieldShape elementShape,
+                                       InferenceContext context) throws IOException {
+                super.observeElement(tokens, elementShape, context);
+                observed.incrementAndGet();
+            }
+        };
+    }
+}
@@ -0,0 +1,192 @@
+package com.swiftcoder.json2pojo;
+
+import com.swiftcoder.json2pojo.generators.DirectoryClassSink;
+import com.swiftcoder.json2pojo.generators.GeneratedClass;
+import com.swiftcoder.json2pojo.generators.GenerationCache;
+import com.swiftcoder.json2pojo.generators.GenerationResult;
+import com.swiftcoder.json2pojo.generators.JavaCodeGenerator;
+import com.swiftcoder.json2pojo.models.GenerationConfig;
+import com.swiftcoder.json2pojo.models.JsonClass;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JavaCodeGeneratorTest {
+
+    private static final String JSON = "{\"name\":\"John\",\"tags\":[\"a\"],\"address\":{\"city\":\"Rome\"}}";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testGeneratedClassMetadata() throws IOException {
+        JsonClass root = new JsonParser().parseJson(JSON, "Person");
+        GenerationConfig config = new GenerationConfig(true, true, new HashSet<>(Arrays.asList("@Getter")),
+            "com.example.model", "Person");
+
+        List<GeneratedClass> generated = new JavaCodeGenerator().generate(root, config, new DirectoryClassSink(tempDir));
+
+        assertEquals(2, generated.size());
+        assertEquals("Person", generated.get(0).getClassName());
+        assertEquals("com.example.model.Person", generated.get(0).getQualifiedName());
+        assertEquals(Arrays.asList("com.fasterxml.jackson.annotation.JsonProperty", "lombok.Getter", "java.util.List"),
+            generated.get(0).getImports());
+        assertEquals("Address.java", generated.get(1).getFileName());
+        assertFalse(generated.get(1).getImports().contains("java.util.List"));
+    }
+
+    @Test
+    public void testSinkOutputMatchesInMemoryGeneration() throws IOException {
+        JsonClass root = new JsonParser().parseJson(JSON, "Person");
+        GenerationConfig config = new GenerationConfig(false, false, new HashSet<>(), "com.example.model", "Person");
+        JavaCodeGenerator generator = new JavaCodeGenerator();
+
+        List<String> sources = generator.generateJavaClasses(root, config);
+        List<GeneratedClass> generated = generator.generate(root, config, new DirectoryClassSink(tempDir));
+
+        for (int i = 0; i < generated.size(); i++) {
+            Path file = tempDir.resolve("com/example/model").resolve(generated.get(i).getFileName());
+            assertEquals(sources.get(i), new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        }
+        assertTrue(sources.get(0).contains("public class Person {"));
+        assertTrue(sources.get(0).contains("    public List<String> getTags() {"));
+    }
+
+    @Test
+    public void testParallelOutputIsByteIdentical() throws IOException {
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < 300; i++) {
+            json.append(i == 0 ? "" : ",").append("\"group").append(i).append("\":{\"value").append(i)
+                .append("\":").append(i).append(",\"items\":[{\"leaf").append(i).append("\":\"x\"}]}");
+        }
+        json.append("}");
+        JsonClass root = new JsonParser().parseJson(json.toString(), "Catalog");
+        GenerationConfig config = new GenerationConfig(true, true,
+            new HashSet<>(Arrays.asList("@Getter", "@Setter", "@NoArgsConstructor")), "com.example.model", "Catalog");
+
+        List<String> sequential = new JavaCodeGenerator().generateJavaClasses(root, config);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<String> parallel = new JavaCodeGenerator(pool).generateJavaClasses(root, config);
+            assertEquals(601, sequential.size());
+            assertEquals(sequential, parallel);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testCacheFileRoundTripsEscapedNames() throws IOException {
+        Path cacheFile = tempDir.resolve("escaped.properties");
+        GenerationCache cache = GenerationCache.load(cacheFile);
+        cache.record("com.example.Caf\u00e9", "a1");
+        cache.record("odd name=with:separators\\", "b2");
+        cache.save();
+
+        GenerationCache reloaded = GenerationCache.load(cacheFile);
+        assertTrue(reloaded.isUpToDate("com.example.Caf\u00e9", "a1"));
+        assertTrue(reloaded.isUpToDate("odd name=with:separators\\", "b2"));
+        // Saving again leaves the file unchanged
+        String saved = Files.readString(cacheFile);
+        reloaded.save();
+        assertEquals(saved, Files.readString(cacheFile));
+    }
+
+    @Test
+    public void testCacheSkipsUnchangedClasses() throws IOException {
+        GenerationConfig config = new GenerationConfig(true, false, new HashSet<>(), "com.example.model", "Person");
+        DirectoryClassSink sink = new DirectoryClassSink(tempDir);
+        Path cacheFile = tempDir.resolve("cache.properties");
+
+        GenerationCache cache = GenerationCache.load(cacheFile);
+        GenerationResult first = new JavaCodeGenerator().generate(new JsonParser().parseJson(JSON, "Person"), config, sink, cache);
+        cache.save();
+        assertEquals(2, first.getCacheMisses());
+        assertEquals(0, first.getCacheHits());
+
+        // Only the nested class changes; the root keeps its fingerprint
+        String changed = "{\"name\":\"John\",\"tags\":[\"a\"],\"address\":{\"city\":\"Rome\",\"zip\":1}}";
+        GenerationCache reloaded = GenerationCache.load(cacheFile);
+        GenerationResult second = new JavaCodeGenerator().generate(new JsonParser().parseJson(changed, "Person"), config, sink, reloaded);
+        assertEquals(1, second.getCacheHits());
+        assertEquals(1, second.getCacheMisses());
+        assertEquals("Person", second.getSkippedClasses().get(0).getClassName());
+        assertEquals("Address", second.getGeneratedClasses().get(0).getClassName());
+        assertEquals("Person", second.getRootClass().getClassName());
+
+        // A deleted file is regenerated even though its fingerprint is cached
+        Files.delete(tempDir.resolve("com/example/model/Person.java"));
+        GenerationResult third = new JavaCodeGenerator().generate(new JsonParser().parseJson(changed, "Person"), config, sink, reloaded);
+        assertEquals(1, third.getCacheHits());
+        assertEquals("Person", third.getGeneratedClasses().get(0).getClassName());
+
+        // Configuration changes invalidate every class
+        GenerationConfig withoutJackson = new GenerationConfig(false, false, new HashSet<>(), "com.example.model", "Person");
+        GenerationResult fourth = new JavaCodeGenerator().generate(new JsonParser().parseJson(changed, "Person"), withoutJackson, sink, reloaded);
+        assertEquals(0, fourth.getCacheHits());
+        assertEquals(2, fourth.getCacheMisses());
+    }
+
+    @Test
+    public void testPrimitiveModeOnlyWhenNeverNull() throws IOException {
+        String json = "[{\"count\":1,\"ratio\":0.5,\"flag\":true,\"ids\":[1,2],\"gaps\":[1,null],\"maybe\":1},"
+            + "{\"count\":2,\"ratio\":1,\"flag\":false,\"ids\":[3],\"gaps\":[],\"maybe\":null}]";
+        JsonClass root = new JsonParser().parseJson(json, "Stats");
+        GenerationConfig config = new GenerationConfig(false, false, new HashSet<>(), "com.example.model", "Stats");
+
+        String boxed = new JavaCodeGenerator().generateJavaClasses(root, config).get(0);
+        String primitive = new JavaCodeGenerator().generateJavaClasses(root, config.withUsePrimitives(true)).get(0);
+
+        assertTrue(boxed.contains("    private Integer count;"));
+        assertTrue(boxed.contains("    private List<Integer> ids;"));
+        assertTrue(primitive.contains("    private int count;"));
+        assertTrue(primitive.contains("    private double ratio;"));
+        assertTrue(primitive.contains("    private boolean flag;"));
+        assertTrue(primitive.contains("    private int[] ids;"));
+        assertTrue(primitive.contains("    private List<Integer> gaps;"));
+        assertTrue(primitive.contains("    private Integer maybe;"));
+        assertTrue(primitive.contains("    public Stats(int count, double ratio, boolean flag, int[] ids, List<Integer> gaps, Integer maybe) {"));
+    }
+
+    @Test
+    public void testEnumsOnlyUnderThreshold() throws IOException {
+        String json = "[{\"status\":\"open\",\"currency\":\"EUR\",\"items\":[{\"status\":\"in-stock\"},{\"status\":\"backorder\"}]},"
+            + "{\"status\":\"closed\",\"currency\":\"EUR\",\"items\":[{\"status\":\"in-stock\"}]},"
+            + "{\"status\":\"open\",\"currency\":\"USD\",\"items\":[{\"status\":\"backorder\"}]},"
+            + "{\"status\":\"closed\",\"currency\":\"EUR\",\"items\":[]}]";
+        JsonClass root = new JsonParser().parseJson(json, "Order");
+        GenerationConfig config = new GenerationConfig(true, false, new HashSet<>(), "com.example.model", "Order");
+        JavaCodeGenerator generator = new JavaCodeGenerator();
+
+        List<String> plain = generator.generateJavaClasses(root, config);
+        assertEquals(2, plain.size());
+        assertTrue(plain.get(0).contains("    private String status;"));
+        assertEquals(2, generator.generateJavaClasses(root, config.withEnumThreshold(1)).size());
+
+        List<GeneratedClass> generated = generator.generate(root, config.withEnumThreshold(2), new DirectoryClassSink(tempDir));
+        assertEquals(List.of("Order", "Status", "Currency", "Item", "ItemStatus"),
+            generated.stream().map(GeneratedClass::getClassName).collect(Collectors.toList()));
+
+        String order = Files.readString(tempDir.resolve("com/example/model/Order.java"));
+        assertTrue(order.contains("    private Status status;"));
+        assertTrue(order.contains("    private Currency currency;"));
+        // Same field name, different values: the enum takes its owner's name
+        String item = Files.readString(tempDir.resolve("com/example/model/Item.java"));
+        assertTrue(item.contains("    private ItemStatus status;"));
+
+        String itemStatus = Files.readString(tempDir.resolve("com/example/model/ItemStatus.java"));
+        assertTrue(itemStatus.contains("public enum ItemStatus {\n    IN_STOCK(\"in-stock\"),\n    BACKORDER(\"backorder\");\n"));
+        assertTrue(itemStatus.contains("    @JsonCreator\n    public static ItemStatus fromValue(String value) {"));
+    }
+}
@@ -0,0 +1,77 @@
+package com.swiftcoder.json2pojo;
+
+import com.swiftcoder.json2pojo.models.GenerationConfig;
+import com.swiftcoder.json2pojo.models.JavaType;
+import com.swiftcoder.json2pojo.models.JsonClass;
+import com.swiftcoder.json2pojo.models.JsonField;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonClassTest {
+
+    @Test
+    public void testNameIndexKeepsDeclarationOrder() {
+        JsonClass jsonClass = new JsonClass("Wide");
+        for (int i = 0; i < 10_000; i++) {
+            jsonClass.addField(new JsonField("field" + i, "String", false, false, "STRING"));
+        }
+        // A repeated name resolves to its first field
+        jsonClass.addField(new JsonField("field42", "Integer", false, false, "NUMBER"));
+
+        assertEquals(10_001, jsonClass.getFields().size());
+        assertEquals("field0", jsonClass.getFields().get(0).getName());
+        assertEquals("field9999", jsonClass.getFields().get(9_999).getName());
+        assertEquals(42, jsonClass.indexOfField("field42"));
+        assertEquals("String", jsonClass.getField("field42").getType());
+        assertNull(jsonClass.getField("missing"));
+        assertThrows(UnsupportedOperationException.class, () -> jsonClass.getFields().add(null));
+
+        jsonClass.replaceField(7, new JsonField("renamed", "Long", false, false, "NUMBER"));
+        assertEquals(7, jsonClass.indexOfField("renamed"));
+        assertEquals(-1, jsonClass.indexOfField("field7"));
+        jsonClass.replaceField(8, jsonClass.getFields().get(8).withType("Double"));
+        assertEquals("Double", jsonClass.getField("field8").getType());
+    }
+
+    @Test
+    public void testSmallClassesLookUpWithoutIndex() {
+        JsonClass jsonClass = new JsonClass("Small");
+        jsonClass.addField(new JsonField("id", "Integer", false, false, "NUMBER"));
+        jsonClass.addField(new JsonField("name", "String", false, false, "STRING"));
+
+        assertEquals(1, jsonClass.indexOfField("name"));
+        assertNull(jsonClass.getField("other"));
+    }
+
+    @Test
+    public void testRenderedTypesAreInternedAndCached() {
+        GenerationConfig config = new GenerationConfig(false, false, new HashSet<>(), "com.example", "Root");
+        JsonField tags = new JsonField("tags", "String", true, false, "array");
+        JsonField labels = new JsonField("labels", "String", true, false, "array");
+
+        assertEquals("List<String>", tags.getJavaType(config));
+        assertSame(tags.getJavaType(config), tags.getJavaType(config));
+        assertSame(tags.getJavaTypeDescriptor(config), labels.getJavaTypeDescriptor(config));
+        assertSame(JavaType.of("String"), tags.getTypeDescriptor());
+        assertEquals(JavaType.Kind.LIST, tags.getJavaTypeDescriptor(config).getKind());
+
+        JsonField counts = new JsonField("counts", "Integer", true, false, "array");
+        assertEquals("int[]", counts.getJavaType(config.withUsePrimitives(true)));
+        JsonField scores = new JsonField("scores", "Integer", false, false, "object").withMap(true);
+        assertEquals("Map<String, Integer>", scores.getJavaType());
+    }
+
+    @Test
+    public void testUnusedInternedTypesAreReleased() throws InterruptedException {
+        WeakReference<JavaType> released = new WeakReference<>(JavaType.of("Unused" + System.nanoTime()));
+        for (int i = 0; i < 50 && released.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(released.get());
+    }
+}
@@ -0,0 +1,133 @@
+package com.swiftcoder.json2pojo;
+
+import com.swiftcoder.json2pojo.inference.FieldShape;
+import com.swiftcoder.json2pojo.inference.InferenceContext;
+import com.swiftcoder.json2pojo.inference.JsonLinesReader;
+import com.swiftcoder.json2pojo.inference.SamplingConfig;
+import com.swiftcoder.json2pojo.inference.SchemaBuilder;
+import com.swiftcoder.json2pojo.inference.StreamingShapeReader;
+import com.swiftcoder.json2pojo.models.JsonClass;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonLinesReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testRangesSplitOnLineBoundaries() throws IOException {
+        Path file = tempDir.resolve("events.ndjson");
+        StringBuilder asArray = new StringBuilder("[");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < 5_000; i++) {
+                String line = i % 1000 == 999
+                    ? "{\"id\":" + i + ",\"payload\":{\"kind\":\"rare\",\"weight\":1.5}}"
+                    : "{\"id\":" + i + ",\"name\":\"event-" + i + "\",\"tags\":[\"t\"]}";
+                writer.write(line);
+                writer.write(i % 2 == 0 ? "\n" : "\r\n");
+                asArray.append(i == 0 ? "" : ",").append(line);
+            }
+        }
+        asArray.append("]");
+
+        JsonLinesReader reader = new JsonLinesReader(new JsonFactory(), new StreamingShapeReader(),
+            new ForkJoinPool(8), 4096);
+        FieldShape shape = reader.read(file);
+
+        assertEquals(5_000, shape.getPresent());
+        assertEquals(5_000, shape.getObjectShape().getObservations());
+
+        JsonClass fromLines = new SchemaBuilder().build(shape, "Event");
+        JsonClass fromArray = new JsonParser().parseJson(asArray.toString(), "Event");
+        assertEquals(fromArray.getFields(), fromLines.getFields());
+        assertEquals(fromArray.getNestedClasses().get(0).getFields(),
+            fromLines.getNestedClasses().get(0).getFields());
+        assertTrue(fromLines.getFields().get(1).isOptional());
+    }
+
+    @Test
+    public void testParseJsonLinesEntryPoint() throws IOException {
+        Path file = tempDir.resolve("small.jsonl");
+        Files.write(file, "{\"a\":1}\n\n{\"a\":null,\"b\":\"x\"}\n".getBytes(StandardCharsets.UTF_8));
+
+        JsonClass result = new JsonParser().parseJsonLines(file, "record");
+
+        assertEquals("Record", result.getClassName());
+        assertEquals(2, result.getFields().size());
+        assertTrue(result.getFields().get(0).isNullable());
+        assertTrue(result.getFields().get(1).isOptional());
+    }
+
+    @Test
+    public void testLinesLongerThanOneMappingAreReadInWindows() throws IOException {
+        Path file = tempDir.resolve("long.ndjson");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < 200; i++) {
+                writer.write("{\"id\":" + i + (i == 100 ? ",\"blob\":\"" + "x".repeat(50_000) + "\"" : "") + "}\n");
+            }
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            JsonLinesReader reader = new JsonLinesReader(new JsonFactory(), new StreamingShapeReader(), pool, 1024, 4096);
+            for (SamplingConfig sampling : new SamplingConfig[]{
+                SamplingConfig.all(), SamplingConfig.firstN(1_000), SamplingConfig.reservoir(1_000, 0)}) {
+                FieldShape shape = reader.read(file, new InferenceContext(sampling));
+
+                assertEquals(200, shape.getPresent());
+                assertEquals(1, shape.getObjectShape().getFields().get("blob").getPresent());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testFirstFailingRangeStopsTheOthers() throws IOException {
+        Path file = tempDir.resolve("broken.ndjson");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("{\"id\":\n");
+            for (int i = 1; i < 2_000; i++) {
+                writer.write("{\"id\":" + i + "}\n");
+            }
+        }
+        AtomicInteger inFlight = new AtomicInteger();
+        StreamingShapeReader slow = new StreamingShapeReader() {
+            @Override
+            public void observe(com.fasterxml.jackson.core.JsonParser tokens, FieldShape shape,
+                                InferenceContext context) throws IOException {
+                inFlight.incrementAndGet();
+                try {
+                    Thread.sleep(1);
+                    super.observe(tokens, shape, context);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            }
+        };
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            JsonLinesReader reader = new JsonLinesReader(new JsonFactory(), slow, pool, 1024);
+
+            assertThrows(JsonParseException.class, () -> reader.read(file));
+            // The other ranges finished before the channel was closed
+            assertEquals(0, inFlight.get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -4,7 +4,10 @@ import com.swiftcoder.json2pojo.models.JsonClass;
 import com.swiftcoder.json2pojo.models.JsonField;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -84,4 +87,87 @@ public class JsonParserTest {
         assertEquals("Integer", numbersField.getType());
         assertTrue(numbersField.isArray());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testStreamingMatchesTreeModel() throws IOException {
+        String json = "{\"id\":7,\"big\":12345678901,\"ratio\":0.5,\"note\":null,"
+            + "\"tags\":[\"a\",\"b\"],\"empty\":[],\"matrix\":[[1],[2]],"
+            + "\"owner\":{\"name\":\"John\",\"address\":{\"city\":\"Rome\"}},"
+            + "\"items\":[{\"sku\":\"x\",\"qty\":1},{\"sku\":\"y\",\"qty\":2,\"extra\":true}]}";
+        JsonParser parser = new JsonParser();
+
+        JsonClass tree = parser.parseJson(json, "Order");
+        JsonClass fromReader = parser.parseJson(new StringReader(json), "Order");
+        JsonClass fromStream = parser.parseJson(
+            new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), "Order");
+
+        assertSameModel(tree, fromReader);
+        assertSameModel(tree, fromStream);
+    }
+
+    @Test
+    public void testNumericTypeNarrowing() throws IOException {
+        String json = "[{\"age\":42,\"year\":2024,\"count\":70000,\"id\":12345678901,"
+            + "\"huge\":123456789012345678901234,\"ratio\":0.5,\"price\":10.50,\"pi\":3.14159265358979,"
+            + "\"levels\":[1,2,300]},"
+            + "{\"age\":-7,\"year\":1999,\"count\":1,\"id\":1,\"huge\":1,\"ratio\":1,\"price\":9.99,"
+            + "\"pi\":2.5,\"levels\":[]}]";
+        JsonParser parser = new JsonParser();
+
+        JsonClass tree = parser.parseJson(json, "Reading");
+        JsonClass fromStream = parser.parseJson(
+            new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), "Reading");
+        assertSameModel(tree, fromStream);
+
+        assertEquals("Byte", field(tree, "age").getNumericType());
+        assertEquals("Short", field(tree, "year").getNumericType());
+        assertEquals("Integer", field(tree, "count").getNumericType());
+        assertEquals("Long", field(tree, "id").getNumericType());
+        assertEquals("BigInteger", field(tree, "huge").getType());
+        assertEquals("BigInteger", field(tree, "huge").getNumericType());
+        assertEquals("Double", field(tree, "ratio").getType());
+        assertEquals("Float", field(tree, "ratio").getNumericType());
+        // Exactly two decimal places reads as money
+        assertEquals("BigDecimal", field(tree, "price").getNumericType());
+        assertEquals("Double", field(tree, "pi").getNumericType());
+        assertEquals("Short", field(tree, "levels").getNumericType());
+    }
+
+    @Test
+    public void testDecimalScaleMatchesAcrossPaths() throws IOException {
+        // Trailing zeros are kept, so both paths see two decimal places
+        String json = "[{\"price\":10.00,\"rate\":1.50},{\"price\":2.50,\"rate\":0.10}]";
+        JsonParser parser = new JsonParser();
+
+        JsonClass tree = parser.parseJson(json, "Quote");
+        JsonClass fromStream = parser.parseJson(
+            new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), "Quote");
+        assertSameModel(tree, fromStream);
+
+        assertEquals("BigDecimal", field(tree, "price").getNumericType());
+        assertEquals("BigDecimal", field(fromStream, "price").getNumericType());
+        assertEquals("BigDecimal", field(tree, "rate").getNumericType());
+    }
+
+    private static JsonField field(JsonClass jsonClass, String name) {
+        for (JsonField field : jsonClass.getFields()) {
+            if (field.getName().equals(name)) {
+                return field;
+            }
+        }
+        throw new AssertionError("No field " + name);
+    }
+
+    private static void assertSameModel(JsonClass expected, JsonClass actual) {
+        assertEquals(expected.getClassName(), actual.getClassName());
+        assertEquals(expected.getFields(), actual.getFields());
+        for (int i = 0; i < expected.getFields().size(); i++) {
+            assertEquals(expected.getFields().get(i).getOriginalJsonType(),
+                actual.getFields().get(i).getOriginalJsonType());
+        }
+        assertEquals(expected.getNestedClasses().size(), actual.getNestedClasses().size());
+        for (int i = 0; i < expected.getNestedClasses().size(); i++) {
+            assertSameModel(expected.getNestedClasses().get(i), actual.getNestedClasses().get(i));
+        }
+    }
+}
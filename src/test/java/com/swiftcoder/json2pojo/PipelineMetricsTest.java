@@ -0,0 +1,100 @@
+package com.swiftcoder.json2pojo;
+
+import com.swiftcoder.json2pojo.generators.DirectoryClassSink;
+import com.swiftcoder.json2pojo.generators.GenerationResult;
+import com.swiftcoder.json2pojo.generators.JavaCodeGenerator;
+import com.swiftcoder.json2pojo.inference.InferenceResult;
+import com.swiftcoder.json2pojo.metrics.PipelineMetrics;
+import com.swiftcoder.json2pojo.models.GenerationConfig;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PipelineMetricsTest {
+
+    // Nine values: the root array, two objects, id and name of each, and one address with its city
+    private static final String JSON = "[{\"id\":1,\"name\":\"a\",\"address\":{\"city\":\"Rome\"}},"
+        + "{\"id\":2,\"name\":\"b\"}]";
+
+    private static final GenerationConfig CONFIG =
+        new GenerationConfig(false, false, Set.of(), "com.example.model", "Person");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testInferenceReportsReadAndInferencePhases() throws IOException {
+        InferenceResult tree = new JsonParser().inferJson(JSON, "Person");
+        PipelineMetrics metrics = tree.getMetrics();
+
+        assertEquals(JSON.length(), metrics.getRead().getInputLength());
+        assertEquals(9, metrics.getInference().getValuesVisited());
+        assertEquals(2, metrics.getInference().getClassesCreated());
+        assertEquals(4, metrics.getInference().getFieldsCreated());
+        assertNull(metrics.getRender());
+
+        byte[] bytes = JSON.getBytes(StandardCharsets.UTF_8);
+        InferenceResult stream = new JsonParser().inferJson(new ByteArrayInputStream(bytes), "Person");
+        assertEquals(bytes.length, stream.getMetrics().getRead().getInputLength());
+        assertEquals(9, stream.getMetrics().getInference().getValuesVisited());
+    }
+
+    @Test
+    public void testGenerationReportsBytesPerClassAndWriteTimes() throws IOException {
+        InferenceResult inference = new JsonParser().inferJson(JSON, "Person");
+        for (JavaCodeGenerator generator : List.of(new JavaCodeGenerator(), new JavaCodeGenerator(new ForkJoinPool(2)))) {
+            Path output = Files.createTempDirectory(tempDir, "out");
+            GenerationResult result = generator.generate(inference.getRootClass(), CONFIG,
+                new DirectoryClassSink(output), null);
+            PipelineMetrics metrics = result.getMetrics();
+
+            assertEquals(List.of("com.example.model.Person", "com.example.model.Address"),
+                List.copyOf(metrics.getRender().getBytesPerClass().keySet()));
+            long written = Files.size(output.resolve("com/example/model/Person.java"));
+            assertEquals(written, metrics.getRender().getBytesPerClass().get("com.example.model.Person"));
+            assertEquals(Set.of("Person.java", "Address.java"), metrics.getWrite().getNanosPerFile().keySet());
+            assertTrue(metrics.getSummary().contains("2 class(es)"));
+        }
+    }
+
+    @Test
+    public void testPhasesAreRecordedAsFlightRecorderEvents() throws IOException {
+        Path file = tempDir.resolve("run.jfr");
+        try (Recording recording = new Recording()) {
+            for (String event : List.of("JsonRead", "Inference", "RenderClass", "WriteFile")) {
+                recording.enable("com.swiftcoder.json2pojo." + event).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            InferenceResult inference = new JsonParser().inferJson(JSON, "Person");
+            new JavaCodeGenerator().generate(inference.getRootClass(), CONFIG, new DirectoryClassSink(tempDir), null);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        List<String> names = events.stream().map(event -> event.getEventType().getName()).collect(Collectors.toList());
+        assertEquals(1, names.stream().filter("com.swiftcoder.json2pojo.JsonRead"::equals).count());
+        assertEquals(2, names.stream().filter("com.swiftcoder.json2pojo.RenderClass"::equals).count());
+        assertEquals(2, names.stream().filter("com.swiftcoder.json2pojo.WriteFile"::equals).count());
+        RecordedEvent inferenceEvent = events.stream()
+            .filter(event -> event.getEventType().getName().equals("com.swiftcoder.json2pojo.Inference"))
+            .findFirst().orElseThrow();
+        assertEquals("Person", inferenceEvent.getString("rootClass"));
+        assertEquals(9, inferenceEvent.getLong("valuesVisited"));
+    }
+}
@@ -0,0 +1,173 @@
+package com.swiftcoder.json2pojo;
+
+import com.swiftcoder.json2pojo.generators.JavaCodeGenerator;
+import com.swiftcoder.json2pojo.inference.FieldShape;
+import com.swiftcoder.json2pojo.inference.InferenceContext;
+import com.swiftcoder.json2pojo.inference.InferenceResult;
+import com.swiftcoder.json2pojo.inference.PipelinedShapeReader;
+import com.swiftcoder.json2pojo.inference.SamplingConfig;
+import com.swiftcoder.json2pojo.inference.SchemaBuilder;
+import com.swiftcoder.json2pojo.inference.StreamingShapeReader;
+import com.swiftcoder.json2pojo.models.GenerationConfig;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PipelinedShapeReaderTest {
+
+    private static final GenerationConfig CONFIG =
+        new GenerationConfig(true, false, Set.of(), "com.example.model", "Record");
+
+    @Test
+    public void testEverySamplingStrategyMatchesTheStreamingPath() throws IOException {
+        byte[] json = new WorkloadGenerator(7).withWidth(12).withDepth(2).withHeterogeneity(0.2)
+            .withKeyCardinality(20).withTotalBytes(300_000).toByteArray();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            PipelinedShapeReader reader = new PipelinedShapeReader(new JsonFactory(), new StreamingShapeReader(), pool,
+                16_384);
+            for (SamplingConfig sampling : List.of(SamplingConfig.all(), SamplingConfig.firstN(300),
+                    SamplingConfig.reservoir(200, 11), SamplingConfig.stratified(3))) {
+                InferenceContext sequentialContext = new InferenceContext(sampling);
+                FieldShape sequential;
+                try (com.fasterxml.jackson.core.JsonParser tokens = new JsonFactory().createParser(json)) {
+                    tokens.nextToken();
+                    sequential = new StreamingShapeReader().read(tokens, sequentialContext);
+                }
+                InferenceContext pipelinedContext = new InferenceContext(sampling);
+                FieldShape pipelined = reader.read(new ByteArrayInputStream(json), pipelinedContext);
+
+                String strategy = sampling.getStrategy().toString();
+                assertEquals(describe(sequential), describe(pipelined), strategy);
+                assertEquals(new JavaCodeGenerator().generateJavaClasses(new SchemaBuilder().build(sequential, "Record"), CONFIG),
+                    new JavaCodeGenerator().generateJavaClasses(new SchemaBuilder().build(pipelined, "Record"), CONFIG),
+                    strategy);
+                assertEquals(sequentialContext.getValuesScanned(), pipelinedContext.getValuesScanned(), strategy);
+                assertEquals(sequentialContext.getValuesSampled(), pipelinedContext.getValuesSampled(), strategy);
+                assertEquals(json.length, pipelinedContext.getBytesRead(), strategy);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testPipelinedEntryPointInfersTheSameModel() throws IOException {
+        byte[] json = new WorkloadGenerator(5).withDepth(2).toByteArray();
+        InferenceResult sequential = new JsonParser().inferJson(new ByteArrayInputStream(json), "Record");
+        InferenceResult pipelined = new JsonParser().inferJsonPipelined(new ByteArrayInputStream(json), "Record");
+
+        assertEquals(generate(sequential), generate(pipelined));
+        assertEquals(sequential.getReport().getValuesScanned(), pipelined.getReport().getValuesScanned());
+        assertEquals(json.length, pipelined.getMetrics().getRead().getInputLength());
+    }
+
+    @Test
+    public void testSmallBatchesOnManyWorkersMatchTheStreamingPath() throws IOException {
+        List<String> documents = List.of(
+            "[{\"a\":\"x]}\\\"{[\",\"b\":[1,[2,3]],\"c\":{\"d\":null}}, {\"a\":\"y\",\"e\":true} ,\n{\"b\":[]}]",
+            "[1, 2.5, -3e2, true, null, \"s\", [1], {\"k\":1}]",
+            "[ ]",
+            "{\"root\":{\"items\":[{\"id\":1},{\"id\":2,\"tag\":\"t\"}]}}",
+            "\"just a string\"",
+            "  ");
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            PipelinedShapeReader reader = new PipelinedShapeReader(new JsonFactory(), new StreamingShapeReader(), pool, 8);
+            for (String document : documents) {
+                byte[] bytes = document.getBytes(StandardCharsets.UTF_8);
+                FieldShape pipelined = reader.read(new ByteArrayInputStream(bytes),
+                    new InferenceContext(SamplingConfig.all()));
+                FieldShape sequential;
+                try (com.fasterxml.jackson.core.JsonParser tokens = new JsonFactory().createParser(bytes)) {
+                    tokens.nextToken();
+                    sequential = new StreamingShapeReader().read(tokens);
+                }
+                assertEquals(describe(sequential), describe(pipelined), document);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testMalformedArraysAreRejected() {
+        PipelinedShapeReader reader = new PipelinedShapeReader(new JsonFactory(), new StreamingShapeReader());
+        for (String document : List.of("[1,,2]", "[,1]", "[1,]", "[{\"a\":1}", "[1 2]", "[{\"a\":tru}]", "[1}")) {
+            byte[] bytes = document.getBytes(StandardCharsets.UTF_8);
+            assertThrows(IOException.class,
+                () -> reader.read(new ByteArrayInputStream(bytes), new InferenceContext(SamplingConfig.all())), document);
+        }
+    }
+
+    @Test
+    public void testReaderStaysAFewBatchesAheadOfTheWorkers() throws IOException {
+        byte[] json = new WorkloadGenerator(3).withTotalBytes(200_000).toByteArray();
+        AtomicLong observed = new AtomicLong();
+        StreamingShapeReader counting = new StreamingShapeReader() {
+            @Override
+            public void observeElement(com.fasterxml.jackson.core.JsonParser tokens, FieldShape elementShape, InferenceContext context)
+                throws IOException {
+                super.observeElement(tokens, elementShape, context);
+                observed.incrementAndGet();
+            }
+        };
+        // Taken when the last bytes are handed out; the closing bracket ends the scan before end of input is read
+        long[] observedAtEnd = new long[1];
+        InputStream input = new FilterInputStream(new ByteArrayInputStream(json)) {
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int read = super.read(buffer, offset, length);
+                if (read >= 0 && available() == 0 && observedAtEnd[0] == 0) {
+                    observedAtEnd[0] = observed.get();
+                }
+                return read;
+            }
+        };
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            FieldShape shape = new PipelinedShapeReader(new JsonFactory(), counting, pool, 4096)
+                .read(input, new InferenceContext(SamplingConfig.all()));
+            long records = shape.getElementShape().getPresent();
+            // Two workers may hold four 4 KB batches between them, so most records were done before the input ran out
+            assertTrue(observedAtEnd[0] >= records / 2, observedAtEnd[0] + " of " + records);
+            assertEquals(records, observed.get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static List<String> generate(InferenceResult result) {
+        return new JavaCodeGenerator().generateJavaClasses(result.getRootClass(), CONFIG);
+    }
+
+    // Kinds and counts of every position, fields in order
+    private static String describe(FieldShape shape) {
+        StringBuilder description = new StringBuilder()
+            .append(shape.getKinds()).append('/').append(shape.getPresent()).append('/').append(shape.getNulls());
+        if (shape.getObjectShape() != null) {
+            description.append('{');
+            for (Map.Entry<String, FieldShape> field : shape.getObjectShape().getFields().entrySet()) {
+                description.append(field.getKey()).append(':').append(describe(field.getValue())).append(',');
+            }
+            description.append('}');
+        }
+        if (shape.getElementShape() != null) {
+            description.append('[').append(describe(shape.getElementShape())).append(']');
+        }
+        return description.toString();
+    }
+}
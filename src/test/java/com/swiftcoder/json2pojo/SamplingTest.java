@@ -0,0 +1,320 @@
+package com.swiftcoder.json2pojo;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.swiftcoder.json2pojo.inference.ClassCanonicalizer;
+import com.swiftcoder.json2pojo.inference.FieldShape;
+import com.swiftcoder.json2pojo.inference.InferenceContext;
+import com.swiftcoder.json2pojo.inference.InferenceLimits;
+import com.swiftcoder.json2pojo.inference.InferenceReport;
+import com.swiftcoder.json2pojo.inference.InferenceResult;
+import com.swiftcoder.json2pojo.inference.SamplingConfig;
+import com.swiftcoder.json2pojo.inference.SchemaBuilder;
+import com.swiftcoder.json2pojo.inference.StreamingShapeReader;
+import com.swiftcoder.json2pojo.models.JsonClass;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SamplingTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testFirstNStopsAfterPrefix() throws IOException {
+        String json = items(100, 99);
+        InferenceResult result = new JsonParser(SamplingConfig.firstN(10)).inferJson(json, "Root");
+
+        JsonClass item = result.getRootClass().getNestedClasses().get(0);
+        assertEquals(1, item.getFields().size());
+        assertEquals(100, result.getReport().getValuesScanned());
+        assertEquals(10, result.getReport().getValuesSampled());
+        assertTrue(result.getReport().isSampled());
+    }
+
+    @Test
+    public void testReservoirReportsRareFields() throws IOException {
+        String json = items(10_000, -1);
+        SamplingConfig sampling = SamplingConfig.reservoir(2_000, 42);
+
+        InferenceReport treeReport = new JsonParser(sampling).inferJson(json, "Root").getReport();
+        InferenceReport streamReport = new JsonParser(sampling).inferJson(new StringReader(json), "Root").getReport();
+
+        for (InferenceReport report : new InferenceReport[]{treeReport, streamReport}) {
+            assertEquals(10_000, report.getValuesScanned());
+            assertEquals(2_000, report.getValuesSampled());
+            assertEquals(1, report.getRareFields().size());
+            assertEquals("items[].rare", report.getRareFields().get(0).getPath());
+            assertTrue(report.getRareFields().get(0).getFraction() < 0.05);
+        }
+    }
+
+    @Test
+    public void testStratifiedKeepsMinorityShapes() throws IOException {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 5_000; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append("}");
+        }
+        json.append(",{\"id\":1,\"legacy\":true}]");
+
+        InferenceResult tree = new JsonParser(SamplingConfig.stratified(5)).inferJson(json.toString(), "Row");
+        InferenceResult stream = new JsonParser(SamplingConfig.stratified(5))
+            .inferJson(new StringReader(json.toString()), "Row");
+
+        assertEquals(2, tree.getRootClass().getFields().size());
+        assertEquals(6, tree.getReport().getValuesSampled());
+        assertEquals(tree.getRootClass().getFields(), stream.getRootClass().getFields());
+    }
+
+    @Test
+    public void testJsonLinesSamplingStrategies() throws IOException {
+        Path file = tempDir.resolve("corpus.ndjson");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < 20_000; i++) {
+                writer.write(i % 100 == 0 ? "{\"id\":" + i + ",\"rare\":\"x\"}\n" : "{\"id\":" + i + "}\n");
+            }
+        }
+
+        InferenceReport firstN = new JsonParser(SamplingConfig.firstN(50)).inferJsonLines(file, "Event").getReport();
+        assertEquals(50, firstN.getValuesSampled());
+
+        InferenceResult reservoir = new JsonParser(SamplingConfig.reservoir(1_000, 7)).inferJsonLines(file, "Event");
+        assertEquals(20_000, reservoir.getReport().getValuesScanned());
+        assertEquals(1_000, reservoir.getReport().getValuesSampled());
+        assertEquals("rare", reservoir.getReport().getRareFields().get(0).getPath());
+        assertTrue(reservoir.getRootClass().getFields().get(1).isOptional());
+
+        InferenceResult stratified = new JsonParser(SamplingConfig.stratified(3)).inferJsonLines(file, "Event");
+        assertEquals(6, stratified.getReport().getValuesSampled());
+        assertEquals(2, stratified.getRootClass().getFields().size());
+    }
+
+    @Test
+    public void testByteBudgetTruncatesCorpus() throws IOException {
+        Path file = tempDir.resolve("budget.ndjson");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < 1_000; i++) {
+                writer.write("{\"n\":" + (i % 10) + "}\n");
+            }
+        }
+
+        InferenceReport report = new JsonParser(SamplingConfig.all().withByteBudget(800))
+            .inferJsonLines(file, "Row").getReport();
+
+        assertTrue(report.isTruncated());
+        assertEquals(100, report.getValuesSampled());
+    }
+
+    @Test
+    public void testByteBudgetOnlyBoundsJsonLines() throws IOException {
+        String json = items(1_000, -1);
+        SamplingConfig sampling = SamplingConfig.all().withByteBudget(800);
+
+        InferenceReport treeReport = new JsonParser(sampling).inferJson(json, "Root").getReport();
+        InferenceReport streamReport = new JsonParser(sampling).inferJson(new StringReader(json), "Root").getReport();
+
+        for (InferenceReport report : new InferenceReport[]{treeReport, streamReport}) {
+            assertFalse(report.isTruncated());
+            assertEquals(1_000, report.getValuesSampled());
+        }
+    }
+
+    @Test
+    public void testDepthLimitYieldsPartialSchema() throws IOException {
+        StringBuilder json = new StringBuilder("{\"id\":1");
+        for (int i = 0; i < 200; i++) {
+            json.append(",\"a\":{\"id\":1");
+        }
+        json.append("}".repeat(201));
+        SamplingConfig sampling = SamplingConfig.all().withLimits(InferenceLimits.defaults().withMaxDepth(10));
+
+        InferenceResult tree = new JsonParser(sampling).inferJson(json.toString(), "Root");
+        InferenceResult stream = new JsonParser(sampling).inferJson(new StringReader(json.toString()), "Root");
+
+        for (InferenceResult result : new InferenceResult[]{tree, stream}) {
+            InferenceReport report = result.getReport();
+            assertTrue(report.isPartial());
+            assertEquals(1, report.getLimitHits().size());
+            InferenceReport.LimitHit hit = report.getLimitHits().get(0);
+            assertEquals(InferenceLimits.Limit.DEPTH, hit.getLimit());
+            assertEquals(1, hit.getCount());
+            // The tenth object is the last one observed; its "a" is skipped
+            assertEquals(String.join(".", Collections.nCopies(10, "a")), hit.getFirstPath());
+            assertTrue(report.getSummary().contains("maximum depth of 10"));
+        }
+        assertEquals(tree.getRootClass().getFields(), stream.getRootClass().getFields());
+    }
+
+    @Test
+    public void testDeepNestingDoesNotOverflowStack() throws IOException {
+        int depth = 100_000;
+        String json = "{\"a\":[".repeat(depth) + "]}".repeat(depth);
+        JsonFactory factory = JsonFactory.builder()
+            .streamReadConstraints(StreamReadConstraints.builder().maxNestingDepth(Integer.MAX_VALUE).build())
+            .build();
+        InferenceContext context = new InferenceContext(SamplingConfig.all()
+            .withLimits(InferenceLimits.interactive().withMaxDepth(Integer.MAX_VALUE)));
+
+        FieldShape root;
+        try (com.fasterxml.jackson.core.JsonParser tokens = factory.createParser(json)) {
+            tokens.nextToken();
+            root = new StreamingShapeReader().read(tokens, context);
+        }
+        int levels = 0;
+        for (FieldShape shape = root; shape.getObjectShape() != null; levels++) {
+            shape = shape.getObjectShape().getFields().get("a").getElementShape();
+        }
+        assertEquals(depth, levels);
+
+        // The class limit keeps the model small enough for the recursive canonicalizer
+        JsonClass rootClass = new SchemaBuilder().build(root, "Root", context);
+        ClassCanonicalizer.Result canonicalization = new ClassCanonicalizer().canonicalize(rootClass);
+        InferenceReport report = InferenceReport.from(root, context, canonicalization);
+        assertEquals(InferenceLimits.Limit.CLASSES, report.getLimitHits().get(0).getLimit());
+        assertEquals(InferenceLimits.INTERACTIVE_MAX_CLASSES, canonicalization.getClassesBefore());
+    }
+
+    @Test
+    public void testFieldAndClassLimitsDropDeepestFirst() throws IOException {
+        String json = "{\"a\":1,\"b\":2,\"c\":{\"d\":1,\"e\":{\"f\":1}},\"g\":{\"h\":1}}";
+
+        InferenceResult fields = new JsonParser(SamplingConfig.all()
+            .withLimits(InferenceLimits.defaults().withMaxFields(5))).inferJson(json, "Root");
+        InferenceReport.LimitHit fieldHit = fields.getReport().getLimitHits().get(0);
+        assertEquals(InferenceLimits.Limit.FIELDS, fieldHit.getLimit());
+        assertEquals(2, fieldHit.getCount());
+        assertEquals("c.e", fieldHit.getFirstPath());
+        assertEquals(4, fields.getRootClass().getFields().size());
+
+        InferenceResult classes = new JsonParser(SamplingConfig.all()
+            .withLimits(InferenceLimits.defaults().withMaxClasses(2))).inferJson(json, "Root");
+        InferenceReport.LimitHit classHit = classes.getReport().getLimitHits().get(0);
+        assertEquals(InferenceLimits.Limit.CLASSES, classHit.getLimit());
+        assertEquals(2, classHit.getCount());
+        assertEquals("g", classHit.getFirstPath());
+        assertEquals(1, classes.getRootClass().getNestedClasses().size());
+        assertEquals("Object", classes.getRootClass().getFields().get(3).getType());
+    }
+
+    @Test
+    public void testDefaultLimitsKeepEveryClass() throws IOException {
+        // 40 groups of 30 entries, each entry with a field of its own: 1,241 distinct classes
+        StringBuilder json = new StringBuilder("{");
+        for (int group = 0; group < 40; group++) {
+            json.append(group == 0 ? "" : ",").append("\"group").append(group).append("\":{");
+            for (int entry = 0; entry < 30; entry++) {
+                json.append(entry == 0 ? "" : ",").append("\"entry").append(entry).append("\":{\"value")
+                    .append(group).append('_').append(entry).append("\":1}");
+            }
+            json.append('}');
+        }
+        json.append('}');
+
+        InferenceResult result = new JsonParser().inferJson(json.toString(), "Root");
+        assertTrue(result.getReport().getLimitHits().isEmpty());
+        assertEquals(1_241, countClasses(result.getRootClass()));
+
+        InferenceResult interactive = new JsonParser(SamplingConfig.interactive()).inferJson(json.toString(), "Root");
+        assertEquals(InferenceLimits.Limit.CLASSES, interactive.getReport().getLimitHits().get(0).getLimit());
+        assertTrue(countClasses(interactive.getRootClass()) <= InferenceLimits.INTERACTIVE_MAX_CLASSES);
+    }
+
+    private static int countClasses(JsonClass jsonClass) {
+        int count = 1;
+        for (JsonClass nested : jsonClass.getNestedClasses()) {
+            count += countClasses(nested);
+        }
+        return count;
+    }
+
+    // Every element has "id"; every 100th also has "rare", plus "late" only at lateIndex
+    private static String items(int count, int lateIndex) {
+        StringBuilder json = new StringBuilder("{\"items\":[");
+        for (int i = 0; i < count; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"id\":").append(i);
+            if (lateIndex < 0 && i % 100 == 0) {
+                json.append(",\"rare\":true");
+            }
+            if (i == lateIndex) {
+                json.append(",\"late\":true");
+            }
+            json.append("}");
+        }
+        return json.append("]}").toString();
+    }
+
+    @Test
+    public void testCancellationCheckAbortsInference() {
+        String json = items(5_000, -1);
+        JsonParser parser = new JsonParser(SamplingConfig.all(), () -> {
+            throw new IllegalStateException("cancelled");
+        });
+
+        assertThrows(IllegalStateException.class, () -> parser.inferJson(json, "Root"));
+        assertThrows(IllegalStateException.class, () -> parser.inferJson(new StringReader(json), "Root"));
+    }
+
+    @Test
+    public void testCancellationIsPolledPastTheReservoir() {
+        String json = items(20_000, -1);
+        // The first poll passes; the next one can only come from an element past the reservoir
+        for (boolean pipelined : new boolean[]{false, true}) {
+            AtomicInteger polls = new AtomicInteger();
+            JsonParser parser = new JsonParser(SamplingConfig.reservoir(2, 0), () -> {
+                if (polls.incrementAndGet() > 1) {
+                    throw new IllegalStateException("cancelled");
+                }
+            });
+            ByteArrayInputStream input = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+
+            assertThrows(IllegalStateException.class, () -> {
+                if (pipelined) {
+                    parser.inferJsonPipelined(input, "Root");
+                } else {
+                    parser.inferJson(input, "Root");
+                }
+            });
+        }
+    }
+
+    @Test
+    public void testBudgetIsPolledInsideOneLargeObject() throws IOException {
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < 5_000; i++) {
+            json.append(i == 0 ? "" : ",").append("\"f").append(i).append("\":").append(i);
+        }
+        String object = json.append("}").toString();
+        JsonParser cancelling = new JsonParser(SamplingConfig.all(), () -> {
+            throw new IllegalStateException("cancelled");
+        });
+
+        assertThrows(IllegalStateException.class, () -> cancelling.inferJson(object, "Root"));
+        assertThrows(IllegalStateException.class, () -> cancelling.inferJson(new StringReader(object), "Root"));
+
+        // A check slower than the budget runs the clock out part way through the fields
+        JsonParser slow = new JsonParser(SamplingConfig.all().withTimeBudgetMillis(1), () -> {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        for (InferenceResult result : new InferenceResult[]{
+            slow.inferJson(object, "Root"), slow.inferJson(new StringReader(object), "Root")}) {
+            assertTrue(result.getReport().isTruncated());
+            assertTrue(result.getRootClass().getFields().size() < 5_000);
+        }
+    }
+}
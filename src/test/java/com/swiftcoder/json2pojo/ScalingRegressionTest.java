@@ -0,0 +1,181 @@
+package com.swiftcoder.json2pojo;
+
+import com.swiftcoder.json2pojo.generators.JavaCodeGenerator;
+import com.swiftcoder.json2pojo.inference.InferenceLimits;
+import com.swiftcoder.json2pojo.inference.SamplingConfig;
+import com.swiftcoder.json2pojo.models.GenerationConfig;
+import com.swiftcoder.json2pojo.models.JsonClass;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs inference and generation over workloads growing in geometric steps and fails when time
+ * or allocation grows clearly faster than the input. Slow, so tagged to run on its own
+ * (./gradlew scalingTest) rather than with the unit tests.
+ */
+@Tag("scaling")
+public class ScalingRegressionTest {
+    // Each workload is STEP times the previous one: linear growth costs STEP times more, quadratic STEP^2
+    private static final int STEP = 4;
+    private static final int STEPS = 3;
+    // Timing is noisy (JIT, GC, shared CI cores), allocation much less so; both still fail well short of STEP^2
+    private static final double TIME_TOLERANCE = 3.0;
+    private static final double ALLOCATION_TOLERANCE = 1.5;
+    private static final int WARM_UPS = 3;
+    private static final int RUNS = 5;
+
+    @Test
+    public void testStreamingInferenceScalesWithBytes() throws Exception {
+        Cost[] costs = new Cost[STEPS];
+        long bytes = 256 * 1024;
+        for (int step = 0; step < STEPS; step++, bytes *= STEP) {
+            byte[] json = new WorkloadGenerator(1).withWidth(12).withDepth(3).withTotalBytes(bytes).toByteArray();
+            costs[step] = measure(() -> new JsonParser().parseJson(new ByteArrayInputStream(json), "Root"));
+        }
+        assertLinear("streaming inference", costs);
+    }
+
+    @Test
+    public void testTreeInferenceScalesWithBytes() throws Exception {
+        Cost[] costs = new Cost[STEPS];
+        long bytes = 256 * 1024;
+        for (int step = 0; step < STEPS; step++, bytes *= STEP) {
+            String json = new WorkloadGenerator(2).withWidth(12).withDepth(3).withHeterogeneity(0.1)
+                .withTotalBytes(bytes).generate();
+            costs[step] = measure(() -> new JsonParser().parseJson(json, "Root"));
+        }
+        assertLinear("tree inference", costs);
+    }
+
+    @Test
+    public void testInferenceScalesWithKeyCardinality() throws Exception {
+        Cost[] costs = new Cost[STEPS];
+        int keys = 1_000;
+        for (int step = 0; step < STEPS; step++, keys *= STEP) {
+            // Roughly every key seen a few times, so the work grows with the keys rather than the width.
+            // Streamed, since parallel chunks each rebuild most of a sparse key space.
+            byte[] json = new WorkloadGenerator(3).withWidth(8).withKeyCardinality(keys)
+                .withTotalBytes(keys * 400L).toByteArray();
+            costs[step] = measure(() -> new JsonParser().parseJson(new ByteArrayInputStream(json), "Root"));
+        }
+        assertLinear("inference over many keys", costs);
+    }
+
+    @Test
+    public void testGenerationScalesWithClasses() throws Exception {
+        Cost[] costs = new Cost[STEPS];
+        int depth = 16;
+        JavaCodeGenerator generator = new JavaCodeGenerator();
+        GenerationConfig config = new GenerationConfig(true, false, new HashSet<>(), "com.example.model", "Root");
+        JsonParser parser = new JsonParser(SamplingConfig.all().withLimits(InferenceLimits.defaults().withMaxDepth(1_000)));
+        for (int step = 0; step < STEPS; step++, depth *= STEP) {
+            // One record; every level of nesting is a class of its own
+            String json = new WorkloadGenerator(4).withDepth(depth).withTotalBytes(1).generate();
+            JsonClass rootClass = parser.parseJson(json, "Root");
+            costs[step] = measure(() -> generator.generateJavaClasses(rootClass, config));
+        }
+        assertLinear("generation", costs);
+    }
+
+    @Test
+    public void testCanonicalizationScalesWithClasses() throws Exception {
+        Cost[] costs = new Cost[STEPS];
+        int width = 280;
+        for (int step = 0; step < STEPS; step++, width *= STEP) {
+            // Structurally identical nested classes, all folded into one
+            String json = new WorkloadGenerator(5).withWidth(width).withTotalBytes(1).generate();
+            costs[step] = measure(() -> new JsonParser().parseJson(json, "Root"));
+        }
+        assertLinear("schema building and canonicalization", costs);
+    }
+
+    @Test
+    public void testWideClassesScaleWithFields() throws Exception {
+        Cost[] costs = new Cost[STEPS];
+        int width = 2_000;
+        JavaCodeGenerator generator = new JavaCodeGenerator();
+        GenerationConfig config = new GenerationConfig(true, false, new HashSet<>(), "com.example.model", "Root")
+            .withGenerateReaders(true).withGenerateWriters(true);
+        JsonParser parser = new JsonParser(SamplingConfig.all().withLimits(InferenceLimits.defaults()
+            .withMaxFields(1_000_000)));
+        for (int step = 0; step < STEPS; step++, width *= STEP) {
+            // A wide object nesting itself, so the recursion check compares every field by name
+            String json = "{" + wideFields(width) + ",\"child\":{" + wideFields(width) + ",\"child\":null}}";
+            costs[step] = measure(() -> generator.generateJavaClasses(parser.parseJson(json, "Root"), config));
+        }
+        assertLinear("wide classes", costs);
+    }
+
+    // Mixed value kinds, so the object is never mistaken for a map
+    private static String wideFields(int width) {
+        StringBuilder fields = new StringBuilder();
+        for (int i = 0; i < width; i++) {
+            fields.append(i == 0 ? "" : ",").append("\"field").append(i).append("\":");
+            fields.append(i % 3 == 0 ? "\"text\"" : i % 3 == 1 ? String.valueOf(i) : "[true]");
+        }
+        return fields.toString();
+    }
+
+    private static void assertLinear(String what, Cost[] costs) {
+        for (int step = 1; step < costs.length; step++) {
+            double timeRatio = (double) costs[step].nanos / Math.max(1, costs[step - 1].nanos);
+            double allocationRatio = (double) costs[step].bytes / Math.max(1, costs[step - 1].bytes);
+            assertTrue(timeRatio <= STEP * TIME_TOLERANCE, String.format(
+                "%s: time grew %.1fx for %dx the input (%s -> %s)", what, timeRatio, STEP, costs[step - 1], costs[step]));
+            assertTrue(allocationRatio <= STEP * ALLOCATION_TOLERANCE, String.format(
+                "%s: allocation grew %.1fx for %dx the input (%s -> %s)", what, allocationRatio, STEP,
+                costs[step - 1], costs[step]));
+        }
+    }
+
+    // Best of several runs after warming up, so JIT compilation and GC pauses do not count
+    private static Cost measure(Callable<?> task) throws Exception {
+        for (int warmUp = 0; warmUp < WARM_UPS; warmUp++) {
+            task.call();
+        }
+        long bestNanos = Long.MAX_VALUE;
+        long bestBytes = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            // Garbage of earlier runs should not be collected on this run's clock
+            System.gc();
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            task.call();
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+            bestBytes = Math.min(bestBytes, allocatedBytes() - allocatedBefore);
+        }
+        return new Cost(bestNanos, bestBytes);
+    }
+
+    // Summed over all threads, since inference and generation fork onto a pool
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            total += Math.max(0, allocated);
+        }
+        return total;
+    }
+
+    private static class Cost {
+        private final long nanos;
+        private final long bytes;
+
+        Cost(long nanos, long bytes) {
+            this.nanos = nanos;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.1f ms, %.1f MB", nanos / 1e6, bytes / 1e6);
+        }
+    }
+}
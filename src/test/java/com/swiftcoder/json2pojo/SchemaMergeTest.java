@@ -0,0 +1,216 @@
+package com.swiftcoder.json2pojo;
+
+import com.swiftcoder.json2pojo.inference.FieldShape;
+import com.swiftcoder.json2pojo.inference.SchemaBuilder;
+import com.swiftcoder.json2pojo.inference.StringStats;
+import com.swiftcoder.json2pojo.inference.TreeShapeReader;
+import com.swiftcoder.json2pojo.models.JsonClass;
+import com.swiftcoder.json2pojo.models.JsonField;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SchemaMergeTest {
+
+    @Test
+    public void testArrayElementsAreMerged() throws IOException {
+        String json = "{\"users\":["
+            + "{\"id\":1,\"name\":\"a\",\"score\":1},"
+            + "{\"id\":2,\"name\":null,\"score\":2.5,\"email\":\"b@x\"},"
+            + "{\"id\":3000000000,\"name\":\"c\",\"score\":3}]}";
+        JsonParser parser = new JsonParser();
+        JsonClass result = parser.parseJson(json, "Response");
+
+        JsonClass user = result.getNestedClasses().get(0);
+        assertEquals("User", user.getClassName());
+        assertEquals(4, user.getFields().size());
+
+        JsonField id = findField(user, "id");
+        assertEquals("Long", id.getType());
+        assertFalse(id.isNullable());
+        assertFalse(id.isOptional());
+
+        JsonField name = findField(user, "name");
+        assertEquals("String", name.getType());
+        assertTrue(name.isNullable());
+        assertFalse(name.isOptional());
+
+        assertEquals("Double", findField(user, "score").getType());
+
+        JsonField email = findField(user, "email");
+        assertEquals("String", email.getType());
+        assertTrue(email.isOptional());
+    }
+
+    @Test
+    public void testIncompatibleTypesWidenToObject() throws IOException {
+        String json = "{\"values\":[{\"v\":1},{\"v\":\"one\"},{\"v\":{\"n\":1}}],\"mixed\":[1,\"a\"],\"late\":[null,[],[5]]}";
+        JsonClass result = new JsonParser().parseJson(json, "Root");
+
+        assertEquals("Object", findField(result.getNestedClasses().get(0), "v").getType());
+        assertEquals("Object", findField(result, "mixed").getType());
+        assertEquals("Object", findField(result, "late").getType());
+    }
+
+    @Test
+    public void testTopLevelArrayDescribesElements() throws IOException {
+        JsonClass result = new JsonParser().parseJson("[{\"a\":1},{\"b\":true}]", "Item");
+
+        assertEquals("Item", result.getClassName());
+        assertTrue(findField(result, "a").isOptional());
+        assertTrue(findField(result, "b").isOptional());
+    }
+
+    @Test
+    public void testParallelReducerMatchesSequentialScan() {
+        ObjectMapper mapper = new ObjectMapper();
+        ArrayNode array = mapper.createArrayNode();
+        for (int i = 0; i < 20_000; i++) {
+            ObjectNode element = array.addObject();
+            element.put("id", i);
+            if (i % 7 == 0) {
+                element.putNull("comment");
+            } else if (i % 3 == 0) {
+                element.put("comment", "c" + i);
+            }
+            if (i == 19_999) {
+                element.put("last", true);
+            }
+        }
+
+        SchemaBuilder builder = new SchemaBuilder();
+        FieldShape parallel = new TreeShapeReader(new ForkJoinPool(4), 1000, 128).read(array);
+        FieldShape sequential = new TreeShapeReader(ForkJoinPool.commonPool(), Integer.MAX_VALUE, 1).read(array);
+
+        JsonClass parallelClass = builder.build(parallel, "Row");
+        JsonClass sequentialClass = builder.build(sequential, "Row");
+
+        assertEquals(sequentialClass.getFields(), parallelClass.getFields());
+        assertEquals(20_000, parallel.getElementShape().getObjectShape().getObservations());
+        assertTrue(findField(parallelClass, "comment").isNullable());
+        assertTrue(findField(parallelClass, "last").isOptional());
+    }
+
+    @Test
+    public void testRepeatedStringsAreEnumCandidates() throws IOException {
+        String json = "[{\"status\":\"active\",\"name\":\"a\",\"tags\":[\"x\",\"y\"]},"
+            + "{\"status\":\"closed\",\"name\":\"b\",\"tags\":[\"y\"]},"
+            + "{\"status\":\"active\",\"name\":\"c\",\"tags\":[\"x\"]},"
+            + "{\"status\":null,\"name\":\"d\",\"tags\":[]},"
+            + "{\"status\":\"closed\",\"name\":\"e\",\"tags\":[]}]";
+        JsonClass result = new JsonParser().parseJson(json, "Ticket");
+
+        assertEquals("Status", findField(result, "status").getEnumName());
+        assertEquals(List.of("active", "closed"), findField(result, "status").getEnumValues());
+        assertEquals("Tag", findField(result, "tags").getEnumName());
+        assertEquals(List.of("x", "y"), findField(result, "tags").getEnumValues());
+        // Every value seen once: nothing suggests a closed set
+        assertNull(findField(result, "name").getEnumValues());
+    }
+
+    @Test
+    public void testStringStatsFallBackToSketch() {
+        StringStats first = new StringStats();
+        StringStats second = new StringStats();
+        for (int i = 0; i < 20_000; i++) {
+            (i % 2 == 0 ? first : second).record("value-" + i);
+        }
+        first.merge(second);
+
+        assertFalse(first.isExact());
+        assertNull(first.getDistinctValues());
+        assertEquals(20_000, first.getCount());
+        assertEquals(20_000, first.getCardinality(), 20_000 * 0.1);
+
+        StringStats small = new StringStats();
+        for (String value : new String[]{"EUR", "USD", "EUR", "GBP"}) {
+            small.record(value);
+        }
+        assertTrue(small.isExact());
+        assertEquals(List.of("EUR", "USD", "GBP"), small.getDistinctValues());
+        assertEquals(3, small.getCardinality());
+    }
+
+    @Test
+    public void testDynamicKeysBecomeMaps() throws IOException {
+        String json = "{\"total\":2,\"users\":{\"u_1001\":{\"name\":\"a\"},\"u_1002\":{\"name\":\"b\",\"age\":3}},"
+            + "\"daily\":{\"2024-01-01\":5,\"2024-01-02\":7.5},\"address\":{\"line1\":\"x\",\"line2\":\"y\"}}";
+        JsonClass result = new JsonParser().parseJson(json, "Report");
+
+        JsonField users = findField(result, "users");
+        assertTrue(users.isMap());
+        assertEquals("Map<String, User>", users.getJavaType());
+        JsonClass user = result.getNestedClasses().get(0);
+        assertEquals("User", user.getClassName());
+        assertTrue(findField(user, "age").isOptional());
+        assertEquals("Map<String, Double>", findField(result, "daily").getJavaType());
+        // Hand-named keys stay fields even when they end in a digit
+        assertFalse(findField(result, "address").isMap());
+    }
+
+    @Test
+    public void testDifferentlyShapedObjectValuesStayFields() throws IOException {
+        String json = "{\"u_1001\":{\"name\":\"a\",\"email\":\"a@x\"},"
+            + "\"ord-0042\":{\"total\":9.5,\"items\":[1],\"placedAt\":\"2024-01-01\"}}";
+        JsonClass result = new JsonParser().parseJson(json, "Root");
+
+        assertEquals(2, result.getFields().size());
+        assertFalse(result.getFields().get(0).isMap());
+        assertEquals(2, result.getNestedClasses().size());
+    }
+
+    @Test
+    public void testWideObjectOfHandNamedFieldsStaysClass() throws IOException {
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < 1_000; i++) {
+            json.append(i == 0 ? "" : ",").append("\"setting").append(i).append("\":").append(i);
+        }
+        json.append('}');
+        JsonClass result = new JsonParser().parseJson(json.toString(), "Root");
+
+        assertEquals(1_000, result.getFields().size());
+    }
+
+    @Test
+    public void testWideDynamicObjectStaysProportionalToShapes() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode root = mapper.createObjectNode();
+        ObjectNode accounts = root.putObject("accounts");
+        for (int i = 0; i < 10_000; i++) {
+            ObjectNode account = accounts.putObject("acct-" + (100_000 + i));
+            account.put("balance", i);
+            if (i % 2 == 0) {
+                account.put("owner", "o" + i);
+            }
+        }
+        String json = mapper.writeValueAsString(root);
+        JsonParser parser = new JsonParser();
+
+        JsonClass tree = parser.parseJson(json, "Ledger");
+        JsonClass streamed = parser.parseJson(new StringReader(json), "Ledger");
+
+        for (JsonClass result : new JsonClass[]{tree, streamed}) {
+            assertEquals(1, result.getFields().size());
+            assertEquals("Map<String, Account>", result.getFields().get(0).getJavaType());
+            JsonClass account = result.getNestedClasses().get(0);
+            assertEquals(2, account.getFields().size());
+            assertTrue(findField(account, "owner").isOptional());
+        }
+        assertEquals(tree.getNestedClasses().get(0).getFields(), streamed.getNestedClasses().get(0).getFields());
+    }
+
+    private static JsonField findField(JsonClass jsonClass, String name) {
+        return jsonClass.getFields().stream()
+            .filter(f -> f.getName().equals(name))
+            .findFirst()
+            .orElseThrow(() -> new AssertionError("Missing field " + name));
+    }
+}
@@ -0,0 +1,117 @@
+package com.swiftcoder.json2pojo;
+
+import com.swiftcoder.json2pojo.inference.ClassCanonicalizer;
+import com.swiftcoder.json2pojo.inference.SamplingConfig;
+import com.swiftcoder.json2pojo.inference.SymbolTable;
+import com.swiftcoder.json2pojo.models.JsonClass;
+import com.swiftcoder.json2pojo.models.JsonField;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SymbolTableTest {
+
+    private static final String JSON = "{\"id\":1,\"shippingAddress\":{\"street\":\"a\",\"city\":\"b\"},"
+        + "\"tags\":[{\"label\":\"x\"}]}";
+
+    @Test
+    public void testIdsAreDenseAndSymbolsShared() throws Exception {
+        SymbolTable symbols = new SymbolTable();
+        String first = new String("street".toCharArray());
+        String second = new String("street".toCharArray());
+
+        assertEquals(0, symbols.idOf(first));
+        assertEquals(1, symbols.idOf("city"));
+        assertEquals(0, symbols.idOf(second));
+        assertSame(first, symbols.canonical(second));
+        assertEquals("city", symbols.symbol(1));
+
+        // Racing threads agree on one id per name
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<int[]>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(workers.submit(() -> {
+                    int[] ids = new int[1000];
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = symbols.idOf("name" + i);
+                    }
+                    return ids;
+                }));
+            }
+            int[] expected = results.get(0).get();
+            for (Future<int[]> result : results) {
+                assertArrayEquals(expected, result.get());
+            }
+        } finally {
+            workers.shutdown();
+        }
+        assertEquals(1002, symbols.size());
+    }
+
+    @Test
+    public void testRunsSharingATableShareNamesAndTypes() throws IOException {
+        SymbolTable symbols = new SymbolTable();
+        JsonClass tree = new JsonParser(SamplingConfig.all(), null, symbols).parseJson(JSON, "Order");
+        int size = symbols.size();
+        byte[] bytes = JSON.getBytes(StandardCharsets.UTF_8);
+        JsonClass stream = new JsonParser(SamplingConfig.all(), null, symbols)
+            .parseJson(new ByteArrayInputStream(bytes), "Order");
+
+        // The second run saw nothing new
+        assertEquals(size, symbols.size());
+        for (int i = 0; i < tree.getFields().size(); i++) {
+            assertSame(tree.getFields().get(i).getName(), stream.getFields().get(i).getName());
+        }
+        JsonClass treeAddress = tree.getNestedClasses().get(0);
+        JsonClass streamAddress = stream.getNestedClasses().get(0);
+        assertSame(treeAddress.getClassName(), streamAddress.getClassName());
+        assertSame(treeAddress.getFields().get(0).getName(), streamAddress.getFields().get(0).getName());
+        assertEquals("Tag", tree.getField("tags").getType());
+    }
+
+    @Test
+    public void testFullTableStillMergesDuplicateClasses() {
+        SymbolTable symbols = new SymbolTable();
+        int filler = 0;
+        while (symbols.idOf("filler" + filler) >= 0) {
+            filler++;
+        }
+        assertEquals(-1, symbols.idOf("street"));
+        assertEquals("street", symbols.canonical("street"));
+
+        JsonClass root = new JsonClass("Customer");
+        Set<String> types = new HashSet<>();
+        for (String name : List.of("BillingAddress", "ShippingAddress")) {
+            JsonClass address = new JsonClass(name);
+            address.addField(new JsonField("street", "String", false, false, "STRING"));
+            address.addField(new JsonField("city", "String", false, false, "STRING"));
+            root.addNestedClass(address);
+            root.addField(new JsonField(name.substring(0, 1).toLowerCase() + name.substring(1), name, false, false,
+                "object"));
+        }
+        JsonClass geo = new JsonClass("Geo");
+        geo.addField(new JsonField("street", "Double", false, false, "NUMBER"));
+        geo.addField(new JsonField("city", "String", false, false, "STRING"));
+        root.addNestedClass(geo);
+        root.addField(new JsonField("geo", "Geo", false, false, "object"));
+
+        ClassCanonicalizer.Result result = new ClassCanonicalizer().canonicalize(root, symbols);
+        for (JsonField field : root.getFields()) {
+            types.add(field.getType());
+        }
+        assertEquals(3, result.getClassesAfter());
+        assertEquals(Set.of("Address", "Geo"), types);
+    }
+}
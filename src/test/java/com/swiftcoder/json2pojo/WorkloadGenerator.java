@@ -0,0 +1,185 @@
+package com.swiftcoder.json2pojo;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic JSON: a top-level array of records written until the byte budget is
+ * reached. The same seed and settings always produce the same bytes.
+ *
+ * <p>Each record has {@code width} fields whose keys are drawn from a pool of
+ * {@code keyCardinality} names, so a pool as large as the width gives every record the same
+ * fields. Every key has a primary kind (number, string, boolean, null, small object or array of
+ * {@code arrayLength} scalars); with probability {@code heterogeneity} a value takes another
+ * scalar kind instead. Records nest {@code depth - 1} levels deep through a "levelN" field, so
+ * every level is a class of its own.
+ */
+public class WorkloadGenerator {
+    private static final JsonFactory FACTORY = new JsonFactory();
+    private static final int KINDS = 7;
+
+    private final long seed;
+    private final int width;
+    private final int depth;
+    private final int arrayLength;
+    private final double heterogeneity;
+    private final int keyCardinality;
+    private final long totalBytes;
+
+    public WorkloadGenerator(long seed) {
+        this(seed, 8, 1, 4, 0, 8, 64 * 1024);
+    }
+
+    private WorkloadGenerator(long seed, int width, int depth, int arrayLength, double heterogeneity,
+                              int keyCardinality, long totalBytes) {
+        this.seed = seed;
+        this.width = width;
+        this.depth = depth;
+        this.arrayLength = arrayLength;
+        this.heterogeneity = heterogeneity;
+        this.keyCardinality = keyCardinality;
+        this.totalBytes = totalBytes;
+    }
+
+    // Also raises the key pool to at least the width
+    public WorkloadGenerator withWidth(int width) {
+        return new WorkloadGenerator(seed, width, depth, arrayLength, heterogeneity,
+            Math.max(width, keyCardinality), totalBytes);
+    }
+
+    public WorkloadGenerator withDepth(int depth) {
+        return new WorkloadGenerator(seed, width, depth, arrayLength, heterogeneity, keyCardinality, totalBytes);
+    }
+
+    public WorkloadGenerator withArrayLength(int arrayLength) {
+        return new WorkloadGenerator(seed, width, depth, arrayLength, heterogeneity, keyCardinality, totalBytes);
+    }
+
+    // 0: every key keeps its kind; 1: every value has a random scalar kind
+    public WorkloadGenerator withHeterogeneity(double heterogeneity) {
+        return new WorkloadGenerator(seed, width, depth, arrayLength, heterogeneity, keyCardinality, totalBytes);
+    }
+
+    // Distinct keys records draw their fields from; never less than the width
+    public WorkloadGenerator withKeyCardinality(int keyCardinality) {
+        return new WorkloadGenerator(seed, width, depth, arrayLength, heterogeneity,
+            Math.max(width, keyCardinality), totalBytes);
+    }
+
+    // Records are written until at least this many bytes were produced (always at least one record)
+    public WorkloadGenerator withTotalBytes(long totalBytes) {
+        return new WorkloadGenerator(seed, width, depth, arrayLength, heterogeneity, keyCardinality, totalBytes);
+    }
+
+    public String generate() throws IOException {
+        return new String(toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    public byte[] toByteArray() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.min(totalBytes + 1024, Integer.MAX_VALUE - 8));
+        writeTo(out);
+        return out.toByteArray();
+    }
+
+    public void writeTo(Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            writeTo(out);
+        }
+    }
+
+    // Leaves the stream open
+    public void writeTo(OutputStream out) throws IOException {
+        CountingOutputStream counted = new CountingOutputStream(out);
+        SplittableRandom random = new SplittableRandom(seed);
+        try (JsonGenerator json = FACTORY.createGenerator(counted, JsonEncoding.UTF8)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.writeStartArray();
+            for (long id = 0; id == 0 || counted.count + json.getOutputBuffered() < totalBytes; id++) {
+                writeRecord(json, random, id, 1);
+            }
+            json.writeEndArray();
+        }
+    }
+
+    private void writeRecord(JsonGenerator json, SplittableRandom random, long id, int level) throws IOException {
+        json.writeStartObject();
+        // A pool as large as the width yields the same keys, in the same order, for every record
+        int firstKey = keyCardinality == width ? 0 : random.nextInt(keyCardinality);
+        for (int i = 0; i < width; i++) {
+            int key = (firstKey + i) % keyCardinality;
+            json.writeFieldName("k" + key);
+            int kind = key % KINDS;
+            if (heterogeneity > 0 && random.nextDouble() < heterogeneity) {
+                kind = random.nextInt(4);
+            }
+            writeValue(json, random, id, kind);
+        }
+        if (level < depth) {
+            json.writeFieldName("level" + (level + 1));
+            writeRecord(json, random, id, level + 1);
+        }
+        json.writeEndObject();
+    }
+
+    private void writeValue(JsonGenerator json, SplittableRandom random, long id, int kind) throws IOException {
+        switch (kind) {
+            case 0:
+                json.writeNumber(random.nextInt(1_000_000));
+                break;
+            case 1:
+                json.writeString("value-" + random.nextInt(10_000));
+                break;
+            case 2:
+                json.writeBoolean(random.nextBoolean());
+                break;
+            case 3:
+                json.writeNumber(random.nextInt(100_000) / 100.0);
+                break;
+            case 4:
+                json.writeNull();
+                break;
+            case 5:
+                json.writeStartObject();
+                json.writeNumberField("id", id);
+                json.writeStringField("label", "label-" + random.nextInt(100));
+                json.writeEndObject();
+                break;
+            default:
+                json.writeStartArray();
+                for (int i = 0; i < arrayLength; i++) {
+                    json.writeNumber(random.nextInt(1_000));
+                }
+                json.writeEndArray();
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}